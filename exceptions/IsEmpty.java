@@ -4,4 +4,9 @@ public class IsEmpty extends Exception {
 	public IsEmpty(String message) {
         super(message);
     }
+
+    // stackTrace = false: sin traza
+    public IsEmpty(String message, boolean stackTrace) {
+        super(message, null, false, stackTrace);
+    }
 }
\ No newline at end of file
@@ -4,4 +4,9 @@ public class ItemDuplicated extends Exception {
     public ItemDuplicated(String message) {
         super(message);
     }
+
+    // stackTrace = false: sin traza, para inserciones que chocan con una clave a menudo
+    public ItemDuplicated(String message, boolean stackTrace) {
+        super(message, null, false, stackTrace);
+    }
 }
\ No newline at end of file
@@ -4,4 +4,9 @@ public class ItemNotFound extends Exception {
 	public ItemNotFound(String message) {
         super(message);
     }
+
+    // stackTrace = false: sin traza, para búsquedas que fallan a menudo
+    public ItemNotFound(String message, boolean stackTrace) {
+        super(message, null, false, stackTrace);
+    }
 }
\ No newline at end of file
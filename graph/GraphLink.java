@@ -21,11 +21,22 @@ public class GraphLink<E extends Comparable<E>> {
     }
 //AÑADIMOS UN VERTICE A LA LISTA
     public void addVertex(E data) throws ItemDuplicated {
-        Vertex<E> v = new Vertex<>(data);//inicializamos una lista vacia donde aladiremos vertices
-        if (vertices.indexOf(v) >= 0) {//el vertice ya esta en la lista?
-            throw new ItemDuplicated("Vértice ya existe: " + data);
+        if (!addVertexIfAbsent(data)) {//el vertice ya esta en la lista?
+            throw new ItemDuplicated("Vértice ya existe: " + data, false);
         }
+    }
+
+    // Añade el vértice si no estaba; retorna false si ya existía (sin excepciones)
+    public boolean addVertexIfAbsent(E data) {
+        Vertex<E> v = new Vertex<>(data);//inicializamos una lista vacia donde aladiremos vertices
+        if (vertices.indexOf(v) >= 0) return false;
         vertices.add(v);//añade
+        return true;
+    }
+
+    // ¿Existe el vértice? (sin excepciones)
+    public boolean containsVertex(E data) {
+        return findVertexOrNull(data) != null;
     }
 //ELIMINAMOOOOS VERTICES
     public void removeVertex(E data) throws IsEmpty, ItemNotFound {
@@ -119,11 +130,14 @@ public class GraphLink<E extends Comparable<E>> {
 /////////////////////////////////////////////////////////////
     //encontramos el verticeeeeee 
     private Vertex<E> findVertex(E data) throws ItemNotFound, IsEmpty {
-        for (int i = 0; i < vertices.size(); i++) {
-            Vertex<E> v = vertices.get(i);//asuminmos el valor del corredor con el que visita
-            if (v.getData().equals(data)) return v;
-        }
-        throw new ItemNotFound("Vértice no encontrado: " + data);
+        Vertex<E> v = findVertexOrNull(data);
+        if (v == null) throw new ItemNotFound("Vértice no encontrado: " + data, false);
+        return v;
+    }
+
+    // Vértice con ese dato, o null; una sola pasada por la lista (get(i) en un bucle la recorría n veces)
+    private Vertex<E> findVertexOrNull(E data) {
+        return vertices.find(new Vertex<>(data));//Vertex.equals compara solo el dato
     }
 ///////////////////////////
     @Override
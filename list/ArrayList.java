@@ -26,6 +26,13 @@ public class ArrayList<T> implements TDAList<T> {
         elements[size++] = e;
     }
 
+    // * Añade un elemento al final SIN comprobar duplicados.
+    // Para quien ya garantiza unicidad (p. ej. resultados de un rango del B+ Tree): evita el indexOf O(n) de add.
+    public void append(T e) {
+        ensureCapacity();
+        elements[size++] = e;
+    }
+
     // * Inserta un elemento en la posición indicada.
     public void add(int index, T e) throws ItemDuplicated, ItemNotFound {
         // Verifica índice válido
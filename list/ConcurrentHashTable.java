@@ -0,0 +1,267 @@
+package list;
+
+import exceptions.ItemDuplicated;
+import exceptions.ItemNotFound;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tabla hash concurrente con el mismo contrato que HashTable (put lanza ItemDuplicated, get/remove
+ * lanzan ItemNotFound sin stack trace, getOrNull/tryRemove/containsKey no lanzan, admite la clave null),
+ * para compartir el índice por código entre los terminales sin serializar todo detrás de un lock.
+ * - Lecturas sin bloqueo: la cabeza de cada cubeta se lee con semántica acquire y los nodos son
+ *   inmutables salvo 'next', que es volatile.
+ * - Inserción con CAS: se busca el duplicado en la cadena y se agrega el nodo nuevo en la cabeza con un
+ *   compareAndSet; si otro hilo cambió la cabeza en medio, se vuelve a buscar desde la nueva cabeza.
+ * - remove y la migración de cada cubeta durante el crecimiento toman el lock de su franja (stripe);
+ *   la franja depende solo de los bits bajos del hash, así la misma cubeta cae en la misma franja con
+ *   cualquier capacidad.
+ * - Crecimiento: un solo hilo copia las cubetas a la tabla del doble de tamaño y deja en cada cubeta
+ *   vieja un nodo de reenvío; quien lo encuentra sigue en la tabla nueva. Mientras tanto el resto de los
+ *   hilos sigue leyendo, insertando y borrando.
+ *
+ * @param <K> tipo de clave; debe ser inmutable (los lectores la comparan sin bloqueo)
+ * @param <V> tipo de valor
+ */
+public class ConcurrentHashTable<K, V> {
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int STRIPES = 64; // potencia de dos, <= capacidad mínima
+    private static final Object NULL_KEY = new Object(); // representa la clave null dentro de los nodos
+    private static final VarHandle BINS = MethodHandles.arrayElementVarHandle(Node[].class);
+    private static final VarHandle RESIZING;
+
+    static {
+        try {
+            RESIZING = MethodHandles.lookup().findVarHandle(ConcurrentHashTable.class, "resizing", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static class Node {
+        final int hash;
+        final Object key;
+        final Object value;
+        volatile Node next;
+
+        Node(int hash, Object key, Object value, Node next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    // Cubeta ya copiada a 'table': las operaciones que la encuentran siguen allí
+    static final class ForwardingNode extends Node {
+        final Node[] table;
+
+        ForwardingNode(Node[] table) {
+            super(0, null, null, null);
+            this.table = table;
+        }
+    }
+
+    private volatile Node[] table;
+    private final Object[] locks = new Object[STRIPES];
+    private final LongAdder size = new LongAdder();
+    @SuppressWarnings("unused")
+    private volatile int resizing; // 1 mientras un hilo hace crecer la tabla (se toma con CAS)
+
+    public ConcurrentHashTable() {
+        this(0);
+    }
+
+    /** @param expected cantidad de pares que se espera guardar (se reserva para no crecer antes) */
+    public ConcurrentHashTable(int expected) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < (1 << 30) && capacity * LOAD_FACTOR <= expected) capacity <<= 1;
+        table = new Node[capacity];
+        for (int i = 0; i < STRIPES; i++) locks[i] = new Object();
+    }
+
+    // Mezcla los bits del hashCode para que los bits bajos (cubeta y franja) dependan de todo el código
+    private static int spread(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static Node binAt(Node[] tab, int i) {
+        return (Node) BINS.getAcquire(tab, i);
+    }
+
+    private static Object mask(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    // Nodo de la clave, o null si no está; no bloquea
+    private Node find(Object k, int h) {
+        Node[] tab = table;
+        while (true) {
+            Node e = binAt(tab, h & (tab.length - 1));
+            if (e instanceof ForwardingNode) {
+                tab = ((ForwardingNode) e).table;
+                continue;
+            }
+            for (; e != null; e = e.next) {
+                if (e.hash == h && (e.key == k || e.key.equals(k))) return e;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Valor asociado a la clave.
+     * @throws ItemNotFound si no existe
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) throws ItemNotFound {
+        Object k = mask(key);
+        Node e = find(k, spread(k));
+        if (e == null) throw new ItemNotFound("Clave no encontrada: " + key, false);
+        return (V) e.value;
+    }
+
+    /** Valor asociado a la clave, o null si no existe (sin excepciones ni bloqueo). */
+    @SuppressWarnings("unchecked")
+    public V getOrNull(K key) {
+        Object k = mask(key);
+        Node e = find(k, spread(k));
+        return e == null ? null : (V) e.value;
+    }
+
+    /** true si la clave está en la tabla (sin excepciones ni bloqueo). */
+    public boolean containsKey(K key) {
+        Object k = mask(key);
+        return find(k, spread(k)) != null;
+    }
+
+    /**
+     * Inserta un par (key, value).
+     * @throws ItemDuplicated si la clave ya existe (también si otro hilo la insertó primero)
+     */
+    public void put(K key, V value) throws ItemDuplicated {
+        Object k = mask(key);
+        int h = spread(k);
+        Node[] tab = table;
+        boolean collided;
+        while (true) {
+            int i = h & (tab.length - 1);
+            Node head = binAt(tab, i);
+            if (head instanceof ForwardingNode) {
+                tab = ((ForwardingNode) head).table;
+                continue;
+            }
+            for (Node e = head; e != null; e = e.next) {
+                if (e.hash == h && (e.key == k || e.key.equals(k))) {
+                    throw new ItemDuplicated("Clave duplicada: " + key, false);
+                }
+            }
+            // Si la cabeza no cambió desde que se leyó, nadie insertó en esta cubeta: no hay duplicado
+            if (BINS.compareAndSet(tab, i, head, new Node(h, k, value, head))) {
+                collided = head != null;
+                break;
+            }
+        }
+        size.increment();
+        // Con la cubeta vacía no hace falta mirar el tamaño (ahorra sumar el LongAdder en cada put)
+        if (collided && size.sum() >= (long) (tab.length * LOAD_FACTOR) && tab == table) grow(tab);
+    }
+
+    /**
+     * Remueve el par con la clave dada y retorna su valor.
+     * @throws ItemNotFound si no existe
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(K key) throws ItemNotFound {
+        Node e = removeNode(key);
+        if (e == null) throw new ItemNotFound("Clave no encontrada: " + key, false);
+        return (V) e.value;
+    }
+
+    /** Remueve el par con la clave dada y retorna su valor, o null si no existía (sin excepciones). */
+    @SuppressWarnings("unchecked")
+    public V tryRemove(K key) {
+        Node e = removeNode(key);
+        return e == null ? null : (V) e.value;
+    }
+
+    // Desengancha el nodo de la clave y lo retorna, o null si no está
+    private Node removeNode(K key) {
+        Object k = mask(key);
+        int h = spread(k);
+        Node[] tab = table;
+        while (true) {
+            int i = h & (tab.length - 1);
+            synchronized (locks[i & (STRIPES - 1)]) {
+                Node head = binAt(tab, i);
+                if (head instanceof ForwardingNode) {
+                    tab = ((ForwardingNode) head).table;
+                    continue;
+                }
+                Node prev = null;
+                for (Node e = head; e != null; prev = e, e = e.next) {
+                    if (e.hash == h && (e.key == k || e.key.equals(k))) {
+                        if (prev != null) {
+                            prev.next = e.next; // los lectores que ya estaban en e siguen la cadena igual
+                        } else if (!BINS.compareAndSet(tab, i, e, e.next)) {
+                            break; // se insertó una cabeza nueva en medio: se vuelve a buscar
+                        }
+                        size.decrement();
+                        return e;
+                    }
+                }
+                if (binAt(tab, i) == head) return null;
+            }
+        }
+    }
+
+    /** @return número de pares almacenados (exacto si no hay escrituras en curso) */
+    public int size() {
+        return size.intValue();
+    }
+
+    /** @return true si la tabla está vacía */
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+
+    // Duplica la capacidad. Un solo hilo migra; los demás siguen operando y, si encuentran una cubeta
+    // ya migrada, siguen en la tabla nueva por el nodo de reenvío.
+    private void grow(Node[] tab) {
+        if (!RESIZING.compareAndSet(this, 0, 1)) return;
+        try {
+            if (tab != table) return; // otro hilo ya la hizo crecer
+            int n = tab.length;
+            Node[] next = new Node[2 * n];
+            ForwardingNode fwd = new ForwardingNode(next);
+            for (int i = 0; i < n; i++) {
+                synchronized (locks[i & (STRIPES - 1)]) { // excluye a remove; los put se detectan con el CAS
+                    while (true) {
+                        Node head = binAt(tab, i);
+                        // Los nodos se copian (los lectores pueden estar recorriendo la cadena vieja);
+                        // la cubeta i se reparte entre i e i + n de la tabla nueva
+                        Node lo = null, hi = null;
+                        for (Node e = head; e != null; e = e.next) {
+                            if ((e.hash & n) == 0) lo = new Node(e.hash, e.key, e.value, lo);
+                            else hi = new Node(e.hash, e.key, e.value, hi);
+                        }
+                        // Nadie más escribe en i e i + n de la tabla nueva hasta que la vieja reenvíe
+                        BINS.setRelease(next, i, lo);
+                        BINS.setRelease(next, i + n, hi);
+                        if (BINS.compareAndSet(tab, i, head, fwd)) break;
+                        // un put agregó una cabeza en medio: se vuelve a copiar la cubeta
+                    }
+                }
+            }
+            table = next;
+        } finally {
+            resizing = 0;
+        }
+        // Lo insertado durante la migración pudo haber vuelto a pasar el factor de carga
+        if (size.sum() >= (long) (table.length * LOAD_FACTOR)) grow(table);
+    }
+}
@@ -3,10 +3,25 @@ package list;
 import exceptions.ItemDuplicated;
 import exceptions.ItemNotFound;
 
+import java.util.function.BiConsumer;
+
 /**
  * HashTable personalizado para el Sistema de Gestión y Optimización de Inventarios en Almacenes.
  * Colisiones resueltas por encadenamiento usando nodos HashNode<K,V>.
  * No utiliza librerías de Java Collections.
+ * El crecimiento es incremental: al pasar el factor de carga se reserva la tabla nueva (el doble) y
+ * cada put/remove mueve unas pocas cubetas de la vieja, reenlazando los nodos existentes. Así ninguna
+ * inserción paga el rehash completo. Mientras dura la migración una cubeta vieja todavía no movida sigue
+ * siendo la dueña de sus claves (también de las que se inserten en ese tiempo).
+ * Para los casos en que la clave puede no estar hay operaciones que no lanzan (getOrNull, getOrDefault,
+ * tryRemove, containsKey); get/remove/put siguen lanzando, pero sin stack trace: una búsqueda fallida no
+ * es un error del programa y armar la traza costaba más que la búsqueda.
+ * Contra colisiones fabricadas (códigos de proveedores con el mismo hashCode): una cubeta que llega a
+ * TREEIFY_THRESHOLD pares se convierte en un árbol rojo-negro (TreeBin) si sus claves son Comparable de
+ * una misma clase, y vuelve a ser cadena al bajar a UNTREEIFY_THRESHOLD. Así el peor caso por operación
+ * es O(log n) y no O(n). Con HashTable(seed) además las claves String se hashean con SipHash-1-3 sobre sus
+ * chars con una semilla secreta, así no se pueden preparar colisiones sin conocerla (cuesta recalcular el
+ * hash en cada operación: el de String.hashCode queda guardado en el String).
  *
  * @param <K> tipo de clave
  * @param <V> tipo de valor
@@ -14,98 +29,204 @@ import exceptions.ItemNotFound;
 public class HashTable<K, V> {
     private static final int DEFAULT_CAPACITY = 11;
     private static final double DEFAULT_LOAD_FACTOR = 0.75;//capacidad de carga de %75
+    private static final int MIGRATE_STEP = 4; // cubetas viejas que mueve cada put/remove durante el crecimiento
+    static final int TREEIFY_THRESHOLD = 8;   // pares en una cubeta para pasarla a árbol
+    static final int UNTREEIFY_THRESHOLD = 6; // pares en un árbol para volver a cadena (menor: no oscila)
 
     private HashNode<K, V>[] table;//cada posicion es la posicion es la cabeza de lislaa
     private int capacity;
     private int size;
+    private HashNode<K, V>[] oldTable; // tabla anterior mientras se migra, null si no hay migración
+    private int oldCapacity;
+    private int migrated; // cubetas de oldTable ya movidas: [0, migrated) están vacías
+    private final boolean seeded; // hash de String con SipHash y semilla en vez de hashCode
+    private final long k0, k1;    // claves de SipHash derivadas de la semilla
 
     //Construimos una HashTable con capacidad inicial por defecto.
-    
-    @SuppressWarnings("unchecked")
+
     public HashTable() {
+        this(false, 0L);
+    }
+
+    // Tabla con hash con semilla: las claves String se hashean con SipHash-1-3 (claves derivadas de 'seed')
+    // en vez de String.hashCode, y el hashCode de las demás claves se mezcla con la semilla. Conviene una
+    // semilla impredecible (p. ej. new SecureRandom().nextLong()) cuando las claves vienen de afuera.
+
+    public HashTable(long seed) {
+        this(true, seed);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HashTable(boolean seeded, long seed) {
         this.capacity = DEFAULT_CAPACITY;
         this.table = (HashNode<K, V>[]) new HashNode[capacity];
         this.size = 0;//estara vacia!
+        this.seeded = seeded;
+        this.k0 = mix64(seed);
+        this.k1 = mix64(seed + 0x9E3779B97F4A7C15L);
     }
 
-    // Función HASH basada en hashCode(), acotada por la capacidad (11), HASHEAMOS
-    
-    private int hash(K key) {
-        return (key == null ? 0 : Math.abs(key.hashCode())) % capacity;
+    // Función HASH basada en hashCode() (o SipHash en modo con semilla), sin acotar: la cubeta es
+    // hash % largo de la tabla. HASHEAMOS
+    // Se apaga el bit de signo en vez de usar Math.abs: Math.abs(Integer.MIN_VALUE) sigue siendo negativo
+    // y daba un índice fuera de la tabla.
+
+    private int hash(Object key) {
+        if (key == null) return 0;
+        if (!seeded) return key.hashCode() & 0x7fffffff;
+        if (key instanceof String) return sipHash((String) key) & 0x7fffffff;
+        // Con otras claves solo se cambia qué cubeta toca a cada hashCode; los hashCode iguales siguen
+        // chocando y de eso se ocupan los árboles
+        return (int) mix64(key.hashCode() ^ k0) & 0x7fffffff;
+    }
+
+    // Tabla que guarda la clave con hash h: la vieja si su cubeta todavía no se migró, si no la actual
+    private HashNode<K, V>[] tableOf(int h) {
+        if (oldTable != null && h % oldCapacity >= migrated) {
+            return oldTable;
+        }
+        return table;
+    }
+
+    private static boolean same(Object key, Object other) {
+        return key == null ? other == null : key.equals(other);
     }
 
     // Inserta un par (key,value). Lanza ItemDuplicated si la clave ya existe.
      
     public void put(K key, V value) throws ItemDuplicated {
-        int idx = hash(key);//OBTENEMOS UN ENTERO DONNDE IDX SEÑALARA EN QUE posicipon se almacenara  el key y el value
-        HashNode<K, V> node = table[idx];//empieza al inicio de la lista 
+        if (oldTable != null) migrate(MIGRATE_STEP);
+        int h = hash(key);
+        HashNode<K, V>[] tab = tableOf(h);
+        int idx = h % tab.length;//OBTENEMOS UN ENTERO DONNDE IDX SEÑALARA EN QUE posicipon se almacenara  el key y el value
+        if (tab[idx] instanceof TreeBin) {
+            TreeBin<K, V> bin = (TreeBin<K, V>) tab[idx];
+            if (bin.find(h, key) != null) throw new ItemDuplicated("Clave duplicada: " + key, false);
+            if (bin.accepts(key)) {
+                bin.insert(new TreeBin.TreeNode<>(h, key, value));
+                size++;
+                if ((double) size / capacity >= DEFAULT_LOAD_FACTOR) rehash();
+                return;
+            }
+            untreeify(tab, idx); // una clave que no se puede ordenar con las demás: la cubeta vuelve a cadena
+        }
+        HashNode<K, V> node = tab[idx];//empieza al inicio de la lista 
+        int length = 0;
         while (node != null) {//verificamos que no voten null
-            if ((key == null && node.getKey() == null) || (key != null && key.equals(node.getKey()))) { //compara key con la clave de cada nodo (node.getKey()).
-                throw new ItemDuplicated("Clave duplicada: " + key);//si conincide llama itemduplicate, diciendo que ya existe en la tbla
+            if (same(key, node.getKey())) { //compara key con la clave de cada nodo (node.getKey()).
+                throw new ItemDuplicated("Clave duplicada: " + key, false);//si conincide llama itemduplicate, diciendo que ya existe en la tbla
             }
             node = node.getNext();
+            length++;
         }
         HashNode<K, V> newNode = new HashNode<>(key, value);//creamos un nodohash
-        newNode.setNext(table[idx]);//al inicio esta el hash node
-        table[idx] = newNode;//actualiza, el noco nuevo estara en la cabeza
+        newNode.setNext(tab[idx]);//al inicio esta el hash node
+        tab[idx] = newNode;//actualiza, el noco nuevo estara en la cabeza
         size++;
+        if (length + 1 >= TREEIFY_THRESHOLD) treeify(tab, idx);
         if ((double) size / capacity >= DEFAULT_LOAD_FACTOR) {//SI SUPERA EL %75 REHASHEA
             rehash();
         }
     }
 
-    // Obtiene el valor asociado a la clave. Lanza ItemNotFound si no existe.
+    // Nodo de la clave, o null si no está
     //BUSCAREMOS POR MEDIO DE LA LCAVE
-    
-    public V get(K key) throws ItemNotFound {
-        int idx = hash(key);
-        HashNode<K, V> node = table[idx];//CABEZA DE LA LISTA ENLAZADA
+
+    private HashNode<K, V> findNode(K key) {
+        int h = hash(key);
+        HashNode<K, V>[] tab = tableOf(h); // get no migra: las lecturas no modifican la tabla
+        HashNode<K, V> node = tab[h % tab.length];//CABEZA DE LA LISTA ENLAZADA
+        if (node instanceof TreeBin) return ((TreeBin<K, V>) node).find(h, key);
         while (node != null) {
             //si ambas claves son null son iguales            si qui no es null llama a ...
-            if ((key == null && node.getKey() == null) || (key != null && key.equals(node.getKey()))) {
-                return node.getValue();
+            if (same(key, node.getKey())) {
+                return node;
             }
             node = node.getNext();//pasa al siguiente nodo
         }
-        throw new ItemNotFound("Clave no encontrada: " + key);
+        return null;
+    }
+
+    // Obtiene el valor asociado a la clave. Lanza ItemNotFound si no existe.
+
+    public V get(K key) throws ItemNotFound {
+        HashNode<K, V> node = findNode(key);
+        if (node == null) throw new ItemNotFound("Clave no encontrada: " + key, false);
+        return node.getValue();
+    }
+
+    // Valor asociado a la clave, o null si no existe (sin excepciones). Si se guardan valores null
+    // conviene getOrDefault o containsKey para distinguirlos de una clave ausente.
+
+    public V getOrNull(K key) {
+        HashNode<K, V> node = findNode(key);
+        return node == null ? null : node.getValue();
+    }
+
+    // Valor asociado a la clave, o 'notFound' si no existe (sin excepciones)
+
+    public V getOrDefault(K key, V notFound) {
+        HashNode<K, V> node = findNode(key);
+        return node == null ? notFound : node.getValue();
     }
 
     
     // Remueve el par con la clave dada y retorna su valor. Lanza ItemNotFound si no existe.
-    //ELIMINA
-    
+
     public V remove(K key) throws ItemNotFound {
-        int idx = hash(key);
-        HashNode<K, V> node = table[idx];//NODE VA A RECORRER LA LLISLA ENLAZADA 
+        HashNode<K, V> node = removeNode(key);
+        if (node == null) throw new ItemNotFound("Clave no encontrada: " + key, false);
+        return node.getValue();
+    }
+
+    // Remueve el par con la clave dada y retorna su valor, o null si no existía (sin excepciones)
+
+    public V tryRemove(K key) {
+        HashNode<K, V> node = removeNode(key);
+        return node == null ? null : node.getValue();
+    }
+
+    // Desengancha el nodo de la clave y lo retorna, o null si no está
+    //ELIMINA
+
+    private HashNode<K, V> removeNode(K key) {
+        if (oldTable != null) migrate(MIGRATE_STEP);
+        int h = hash(key);
+        HashNode<K, V>[] tab = tableOf(h);
+        int idx = h % tab.length;
+        HashNode<K, V> node = tab[idx];//NODE VA A RECORRER LA LLISLA ENLAZADA 
+        if (node instanceof TreeBin) {
+            TreeBin<K, V> bin = (TreeBin<K, V>) node;
+            TreeBin.TreeNode<K, V> found = bin.find(h, key);
+            if (found == null) return null;
+            bin.remove(found);
+            size--;
+            if (bin.count <= UNTREEIFY_THRESHOLD) untreeify(tab, idx);
+            return found;
+        }
         HashNode<K, V> prev = null;//prev queda apuntando al nodo anterior a node (inicialmente null).
         while (node != null) {
             //SI LO QUE BUSCO ES igual al que esta almacenado es null son iguales
             //Verifica si la clave del nodo actual (node.getKey()) es igual a la clave que queremos eliminar.
-            if ((key == null && node.getKey() == null) || (key != null && key.equals(node.getKey()))) {
-                V val = node.getValue(); //antes de extraerlo de HT extraemos su valor
+            if (same(key, node.getKey())) {
                 if (prev == null) {
-                    table[idx] = node.getNext();
+                    tab[idx] = node.getNext();
                 } else {
                     prev.setNext(node.getNext());
                 }
                 size--;
-                return val;
+                return node;
             }
             prev = node;
             node = node.getNext();
         }
-        throw new ItemNotFound("Clave no encontrada: " + key);
+        return null;
     }
 
-    // Verifica si existe la clave!!!
+    // Verifica si existe la clave!!! (sin pasar por get ni excepciones)
 
     public boolean containsKey(K key) {
-        try {
-            get(key);
-            return true;
-        } catch (ItemNotFound e) {
-            return false;
-        }
+        return findNode(key) != null;
     }
 
     // @return número de pares almacenados 
@@ -118,34 +239,163 @@ public class HashTable<K, V> {
         return size == 0;
     }
 
+    // Recorre todos los pares (en el orden de las cubetas, sin orden de clave), también durante una migración.
+    // No admite modificaciones de la tabla mientras se recorre.
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (oldTable != null) {
+            for (int i = migrated; i < oldCapacity; i++) {
+                for (HashNode<K, V> node = chainOf(oldTable[i]); node != null; node = node.getNext()) {
+                    action.accept(node.getKey(), node.getValue());
+                }
+            }
+        }
+        for (int i = 0; i < capacity; i++) {
+            for (HashNode<K, V> node = chainOf(table[i]); node != null; node = node.getNext()) {
+                action.accept(node.getKey(), node.getValue());
+            }
+        }
+    }
+
+    // Primer nodo de la cubeta: la cabeza de la cadena, o el primero de la lista del árbol
+    private HashNode<K, V> chainOf(HashNode<K, V> head) {
+        return head instanceof TreeBin ? ((TreeBin<K, V>) head).first : head;
+    }
+
     // Limpia la tabla, eliminando todos los pares.
      
     @SuppressWarnings("unchecked")
     public void clear() {
         this.table = (HashNode<K, V>[]) new HashNode[capacity];
         this.size = 0;
+        this.oldTable = null;
     }
 
-    // Duplica la capacidad y reubica todos los pares.
+    // Duplica la capacidad; los pares se mudan de a poco con migrate.
     //rehasheo AL %75
     
     @SuppressWarnings("unchecked")
     private void rehash() {
-        HashNode<K, V>[] oldTable = table;
-        int oldCap = capacity;
+        if (oldTable != null) migrate(oldCapacity); // caso raro: se llenó antes de terminar la migración anterior
+        oldTable = table;
+        oldCapacity = capacity;
+        migrated = 0;
         capacity *= 2;
         table = (HashNode<K, V>[]) new HashNode[capacity];//cream,os nueva tabla vacia
-        size = 0;
-        for (int i = 0; i < oldCap; i++) {
-            HashNode<K, V> node = oldTable[i];
-            while (node != null) {
-                try {
-                    put(node.getKey(), node.getValue());
-                } catch (ItemDuplicated ignored) {
-                    // no puede ocurrir aquí
+    }
+
+    // Mueve hasta 'buckets' cubetas de la tabla vieja a la nueva reenlazando sus nodos (sin put:
+    // no hay duplicados que buscar). Al vaciarla se suelta la tabla vieja.
+    private void migrate(int buckets) {
+        int end = Math.min(oldCapacity, migrated + buckets);
+        for (; migrated < end; migrated++) {
+            HashNode<K, V> node = oldTable[migrated];
+            oldTable[migrated] = null;
+            if (node instanceof TreeBin) { // los nodos del árbol ya traen su hash
+                TreeBin.TreeNode<K, V> t = ((TreeBin<K, V>) node).first;
+                while (t != null) {
+                    TreeBin.TreeNode<K, V> next = t.after();
+                    relink(t, t.hash);
+                    t = next;
                 }
-                node = node.getNext();
+                continue;
             }
+            while (node != null) {
+                HashNode<K, V> next = node.getNext();
+                relink(node, hash(node.getKey()));
+                node = next;
+            }
+        }
+        if (migrated == oldCapacity) oldTable = null;
+    }
+
+    // Pone en la tabla actual un nodo que viene de la vieja: al árbol de su cubeta si lo hay, si no al
+    // frente de la cadena (y la cadena pasa a árbol si llegó al umbral). Solo crea nodos al cambiar de tipo.
+    private void relink(HashNode<K, V> node, int h) {
+        int idx = h % capacity;
+        if (table[idx] instanceof TreeBin) {
+            TreeBin<K, V> bin = (TreeBin<K, V>) table[idx];
+            if (bin.accepts(node.getKey())) {
+                bin.insert(node instanceof TreeBin.TreeNode
+                        ? (TreeBin.TreeNode<K, V>) node : new TreeBin.TreeNode<>(h, node.getKey(), node.getValue()));
+                return;
+            }
+            untreeify(table, idx);
+        }
+        if (node instanceof TreeBin.TreeNode) node = new HashNode<>(node.getKey(), node.getValue());
+        node.setNext(table[idx]);
+        table[idx] = node;
+        // Se intenta solo al llegar justo al umbral: si las claves no se pueden ordenar, una cadena más
+        // larga ya se intentó y no vale la pena recorrerla en cada nodo que llega
+        int length = 0;
+        for (HashNode<K, V> n = node; n != null && length <= TREEIFY_THRESHOLD; n = n.getNext()) length++;
+        if (length == TREEIFY_THRESHOLD) treeify(table, idx);
+    }
+
+    // Convierte la cadena de tab[idx] en árbol si todas sus claves son Comparable de una misma clase;
+    // si no, la deja como está (sigue siendo correcta, solo más lenta)
+    private void treeify(HashNode<K, V>[] tab, int idx) {
+        HashNode<K, V> head = tab[idx];
+        Object first = head.getKey();
+        if (!(first instanceof Comparable)) return;
+        for (HashNode<K, V> node = head; node != null; node = node.getNext()) {
+            if (node.getKey() == null || node.getKey().getClass() != first.getClass()) return;
+        }
+        TreeBin<K, V> bin = new TreeBin<>(first.getClass());
+        for (HashNode<K, V> node = head; node != null; node = node.getNext()) {
+            bin.insert(new TreeBin.TreeNode<>(hash(node.getKey()), node.getKey(), node.getValue()));
+        }
+        tab[idx] = bin;
+    }
+
+    // Vuelve a cadena el árbol de tab[idx]
+    private void untreeify(HashNode<K, V>[] tab, int idx) {
+        HashNode<K, V> head = null;
+        for (TreeBin.TreeNode<K, V> t = ((TreeBin<K, V>) tab[idx]).first; t != null; t = t.after()) {
+            HashNode<K, V> node = new HashNode<>(t.getKey(), t.getValue());
+            node.setNext(head);
+            head = node;
+        }
+        tab[idx] = head;
+    }
+
+    // Finalizador de SplitMix64: mezcla los 64 bits (para derivar las claves y para el modo con semilla)
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // SipHash-1-3 con claves (k0, k1) sobre los chars de s, de a cuatro por palabra de 64 bits
+    private int sipHash(String s) {
+        long v0 = k0 ^ 0x736f6d6570736575L, v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L, v3 = k1 ^ 0x7465646279746573L;
+        int len = s.length();
+        int full = len & ~3;
+        for (int i = 0; i <= full; i += 4) {
+            long m;
+            if (i < full) {
+                m = s.charAt(i) | (long) s.charAt(i + 1) << 16 | (long) s.charAt(i + 2) << 32
+                        | (long) s.charAt(i + 3) << 48;
+            } else { // última palabra: los chars que sobran y el largo en el byte alto
+                m = (long) (len & 0xff) << 56;
+                for (int j = i; j < len; j++) m |= (long) s.charAt(j) << (16 * (j - i));
+            }
+            v3 ^= m;
+            // una ronda por palabra
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            v0 ^= m;
+        }
+        v2 ^= 0xff;
+        for (int r = 0; r < 3; r++) { // tres rondas de cierre
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
         }
+        long r = v0 ^ v1 ^ v2 ^ v3;
+        return (int) (r ^ (r >>> 32));
     }
 }
@@ -6,6 +6,8 @@ import graph.Vertex;
 // LinkedList personalizado para el Sistema de Gestión y Optimización de Inventarios en Almacenes.
 // Implementación de TDAList<T> con lista enlazada unidireccional sin usar Iterator.
 // Permite acceder a elementos por índice y manipulación dinámica.
+// getOrNull y find no lanzan cuando no hay nada que devolver (retornan null); remove(T) lanza sin stack
+// trace porque no encontrar el elemento es un caso esperado. Los índices inválidos sí llevan traza: son bugs.
 
 public class LinkedList<T> implements TDAList<T> {
     private LinkedNode<T> head;
@@ -105,6 +107,31 @@ public class LinkedList<T> implements TDAList<T> {
         return curr.getData();
     }
 
+    // * Elemento en la posición indicada, o null si la lista está vacía o el índice no es válido.
+    public T getOrNull(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        LinkedNode<T> curr = head;
+        for (int i = 0; i < index; i++) {
+            curr = curr.getNext();
+        }
+        return curr.getData();
+    }
+
+    // * Primer elemento igual (equals) al dado tal como está guardado en la lista, o null si no existe.
+    // * Sirve para recuperar el objeto completo a partir de uno de prueba en una sola pasada.
+    public T find(T data) {
+        LinkedNode<T> curr = head;
+        while (curr != null) {
+            if (curr.getData().equals(data)) {
+                return curr.getData();
+            }
+            curr = curr.getNext();
+        }
+        return null;
+    }
+
     // * Reemplaza el elemento en la posición indicada.
     public T set(int index, T element) throws ItemNotFound, IsEmpty {
         if (size == 0) {
@@ -152,11 +179,11 @@ public class LinkedList<T> implements TDAList<T> {
     // * Elimina la primera ocurrencia del elemento dado.
     public boolean remove(T data) throws IsEmpty, ItemNotFound {
         if (size == 0) {
-            throw new IsEmpty("La lista está vacía");
+            throw new IsEmpty("La lista está vacía", false);
         }
         int idx = indexOf(data);
         if (idx < 0) {
-            throw new ItemNotFound("Elemento no encontrado: " + data);
+            throw new ItemNotFound("Elemento no encontrado: " + data, false);
         }
         remove(idx);
         return true;
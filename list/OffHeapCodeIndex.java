@@ -0,0 +1,303 @@
+package list;
+
+import exceptions.ItemDuplicated;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ToLongFunction;
+
+/**
+ * Índice hash de códigos de ítem fuera del heap: código String (UTF-8, hasta KEY_MAX bytes) hacia un long
+ * no negativo, típicamente la posición del registro del ítem (en un archivo de datos o en un arreglo).
+ * A diferencia de HashTable&lt;String, Item&gt; no deja en el heap un HashNode ni un String por código:
+ * todo vive en ByteBuffers directos, así que el recolector de basura no tiene nada que recorrer.
+ * - Direccionamiento abierto con sondeo lineal; la capacidad es potencia de dos y las bajas corren
+ *   hacia atrás los pares siguientes (sin lápidas).
+ * - Cada posición ocupa SLOT bytes: [hash:4][largo + 1:1][código:KEY_MAX][-:4][valor:8]; largo + 1 = 0
+ *   marca la posición libre.
+ * - Las posiciones se reparten en bloques de a lo sumo CHUNK_SLOTS (un ByteBuffer no pasa de 2 GB).
+ * - get/contains con códigos ASCII no reservan memoria: se hashea y se compara carácter por carácter
+ *   (en ASCII coinciden con los bytes UTF-8); otros códigos se codifican a un byte[] temporal.
+ * - save escribe el índice en un archivo y open lo mapea directo a memoria (sin reconstruir nada);
+ *   el mapeo es privado: lo que se modifique después no vuelve al archivo hasta otro save.
+ * No es seguro para escrituras concurrentes; las lecturas concurrentes sin escrituras sí.
+ */
+public class OffHeapCodeIndex {
+    public static final int KEY_MAX = 31;
+    public static final long NOT_FOUND = -1L;
+
+    private static final int SLOT = 48;
+    private static final int LEN = 4;    // offset del largo + 1
+    private static final int KEY = 5;    // offset de los bytes del código
+    private static final int VALUE = 40; // offset del valor
+    private static final int CHUNK_SLOTS = 1 << 20; // 48 MB por bloque
+    private static final int MIN_CAPACITY = 64;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MAGIC = 0x4F484349; // "OHCI"
+    private static final int HEADER = 64;
+
+    private ByteBuffer[] chunks;
+    private int chunkShift; // log2 de las posiciones por bloque
+    private int chunkMask;
+    private long mask;      // capacidad - 1
+    private long size;
+
+    /** Índice vacío con lugar para 'expected' códigos sin crecer. */
+    public OffHeapCodeIndex(long expected) {
+        long capacity = MIN_CAPACITY;
+        while (capacity * LOAD_FACTOR <= expected) capacity <<= 1;
+        allocate(capacity);
+    }
+
+    private OffHeapCodeIndex(ByteBuffer[] chunks, long capacity, long size) {
+        this.chunks = chunks;
+        setCapacity(capacity);
+        this.size = size;
+    }
+
+    /**
+     * Arma el índice con todos los pares de una tabla en el heap.
+     * @param pointer posición del registro de cada valor (>= 0)
+     */
+    public static <V> OffHeapCodeIndex of(HashTable<String, V> table, ToLongFunction<V> pointer) {
+        OffHeapCodeIndex index = new OffHeapCodeIndex(table.size());
+        table.forEach((code, value) -> {
+            try {
+                index.put(code, pointer.applyAsLong(value));
+            } catch (ItemDuplicated e) {
+                throw new IllegalStateException(e); // no puede ocurrir: las claves de la tabla son únicas
+            }
+        });
+        return index;
+    }
+
+    private void allocate(long capacity) {
+        int perChunk = (int) Math.min(capacity, CHUNK_SLOTS);
+        chunks = new ByteBuffer[(int) (capacity / perChunk)];
+        for (int i = 0; i < chunks.length; i++) chunks[i] = ByteBuffer.allocateDirect(perChunk * SLOT);
+        setCapacity(capacity);
+    }
+
+    private void setCapacity(long capacity) {
+        int perChunk = (int) Math.min(capacity, CHUNK_SLOTS);
+        chunkShift = Integer.numberOfTrailingZeros(perChunk);
+        chunkMask = perChunk - 1;
+        mask = capacity - 1;
+    }
+
+    // ---------------------------------------------------------------------
+    // Operaciones
+    // ---------------------------------------------------------------------
+
+    /**
+     * Inserta el par (código, valor).
+     * @throws ItemDuplicated si el código ya existe
+     */
+    public void put(String code, long value) throws ItemDuplicated {
+        if (value < 0) throw new IllegalArgumentException("El valor debe ser >= 0: " + value);
+        byte[] kb = code.getBytes(StandardCharsets.UTF_8);
+        if (kb.length > KEY_MAX) {
+            throw new IllegalArgumentException("Código demasiado largo (máx " + KEY_MAX + " bytes): " + code);
+        }
+        int h = hash(kb);
+        if (find(kb, h) >= 0) throw new ItemDuplicated("Clave duplicada: " + code, false);
+        if (size + 1 > (long) ((mask + 1) * LOAD_FACTOR)) grow();
+        long s = h & mask;
+        while (len(s) != 0) s = (s + 1) & mask;
+        ByteBuffer buf = chunk(s);
+        int off = offset(s);
+        buf.putInt(off, h);
+        buf.put(off + LEN, (byte) (kb.length + 1));
+        buf.put(off + KEY, kb);
+        buf.putLong(off + VALUE, value);
+        size++;
+    }
+
+    /** Valor asociado al código, o NOT_FOUND. */
+    public long get(String code) {
+        long s = locate(code);
+        return s >= 0 ? chunk(s).getLong(offset(s) + VALUE) : NOT_FOUND;
+    }
+
+    public boolean contains(String code) {
+        return locate(code) >= 0;
+    }
+
+    /** Quita el código y devuelve su valor, o NOT_FOUND si no estaba. */
+    public long remove(String code) {
+        long s = locate(code);
+        if (s < 0) return NOT_FOUND;
+        long value = chunk(s).getLong(offset(s) + VALUE);
+        // Backward shift: un par que viene después puede ocupar el hueco si el hueco está entre su
+        // posición ideal y la actual (recorriendo en círculo)
+        long hole = s;
+        for (long j = (s + 1) & mask; len(j) != 0; j = (j + 1) & mask) {
+            long home = chunk(j).getInt(offset(j)) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                copySlot(j, hole);
+                hole = j;
+            }
+        }
+        chunk(hole).put(offset(hole) + LEN, (byte) 0);
+        size--;
+        return value;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /** Bytes fuera del heap que ocupa el índice. */
+    public long offHeapBytes() {
+        return (mask + 1) * SLOT;
+    }
+
+    // ---------------------------------------------------------------------
+    // Persistencia
+    // ---------------------------------------------------------------------
+
+    /** Escribe el índice completo en 'file' (lo reemplaza si existe). */
+    public void save(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer h = ByteBuffer.allocate(HEADER);
+            h.putInt(MAGIC).putInt(SLOT).putInt(KEY_MAX).putLong(mask + 1).putLong(size);
+            h.clear();
+            long pos = 0;
+            while (h.hasRemaining()) pos += ch.write(h, pos);
+            for (ByteBuffer c : chunks) {
+                ByteBuffer d = c.duplicate();
+                d.clear();
+                while (d.hasRemaining()) pos += ch.write(d, pos);
+            }
+            ch.force(true);
+        }
+    }
+
+    /** Mapea a memoria un índice guardado con save; no lee ni reconstruye los pares. */
+    public static OffHeapCodeIndex open(Path file) throws IOException {
+        // PRIVATE exige el canal abierto también para escritura, aunque el archivo no se modifica
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer h = ByteBuffer.allocate(HEADER);
+            while (h.hasRemaining() && ch.read(h, h.position()) >= 0) { }
+            h.flip();
+            if (h.remaining() < HEADER || h.getInt() != MAGIC || h.getInt() != SLOT || h.getInt() != KEY_MAX) {
+                throw new IOException("No es un índice de códigos: " + file);
+            }
+            long capacity = h.getLong();
+            long size = h.getLong();
+            int perChunk = (int) Math.min(capacity, CHUNK_SLOTS);
+            if (Long.bitCount(capacity) != 1 || ch.size() != HEADER + capacity * SLOT) {
+                throw new IOException("Índice de códigos truncado o dañado: " + file);
+            }
+            ByteBuffer[] chunks = new ByteBuffer[(int) (capacity / perChunk)];
+            for (int i = 0; i < chunks.length; i++) {
+                // PRIVATE: copy-on-write, las escrituras posteriores no tocan el archivo
+                chunks[i] = ch.map(FileChannel.MapMode.PRIVATE, HEADER + (long) i * perChunk * SLOT, (long) perChunk * SLOT);
+            }
+            return new OffHeapCodeIndex(chunks, capacity, size); // el mapeo sigue válido al cerrar el canal
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Auxiliares
+    // ---------------------------------------------------------------------
+
+    private ByteBuffer chunk(long s) {
+        return chunks[(int) (s >>> chunkShift)];
+    }
+
+    private int offset(long s) {
+        return ((int) s & chunkMask) * SLOT;
+    }
+
+    private int len(long s) {
+        return chunk(s).get(offset(s) + LEN) & 0xFF;
+    }
+
+    // Posición del código, o -1; sin reservar memoria si el código es ASCII
+    private long locate(String code) {
+        int n = code.length();
+        if (n > KEY_MAX) return -1; // ni en ASCII entra
+        int h = 0x811C9DC5;
+        for (int i = 0; i < n; i++) {
+            char c = code.charAt(i);
+            if (c >= 0x80) { // no ASCII: se compara por bytes
+                byte[] kb = code.getBytes(StandardCharsets.UTF_8);
+                return kb.length > KEY_MAX ? -1 : find(kb, hash(kb));
+            }
+            h = (h ^ c) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        for (long s = h & mask; ; s = (s + 1) & mask) {
+            ByteBuffer buf = chunk(s);
+            int off = offset(s);
+            int len = buf.get(off + LEN) & 0xFF;
+            if (len == 0) return -1;
+            if (len == n + 1 && buf.getInt(off) == h && sameChars(buf, off + KEY, code)) return s;
+        }
+    }
+
+    private long find(byte[] kb, int h) {
+        for (long s = h & mask; ; s = (s + 1) & mask) {
+            ByteBuffer buf = chunk(s);
+            int off = offset(s);
+            int len = buf.get(off + LEN) & 0xFF;
+            if (len == 0) return -1;
+            if (len == kb.length + 1 && buf.getInt(off) == h && sameBytes(buf, off + KEY, kb)) return s;
+        }
+    }
+
+    private static boolean sameChars(ByteBuffer buf, int off, String code) {
+        for (int i = 0; i < code.length(); i++) {
+            if (buf.get(off + i) != (byte) code.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean sameBytes(ByteBuffer buf, int off, byte[] kb) {
+        for (int i = 0; i < kb.length; i++) {
+            if (buf.get(off + i) != kb[i]) return false;
+        }
+        return true;
+    }
+
+    // FNV-1a sobre los bytes UTF-8 con los bits altos mezclados en los bajos (que eligen la posición);
+    // para ASCII da lo mismo que locate sobre los caracteres
+    private static int hash(byte[] kb) {
+        int h = 0x811C9DC5;
+        for (byte b : kb) h = (h ^ (b & 0xFF)) * 0x01000193;
+        return h ^ (h >>> 16);
+    }
+
+    private void copySlot(long from, long to) {
+        ByteBuffer src = chunk(from), dst = chunk(to);
+        int so = offset(from), d = offset(to);
+        dst.putInt(d, src.getInt(so));
+        dst.put(d + LEN, src.get(so + LEN));
+        for (int i = 0; i < KEY_MAX; i++) dst.put(d + KEY + i, src.get(so + KEY + i));
+        dst.putLong(d + VALUE, src.getLong(so + VALUE));
+    }
+
+    // Duplica la capacidad y recoloca los pares con su hash guardado
+    private void grow() {
+        ByteBuffer[] old = chunks;
+        int oldShift = chunkShift, oldMask = chunkMask;
+        long oldCapacity = mask + 1;
+        allocate(oldCapacity * 2);
+        for (long s = 0; s < oldCapacity; s++) {
+            ByteBuffer src = old[(int) (s >>> oldShift)];
+            int so = ((int) s & oldMask) * SLOT;
+            if ((src.get(so + LEN) & 0xFF) == 0) continue;
+            long t = src.getInt(so) & mask;
+            while (len(t) != 0) t = (t + 1) & mask;
+            ByteBuffer dst = chunk(t);
+            int d = offset(t);
+            for (int i = 0; i < SLOT; i++) dst.put(d + i, src.get(so + i));
+        }
+    }
+}
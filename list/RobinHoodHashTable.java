@@ -0,0 +1,212 @@
+package list;
+
+import exceptions.ItemDuplicated;
+import exceptions.ItemNotFound;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de direccionamiento abierto con sondeo lineal Robin Hood, con el mismo contrato que
+ * HashTable (put lanza ItemDuplicated, get/remove lanzan ItemNotFound, admite la clave null).
+ * No crea un nodo por par: claves, valores y hashes viven en tres arreglos paralelos, así un get
+ * recorre posiciones contiguas en vez de seguir punteros de una cadena.
+ * - La capacidad es potencia de dos: la cubeta es hash &amp; mask (sin división), después de mezclar
+ *   los bits del hashCode para que los bits bajos dependan de todo el código.
+ * - Robin Hood: al insertar, si el par residente está más cerca de su cubeta ideal que el que se
+ *   inserta, se le cede el lugar y se sigue insertando el desplazado. Las distancias quedan parejas
+ *   y una búsqueda fallida corta apenas encuentra un residente más cerca de su cubeta que ella.
+ * - remove corre hacia atrás los pares siguientes (backward shift) en vez de dejar lápidas.
+ * - El factor de carga es configurable (0.75 por defecto).
+ * - getOrNull/tryRemove/containsKey no lanzan; get/remove/put lanzan sin stack trace.
+ *
+ * @param <K> tipo de clave
+ * @param <V> tipo de valor
+ */
+public class RobinHoodHashTable<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes; // hash mezclado de cada posición; 0 = posición libre
+    private int mask;     // capacidad - 1
+    private int size;
+    private int threshold; // se duplica la capacidad al llegar a este tamaño
+    private final double loadFactor;
+
+    /** Tabla vacía con capacidad 16 y factor de carga 0.75. */
+    public RobinHoodHashTable() {
+        this(0, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expected   cantidad de pares que se espera guardar (se reserva para no redimensionar antes)
+     * @param loadFactor fracción de posiciones ocupadas a partir de la cual se duplica, en (0, 1)
+     */
+    public RobinHoodHashTable(int expected, double loadFactor) {
+        if (expected < 0) throw new IllegalArgumentException("expected must be >= 0");
+        if (!(loadFactor > 0 && loadFactor < 1)) throw new IllegalArgumentException("loadFactor must be in (0, 1)");
+        this.loadFactor = loadFactor;
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < (1 << 30) && capacity * loadFactor <= expected) capacity <<= 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity - 1, (long) (capacity * loadFactor));
+    }
+
+    // Mezcla los bits del hashCode (los de arriba también deciden la cubeta) y reserva el 0 para "libre"
+    private static int spread(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        h *= 0x9E3779B9;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+
+    // Distancia de la posición i a la cubeta ideal del par que la ocupa
+    private int distance(int i) {
+        return (i - (hashes[i] & mask)) & mask;
+    }
+
+    // Posición de la clave, o -1 si no está
+    private int indexOf(K key) {
+        int h = spread(key);
+        int i = h & mask;
+        for (int d = 0; ; d++) {
+            int hi = hashes[i];
+            // Libre, o un residente más cerca de su cubeta que nosotros: la clave no está
+            if (hi == 0 || distance(i) < d) return -1;
+            if (hi == h && (key == null ? keys[i] == null : key.equals(keys[i]))) return i;
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Inserta un par (key, value).
+     * @throws ItemDuplicated si la clave ya existe
+     */
+    public void put(K key, V value) throws ItemDuplicated {
+        if (indexOf(key) >= 0) throw new ItemDuplicated("Clave duplicada: " + key, false);
+        if (size >= threshold) grow();
+        insertAbsent(spread(key), key, value);
+        size++;
+    }
+
+    // Coloca un par que no está en la tabla; a partir del primer intercambio se sigue con el desplazado
+    private void insertAbsent(int h, Object key, Object value) {
+        int i = h & mask;
+        for (int d = 0; ; d++) {
+            int hi = hashes[i];
+            if (hi == 0) {
+                hashes[i] = h;
+                keys[i] = key;
+                values[i] = value;
+                return;
+            }
+            int di = distance(i);
+            if (di < d) { // el residente está más cerca de su cubeta: le quitamos el lugar
+                Object k = keys[i], v = values[i];
+                hashes[i] = h;
+                keys[i] = key;
+                values[i] = value;
+                h = hi;
+                key = k;
+                value = v;
+                d = di;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Valor asociado a la clave.
+     * @throws ItemNotFound si no existe
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) throws ItemNotFound {
+        int i = indexOf(key);
+        if (i < 0) throw new ItemNotFound("Clave no encontrada: " + key, false);
+        return (V) values[i];
+    }
+
+    /** Valor asociado a la clave, o null si no existe (sin excepciones). */
+    @SuppressWarnings("unchecked")
+    public V getOrNull(K key) {
+        int i = indexOf(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    /**
+     * Remueve el par con la clave dada y retorna su valor.
+     * @throws ItemNotFound si no existe
+     */
+    public V remove(K key) throws ItemNotFound {
+        int i = indexOf(key);
+        if (i < 0) throw new ItemNotFound("Clave no encontrada: " + key, false);
+        return removeAt(i);
+    }
+
+    /** Remueve el par con la clave dada y retorna su valor, o null si no existía (sin excepciones). */
+    public V tryRemove(K key) {
+        int i = indexOf(key);
+        return i < 0 ? null : removeAt(i);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V removeAt(int i) {
+        V val = (V) values[i];
+        // Backward shift: se corren una posición atrás los siguientes mientras no estén en su cubeta ideal
+        int next = (i + 1) & mask;
+        while (hashes[next] != 0 && distance(next) > 0) {
+            hashes[i] = hashes[next];
+            keys[i] = keys[next];
+            values[i] = values[next];
+            i = next;
+            next = (next + 1) & mask;
+        }
+        hashes[i] = 0;
+        keys[i] = null;
+        values[i] = null;
+        size--;
+        return val;
+    }
+
+    /** true si la clave está en la tabla (sin excepciones). */
+    public boolean containsKey(K key) {
+        return indexOf(key) >= 0;
+    }
+
+    /** @return número de pares almacenados */
+    public int size() {
+        return size;
+    }
+
+    /** @return true si la tabla está vacía */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Limpia la tabla conservando la capacidad. */
+    public void clear() {
+        Arrays.fill(hashes, 0);
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // Duplica la capacidad y recoloca los pares con su hash guardado (sin hashCode ni equals)
+    private void grow() {
+        if (mask + 1 >= (1 << 30)) throw new IllegalStateException("RobinHoodHashTable llena");
+        Object[] oldKeys = keys, oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(oldHashes.length * 2);
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != 0) insertAbsent(oldHashes[i], oldKeys[i], oldValues[i]);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package list;
+
+/**
+ * Cubeta de HashTable convertida en árbol rojo-negro, para que muchas claves en la misma cubeta
+ * (colisiones fabricadas a propósito, por ejemplo) cuesten O(log n) y no O(n) por operación.
+ * Va en la tabla en lugar de la cabeza de la cadena.
+ * - Orden: primero el hash completo de la clave y, a igual hash, compareTo. Por eso todas las claves
+ *   de un árbol son de la misma clase y Comparable, con compareTo coherente con equals.
+ * - Los nodos además quedan enlazados en una lista (first / next / prev) para recorrerlos y migrarlos
+ *   sin bajar por el árbol.
+ *
+ * @param <K> tipo de clave
+ * @param <V> tipo de valor
+ */
+final class TreeBin<K, V> extends HashNode<K, V> {
+
+    static final class TreeNode<K, V> extends HashNode<K, V> {
+        final int hash;
+        TreeNode<K, V> parent, left, right, prev;
+        boolean red;
+
+        TreeNode(int hash, K key, V value) {
+            super(key, value);
+            this.hash = hash;
+        }
+
+        @SuppressWarnings("unchecked")
+        TreeNode<K, V> after() {
+            return (TreeNode<K, V>) getNext();
+        }
+    }
+
+    final Class<?> keyClass; // clase de todas las claves del árbol
+    TreeNode<K, V> root;
+    TreeNode<K, V> first;
+    int count;
+
+    TreeBin(Class<?> keyClass) {
+        super(null, null);
+        this.keyClass = keyClass;
+    }
+
+    /** true si la clave puede ordenarse dentro de este árbol. */
+    boolean accepts(Object key) {
+        return key != null && key.getClass() == keyClass;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(int h1, Object k1, int h2, Object k2) {
+        if (h1 != h2) return h1 < h2 ? -1 : 1;
+        return ((Comparable) k1).compareTo(k2);
+    }
+
+    /** Nodo de la clave, o null si no está. */
+    TreeNode<K, V> find(int h, Object key) {
+        if (!accepts(key)) {
+            // De otra clase no se puede comparar; igual podría ser equals a alguna (rarísimo): se recorre
+            for (TreeNode<K, V> n = first; n != null; n = n.after()) {
+                if (key != null && key.equals(n.getKey())) return n;
+            }
+            return null;
+        }
+        TreeNode<K, V> p = root;
+        while (p != null) {
+            int c = compare(h, key, p.hash, p.getKey());
+            if (c == 0) return p;
+            p = c < 0 ? p.left : p.right;
+        }
+        return null;
+    }
+
+    /** Inserta un nodo cuya clave no está en el árbol (accepts debe ser true). */
+    void insert(TreeNode<K, V> x) {
+        x.left = x.right = null;
+        TreeNode<K, V> parent = null, p = root;
+        int c = 0;
+        while (p != null) {
+            parent = p;
+            c = compare(x.hash, x.getKey(), p.hash, p.getKey());
+            p = c < 0 ? p.left : p.right;
+        }
+        x.parent = parent;
+        if (parent == null) root = x;
+        else if (c < 0) parent.left = x;
+        else parent.right = x;
+        x.red = true;
+        fixAfterInsert(x);
+        // a la lista, por delante
+        x.prev = null;
+        x.setNext(first);
+        if (first != null) first.prev = x;
+        first = x;
+        count++;
+    }
+
+    /** Quita un nodo que está en el árbol. */
+    void remove(TreeNode<K, V> z) {
+        TreeNode<K, V> next = z.after();
+        if (z.prev == null) first = next;
+        else z.prev.setNext(next);
+        if (next != null) next.prev = z.prev;
+        count--;
+
+        // Borrado clásico: si z tiene dos hijos lo reemplaza su sucesor (y), que sale de su lugar;
+        // x es el nodo que queda donde estaba el que se sacó y xParent su padre (x puede ser null)
+        TreeNode<K, V> y = z, x, xParent;
+        boolean removedRed = z.red;
+        if (z.left == null) {
+            x = z.right;
+            xParent = z.parent;
+            transplant(z, z.right);
+        } else if (z.right == null) {
+            x = z.left;
+            xParent = z.parent;
+            transplant(z, z.left);
+        } else {
+            y = z.right;
+            while (y.left != null) y = y.left;
+            removedRed = y.red;
+            x = y.right;
+            if (y.parent == z) {
+                xParent = y;
+            } else {
+                xParent = y.parent;
+                transplant(y, y.right);
+                y.right = z.right;
+                y.right.parent = y;
+            }
+            transplant(z, y);
+            y.left = z.left;
+            y.left.parent = y;
+            y.red = z.red;
+        }
+        if (!removedRed) fixAfterRemove(x, xParent);
+        z.parent = z.left = z.right = z.prev = null;
+        z.setNext(null);
+    }
+
+    // Pone v (puede ser null) en el lugar de u respecto de su padre
+    private void transplant(TreeNode<K, V> u, TreeNode<K, V> v) {
+        if (u.parent == null) root = v;
+        else if (u == u.parent.left) u.parent.left = v;
+        else u.parent.right = v;
+        if (v != null) v.parent = u.parent;
+    }
+
+    private static boolean isRed(TreeNode<?, ?> n) {
+        return n != null && n.red;
+    }
+
+    private void fixAfterInsert(TreeNode<K, V> x) {
+        while (x != root && x.parent.red) {
+            TreeNode<K, V> p = x.parent, g = p.parent; // p es rojo: no es la raíz, g existe
+            if (p == g.left) {
+                TreeNode<K, V> u = g.right;
+                if (isRed(u)) { // tío rojo: se recolorea y se sigue desde el abuelo
+                    p.red = false;
+                    u.red = false;
+                    g.red = true;
+                    x = g;
+                } else {
+                    if (x == p.right) {
+                        x = p;
+                        rotateLeft(x);
+                        p = x.parent;
+                    }
+                    p.red = false;
+                    g.red = true;
+                    rotateRight(g);
+                }
+            } else {
+                TreeNode<K, V> u = g.left;
+                if (isRed(u)) {
+                    p.red = false;
+                    u.red = false;
+                    g.red = true;
+                    x = g;
+                } else {
+                    if (x == p.left) {
+                        x = p;
+                        rotateRight(x);
+                        p = x.parent;
+                    }
+                    p.red = false;
+                    g.red = true;
+                    rotateLeft(g);
+                }
+            }
+        }
+        root.red = false;
+    }
+
+    // x lleva un negro de más (x null cuenta como negro); se sube o se resuelve con rotaciones
+    private void fixAfterRemove(TreeNode<K, V> x, TreeNode<K, V> parent) {
+        while (x != root && !isRed(x)) {
+            if (x == parent.left) {
+                TreeNode<K, V> w = parent.right; // el hermano existe: su lado tiene un negro más
+                if (w.red) {
+                    w.red = false;
+                    parent.red = true;
+                    rotateLeft(parent);
+                    w = parent.right;
+                }
+                if (!isRed(w.left) && !isRed(w.right)) {
+                    w.red = true;
+                    x = parent;
+                    parent = x.parent;
+                } else {
+                    if (!isRed(w.right)) {
+                        w.left.red = false;
+                        w.red = true;
+                        rotateRight(w);
+                        w = parent.right;
+                    }
+                    w.red = parent.red;
+                    parent.red = false;
+                    w.right.red = false;
+                    rotateLeft(parent);
+                    x = root;
+                }
+            } else {
+                TreeNode<K, V> w = parent.left;
+                if (w.red) {
+                    w.red = false;
+                    parent.red = true;
+                    rotateRight(parent);
+                    w = parent.left;
+                }
+                if (!isRed(w.left) && !isRed(w.right)) {
+                    w.red = true;
+                    x = parent;
+                    parent = x.parent;
+                } else {
+                    if (!isRed(w.left)) {
+                        w.right.red = false;
+                        w.red = true;
+                        rotateLeft(w);
+                        w = parent.left;
+                    }
+                    w.red = parent.red;
+                    parent.red = false;
+                    w.left.red = false;
+                    rotateRight(parent);
+                    x = root;
+                }
+            }
+        }
+        if (x != null) x.red = false;
+    }
+
+    private void rotateLeft(TreeNode<K, V> x) {
+        TreeNode<K, V> y = x.right;
+        x.right = y.left;
+        if (y.left != null) y.left.parent = x;
+        transplant(x, y);
+        y.left = x;
+        x.parent = y;
+    }
+
+    private void rotateRight(TreeNode<K, V> x) {
+        TreeNode<K, V> y = x.left;
+        x.left = y.right;
+        if (y.right != null) y.right.parent = x;
+        transplant(x, y);
+        y.right = x;
+        x.parent = y;
+    }
+}
@@ -3,6 +3,7 @@ package modelo;
 import exceptions.IsEmpty;
 import exceptions.ItemDuplicated;
 import exceptions.ItemNotFound;
+import list.ArrayList;
 import tree.BPlusTree;
 
 /**
@@ -12,7 +13,7 @@ import tree.BPlusTree;
  */
 public class Category {
     private final String name;
-    private final BPlusTree<Item> itemsTree;
+    private final BPlusTree<String, Item> itemsTree; // ítems indexados por código
 
     /**
      * Construye una nueva categoría con nombre dado.
@@ -39,7 +40,7 @@ public class Category {
      * @throws IsEmpty 
      */
     public void addItem(Item item) throws IsEmpty, ItemNotFound, ItemDuplicated {
-        itemsTree.insert(item);
+        itemsTree.insert(item.getCode(), item);
     }
 
     /**
@@ -49,7 +50,7 @@ public class Category {
      * @throws IsEmpty 
      */
     public void removeItem(Item item) throws IsEmpty, ItemNotFound {
-        itemsTree.delete(item);
+        itemsTree.delete(item.getCode());
     }
 
     /**
@@ -60,7 +61,47 @@ public class Category {
      * @throws IsEmpty 
      */
     public boolean contains(Item item) throws IsEmpty, ItemNotFound {
-        return itemsTree.contains(item);
+        return itemsTree.contains(item.getCode());
+    }
+
+    /**
+     * Busca un ítem de esta categoría por su código, sin construir un Item de prueba.
+     * @param code código del ítem
+     * @return el ítem, o null si no está
+     */
+    public Item getItem(String code) {
+        return itemsTree.get(code);
+    }
+
+    /**
+     * Elimina un ítem de esta categoría por su código.
+     * @param code código del ítem
+     * @return el ítem eliminado, o null si no estaba
+     */
+    public Item removeItem(String code) {
+        return itemsTree.remove(code);
+    }
+
+    /**
+     * Mueve a otra categoría los ítems con código en [fromCode, toCode] (null = sin límite) sin reconstruir
+     * los árboles: el rango se corta como subárbol y, si en el destino cae entre dos códigos consecutivos,
+     * se injerta entero en O(log n). Si el destino tiene códigos intercalados se insertan uno por uno.
+     * @param target Categoría destino
+     * @return ítems que no se movieron porque el destino ya tenía su código (quedan en esta categoría)
+     */
+    public ArrayList<Item> moveItemsTo(Category target, String fromCode, String toCode) {
+        ArrayList<Item> rejected = new ArrayList<>();
+        if (target == this) return rejected;
+        BPlusTree<String, Item> part = itemsTree.extractRange(fromCode, toCode);
+        if (target.itemsTree.graft(part)) return rejected;
+        BPlusTree<String, Item>.Cursor c = part.cursor(null, null);
+        while (c.next()) {
+            if (target.itemsTree.putIfAbsent(c.key(), c.value()) != null) {
+                itemsTree.put(c.key(), c.value());
+                rejected.append(c.value());
+            }
+        }
+        return rejected;
     }
 
     /**
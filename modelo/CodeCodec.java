@@ -0,0 +1,119 @@
+package modelo;
+
+/**
+ * Empaqueta códigos de ítem (p. ej. "IT00001234") en un long que respeta el orden de los códigos:
+ * si a.compareTo(b) &lt; 0 entonces encode(a) &lt; encode(b). Así un tree.LongBPlusTree indexado por
+ * el long recorre los ítems en el mismo orden que el B+ Tree por código.
+ * Cada carácter se guarda como un dígito en base (tamaño del alfabeto + 1); el dígito 0 rellena las
+ * posiciones después del final, de modo que un prefijo queda antes que sus extensiones.
+ */
+public class CodeCodec {
+    /** Alfabeto por defecto: guion, dígitos y mayúsculas, hasta 12 caracteres (38^12 &lt; 2^63). */
+    public static final CodeCodec DEFAULT = new CodeCodec("-0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ", 12);
+
+    private final int[] digit = new int[128]; // carácter ASCII -> dígito (0 = no pertenece al alfabeto)
+    private final int[] floor = new int[128]; // carácter ASCII -> dígito del mayor carácter del alfabeto <= él
+    private final char[] alphabet;
+    private final int radix;
+    private final int maxLength;
+
+    /**
+     * @param alphabet caracteres ASCII admitidos, en orden creciente y sin repetir
+     * @param maxLength largo máximo de los códigos; radix^maxLength debe entrar en un long positivo
+     */
+    public CodeCodec(String alphabet, int maxLength) {
+        if (alphabet.isEmpty() || maxLength < 1) throw new IllegalArgumentException("Alfabeto o largo inválido");
+        this.alphabet = alphabet.toCharArray();
+        for (int i = 0; i < this.alphabet.length; i++) {
+            char c = this.alphabet[i];
+            if (c >= 128) throw new IllegalArgumentException("Solo se admiten caracteres ASCII: " + c);
+            if (i > 0 && c <= this.alphabet[i - 1]) {
+                throw new IllegalArgumentException("El alfabeto debe estar ordenado y sin repetidos");
+            }
+            digit[c] = i + 1;
+        }
+        for (int c = 0, d = 0; c < 128; c++) {
+            if (digit[c] != 0) d = digit[c];
+            floor[c] = d;
+        }
+        this.radix = this.alphabet.length + 1;
+        long max = 1;
+        for (int i = 0; i < maxLength; i++) {
+            if (max > Long.MAX_VALUE / radix) {
+                throw new IllegalArgumentException("No entran " + maxLength + " caracteres en base " + radix);
+            }
+            max *= radix;
+        }
+        this.maxLength = maxLength;
+    }
+
+    /** true si el código se puede empaquetar (largo y caracteres admitidos). */
+    public boolean canEncode(String code) {
+        if (code == null || code.length() > maxLength) return false;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c >= 128 || digit[c] == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Empaqueta el código.
+     * @throws IllegalArgumentException si es demasiado largo o tiene caracteres fuera del alfabeto
+     */
+    public long encode(String code) {
+        if (code.length() > maxLength) throw new IllegalArgumentException("Código demasiado largo: " + code);
+        long v = 0;
+        for (int i = 0; i < maxLength; i++) {
+            int d = 0;
+            if (i < code.length()) {
+                char c = code.charAt(i);
+                if (c >= 128 || (d = digit[c]) == 0) {
+                    throw new IllegalArgumentException("Carácter fuera del alfabeto en " + code + ": " + c);
+                }
+            }
+            v = v * radix + d;
+        }
+        return v;
+    }
+
+    /**
+     * Prefijo numérico para cualquier cadena, monótono: si a.compareTo(b) &lt; 0 entonces
+     * prefix(a) &lt;= prefix(b) (los empates se resuelven comparando las cadenas). Para códigos que
+     * encode acepta devuelve lo mismo que encode. Un carácter fuera del alfabeto se redondea al
+     * anterior del alfabeto y el resto se completa con el dígito máximo (o con 0 si no hay anterior);
+     * lo que pasa de maxLength se ignora.
+     */
+    public long prefix(String code) {
+        long v = 0;
+        for (int i = 0; i < maxLength; i++) {
+            int d = 0;
+            if (i < code.length()) {
+                char c = code.charAt(i);
+                d = c < 128 ? digit[c] : 0;
+                if (d == 0) {
+                    int f = c < 128 ? floor[c] : alphabet.length;
+                    long fill = f == 0 ? 0 : radix - 1;
+                    v = v * radix + f;
+                    for (i++; i < maxLength; i++) v = v * radix + fill;
+                    return v;
+                }
+            }
+            v = v * radix + d;
+        }
+        return v;
+    }
+
+    /** Recupera el código a partir de su long. */
+    public String decode(long value) {
+        char[] out = new char[maxLength];
+        int len = maxLength;
+        for (int i = maxLength - 1; i >= 0; i--) {
+            int d = (int) (value % radix);
+            value /= radix;
+            if (d == 0) len = i; // relleno: el código termina antes
+            else out[i] = alphabet[d - 1];
+        }
+        return new String(out, 0, len);
+    }
+}
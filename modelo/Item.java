@@ -9,6 +9,8 @@ public class Item implements Comparable<Item> {
     private String name;
     private int quantity;
     private String location;
+    private StockListener stockListener;
+    private LocationListener locationListener;
 
     /**
      * Crea un ítem con los datos básicos.
@@ -47,7 +49,25 @@ public class Item implements Comparable<Item> {
      * @param location nueva ubicación
      */
     public void setLocation(String location) {
+        String old = this.location;
         this.location = location;
+        if (locationListener != null) locationListener.locationChanged(this, old, location);
+    }
+
+    /**
+     * Registra el observador que se avisa en cada cambio de stock (reemplaza al anterior).
+     * @param listener observador, o null para quitarlo
+     */
+    public void setStockListener(StockListener listener) {
+        this.stockListener = listener;
+    }
+
+    /**
+     * Registra el observador que se avisa en cada cambio de ubicación (reemplaza al anterior).
+     * @param listener observador, o null para quitarlo
+     */
+    public void setLocationListener(LocationListener listener) {
+        this.locationListener = listener;
     }
 
     /**
@@ -56,7 +76,9 @@ public class Item implements Comparable<Item> {
      */
     public void addStock(int amount) {
         if (amount > 0) {
+            int old = quantity;
             quantity += amount;
+            notifyStock(old);
         }
     }
 
@@ -66,10 +88,16 @@ public class Item implements Comparable<Item> {
      */
     public void removeStock(int amount) {
         if (amount > 0 && amount <= quantity) {
+            int old = quantity;
             quantity -= amount;
+            notifyStock(old);
         }
     }
 
+    private void notifyStock(int oldQuantity) {
+        if (stockListener != null) stockListener.stockChanged(this, oldQuantity, quantity);
+    }
+
     @Override
     public int compareTo(Item other) {
         return this.code.compareTo(other.code);
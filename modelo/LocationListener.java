@@ -0,0 +1,15 @@
+package modelo;
+
+/**
+ * Observador de cambios de ubicación de un ítem. Lo usan los índices por ubicación para reubicar
+ * la entrada del ítem cuando la ubicación cambia directamente sobre él.
+ */
+public interface LocationListener {
+    /**
+     * Se invoca después de que la ubicación cambió.
+     * @param item ítem modificado
+     * @param oldLocation ubicación previa
+     * @param newLocation ubicación actual
+     */
+    void locationChanged(Item item, String oldLocation, String newLocation);
+}
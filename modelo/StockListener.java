@@ -0,0 +1,16 @@
+package modelo;
+
+/**
+ * Observador de cambios de stock de un ítem. Lo usan las estructuras que guardan datos derivados
+ * de la cantidad (p. ej. totales por rango) para mantenerse al día cuando el stock cambia
+ * directamente sobre el ítem.
+ */
+public interface StockListener {
+    /**
+     * Se invoca después de que la cantidad cambió.
+     * @param item ítem modificado
+     * @param oldQuantity cantidad previa
+     * @param newQuantity cantidad actual
+     */
+    void stockChanged(Item item, int oldQuantity, int newQuantity);
+}
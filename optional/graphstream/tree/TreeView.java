@@ -8,7 +8,10 @@ import exceptions.ItemNotFound;
 
 /**
  * TreeViewGraphStream pinta un B+ Tree usando GraphStream.
- * Requiere agregar GraphStream al classpath.
+ * Requiere agregar GraphStream al classpath (es opcional: el resto del proyecto no lo usa), por eso vive
+ * en la carpeta aparte optional/graphstream y solo se compila junto al resto si se pide (ver README).
+ * Crea un nodo gráfico por nodo del árbol y abre una ventana, así que sirve para árboles chicos;
+ * para árboles grandes o servidores sin pantalla usar TreeExporter (DOT / JSON con límites).
  *
  * Maven dependency:
  * <dependency>
@@ -17,14 +20,15 @@ import exceptions.ItemNotFound;
  *   <version>2.0</version>
  * </dependency>
  *
- * @param <T> tipo de clave Comparable
+ * @param <K> tipo de clave Comparable
+ * @param <V> tipo de valor del árbol
  */
-public class TreeView<T extends Comparable<T>> {
-    private final BPlusTree<T> tree;
+public class TreeView<K extends Comparable<K>, V> {
+    private final BPlusTree<K, V> tree;
     private final Graph graph;
     private int counter = 0;
 
-    public TreeView(BPlusTree<T> tree) {
+    public TreeView(BPlusTree<K, V> tree) {
         this.tree = tree;
         this.graph = new SingleGraph("BPlusTree");
         graph.setAttribute("ui.stylesheet",
@@ -41,11 +45,11 @@ public class TreeView<T extends Comparable<T>> {
         graph.display();
     }
 
-    private String build(BPlusTree<T>.Node node, String parentId)
+    private String build(BPlusTree<K, V>.Node node, String parentId)
             throws IsEmpty, ItemNotFound {
         String myId = "N" + (counter++);
         Node gNode = graph.addNode(myId);
-        gNode.setAttribute("ui.label", node.keys.toString());
+        gNode.setAttribute("ui.label", node.keysToString());
 
         if (parentId != null) {
             String edgeId = parentId + "-" + myId;
@@ -53,9 +57,9 @@ public class TreeView<T extends Comparable<T>> {
         }
 
         if (!node.isLeaf()) {
-            BPlusTree<T>.InternalNode in = (BPlusTree<T>.InternalNode) node;
-            for (int i = 0; i < in.children.size(); i++) {
-                build(in.children.get(i), myId);
+            BPlusTree<K, V>.InternalNode in = (BPlusTree<K, V>.InternalNode) node;
+            for (int i = 0; i <= in.count; i++) {
+                build(in.children[i], myId);
             }
         }
         return myId;
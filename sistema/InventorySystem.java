@@ -1,13 +1,17 @@
 package sistema;
 
+import tree.AggregateBPlusTree;
 import tree.BPlusTree;
 import exceptions.IsEmpty;
 import exceptions.ItemDuplicated;
 import exceptions.ItemNotFound;
 import graph.GraphLink;
 import list.LinkedList;
+import list.ArrayList;
 import list.HashTable;
 import modelo.Item;
+import modelo.LocationListener;
+import modelo.StockListener;
 
 /**
  * InventorySystem para el Sistema de Gestión y Optimización de Inventarios en Almacenes.
@@ -15,11 +19,24 @@ import modelo.Item;
  * - B+ Tree para categorías de ítems,
  * - Grafo para ubicaciones,
  * - HashTable para búsqueda rápida.
+ * - Índices secundarios (B+ Tree por (atributo, código)) para ubicación, nombre y cantidad,
+ *   más los que se registren con addIndex.
+ * - B+ Tree con agregados (cantidad de ítems y unidades por subárbol) para totales por rango de códigos.
+ * Las búsquedas internas usan las operaciones que no lanzan (getOrNull, tryRemove, addVertexIfAbsent):
+ * un código inexistente o una ubicación repetida son casos normales, no errores.
  */
 public class InventorySystem {
-    private final BPlusTree<Item> bPlusTree;
+    private final BPlusTree<String, Item> bPlusTree; // ítems ordenados por código
     private final GraphLink<String> graph;
     private final HashTable<String, Item> hashTable;
+    private final SecondaryIndex<String> byLocation;
+    private final SecondaryIndex<String> byName;
+    private final SecondaryIndex<Integer> byQuantity;
+    private SecondaryIndex<?>[] indexes; // todos los índices secundarios que se mantienen en altas y bajas
+    private int indexCount;
+    private final AggregateBPlusTree<String, Item> stock; // unidades por código, con totales por subárbol
+    private final StockListener stockListener;
+    private final LocationListener locationListener;
 
     /**
      * Inicializa el sistema con estructuras vacías.
@@ -29,6 +46,41 @@ public class InventorySystem {
         bPlusTree = new BPlusTree<>();
         graph     = new GraphLink<>();
         hashTable = new HashTable<>();
+        byLocation = new SecondaryIndex<>("ubicacion", Item::getLocation);
+        byName     = new SecondaryIndex<>("nombre", Item::getName);
+        byQuantity = new SecondaryIndex<>("cantidad", Item::getQuantity);
+        indexes = new SecondaryIndex<?>[]{byLocation, byName, byQuantity};
+        indexCount = indexes.length;
+        stock = new AggregateBPlusTree<>(Item::getQuantity);
+        // addStock/removeStock sobre el ítem reubican su entrada en el índice por cantidad y
+        // recalculan los totales de su camino en el árbol
+        stockListener = (item, oldQuantity, newQuantity) -> {
+            byQuantity.update(item, oldQuantity);
+            stock.refresh(item.getCode());
+        };
+        // setLocation sobre el ítem reubica su entrada en el índice por ubicación y registra la
+        // nueva ubicación en el grafo
+        locationListener = (item, oldLocation, newLocation) -> {
+            byLocation.update(item, oldLocation);
+            graph.addVertexIfAbsent(newLocation);
+        };
+    }
+
+    /**
+     * Registra un índice secundario adicional y lo llena con los ítems ya cargados.
+     * Desde ese momento addItem/removeItem lo mantienen igual que a los predefinidos.
+     */
+    public void addIndex(SecondaryIndex<?> index) throws ItemDuplicated {
+        BPlusTree<String, Item>.Cursor c = bPlusTree.cursor(null, null);
+        while (c.next()) {
+            index.add(c.value());
+        }
+        if (indexCount == indexes.length) {
+            SecondaryIndex<?>[] grown = new SecondaryIndex<?>[indexes.length * 2];
+            System.arraycopy(indexes, 0, grown, 0, indexCount);
+            indexes = grown;
+        }
+        indexes[indexCount++] = index;
     }
 
     /**
@@ -42,15 +94,17 @@ public class InventorySystem {
      */
     public void addItem(Item item) throws IsEmpty, ItemNotFound, ItemDuplicated { //INSERTAMOS EN LOS 3 TIPOS DE ED
         // 1) Árbol B+
-        bPlusTree.insert(item);
+        bPlusTree.insert(item.getCode(), item);
         // 2) HashTable
         hashTable.put(item.getCode(), item);
-        // 3) Grafo de ubicaciones
-        try {
-            graph.addVertex(item.getLocation());
-        } catch (ItemDuplicated ignored) {
-            // la ubicación ya estaba presente, seguimos
-        }
+        // 3) Grafo de ubicaciones (si ya estaba presente, seguimos)
+        graph.addVertexIfAbsent(item.getLocation());
+        // 4) Índices secundarios
+        index(item);
+        // 5) Totales de stock
+        stock.put(item.getCode(), item);
+        item.setStockListener(stockListener);
+        item.setLocationListener(locationListener);
     }
 
     /**
@@ -62,15 +116,104 @@ public class InventorySystem {
      */
     // CUANDO ELIMINAMOS TAMBIE MMANMOS A LAS 3 METODOS PARA EIMINARLOS CN RESPECTUVOS AE
     public boolean removeItem(String code) throws IsEmpty, ItemNotFound {
-        Item it = hashTable.get(code);
+        Item it = hashTable.tryRemove(code);
         if (it == null) {
             return false;
         }
-        bPlusTree.delete(it);
-        hashTable.remove(code);
+        bPlusTree.remove(code);
+        unindex(it);
+        stock.remove(code);
+        it.setStockListener(null);
+        it.setLocationListener(null);
         return true;
     }
 
+    /** Suma (delta > 0) o retira (delta < 0) stock de un ítem; el listener de stock mantiene los índices. */
+    public void adjustStock(String code, int delta) throws ItemNotFound, IsEmpty, ItemDuplicated {
+        Item it = getItem(code);
+        if (delta >= 0) it.addStock(delta);
+        else it.removeStock(-delta);
+    }
+
+    /** Cambia la ubicación de un ítem; el listener de ubicación mantiene el índice y el grafo. */
+    public void moveItem(String code, String location) throws ItemNotFound, IsEmpty, ItemDuplicated {
+        getItem(code).setLocation(location);
+    }
+
+    /** Ítems en una ubicación exacta (p. ej. "AlmacenA-Pasillo1"), ordenados por código. */
+    public ArrayList<Item> itemsAt(String location) {
+        return byLocation.equalTo(location);
+    }
+
+    /** Ítems cuyo nombre empieza con el prefijo dado (p. ej. "Torn"), ordenados por nombre. */
+    public ArrayList<Item> itemsByNamePrefix(String prefix) {
+        // Todos los nombres con el prefijo quedan en [prefix, prefix + '\uffff')
+        return byName.range(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /** Ítems con cantidad estrictamente menor que 'limit' (reposición), de menor a mayor cantidad. */
+    public ArrayList<Item> itemsWithQuantityBelow(int limit) {
+        return byQuantity.range(null, true, limit, false);
+    }
+
+    /** Ítems con cantidad en [min, max], de menor a mayor cantidad. */
+    public ArrayList<Item> itemsWithQuantityBetween(int min, int max) {
+        return byQuantity.range(min, true, max, true);
+    }
+
+    /**
+     * Página de ítems con código mayor que 'code' (null = desde el principio), en orden ascendente.
+     * Recorre solo los 'limit' ítems de la página, no el rango completo.
+     */
+    public ArrayList<Item> itemsAfter(String code, int limit) {
+        ArrayList<Item> page = new ArrayList<>();
+        BPlusTree<String, Item>.Cursor c = bPlusTree.cursor(code, false, null, false, limit);
+        while (c.next()) {
+            page.append(c.value());
+        }
+        return page;
+    }
+
+    /**
+     * Página anterior: hasta 'limit' ítems con código menor que 'code' (null = desde el final),
+     * del más cercano al más lejano (orden descendente).
+     */
+    public ArrayList<Item> itemsBefore(String code, int limit) {
+        ArrayList<Item> page = new ArrayList<>();
+        BPlusTree<String, Item>.Cursor c = bPlusTree.descendingCursor(code, false, null, false, limit);
+        while (c.next()) {
+            page.append(c.value());
+        }
+        return page;
+    }
+
+    /** Unidades en stock de los ítems con código en [fromCode, toCode] (null = sin límite), en O(log n). */
+    public long totalUnits(String fromCode, String toCode) {
+        return stock.sum(fromCode, toCode);
+    }
+
+    /** Cantidad de ítems (SKUs) con código en [fromCode, toCode] (null = sin límite), en O(log n). */
+    public long countItems(String fromCode, String toCode) {
+        return stock.count(fromCode, toCode);
+    }
+
+    /** Cantidad, unidades, mínimo y máximo de stock de los ítems con código en [fromCode, toCode]. */
+    public AggregateBPlusTree.Aggregate stockSummary(String fromCode, String toCode) {
+        return stock.aggregate(fromCode, toCode);
+    }
+
+    private void index(Item item) throws ItemDuplicated {
+        for (int i = 0; i < indexCount; i++) {
+            indexes[i].add(item);
+        }
+    }
+
+    private void unindex(Item item) {
+        for (int i = 0; i < indexCount; i++) {
+            indexes[i].remove(item);
+        }
+    }
+
     /**
      * Recupera un ítem por su código.
      * @param code código del ítem
@@ -79,13 +222,22 @@ public class InventorySystem {
      */
     //ENCONTRA UN IREM EN TABKAS HASH
     public Item getItem(String code) throws ItemNotFound, IsEmpty {
-        Item it = hashTable.get(code);
+        Item it = hashTable.getOrNull(code);
         if (it == null) {
-            throw new ItemNotFound("Ítem no encontrado: " + code);
+            throw new ItemNotFound("Ítem no encontrado: " + code, false);
         }
         return it;
     }
 
+    /**
+     * Recupera un ítem por su código sin lanzar excepciones.
+     * @param code código del ítem
+     * @return el ítem, o null si no existe
+     */
+    public Item findItem(String code) {
+        return hashTable.getOrNull(code);
+    }
+
     /** Muestra por consola la estructura del B+ Tree. 
      * @throws ItemNotFound 
      * @throws IsEmpty */
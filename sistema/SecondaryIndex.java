@@ -0,0 +1,115 @@
+package sistema;
+
+import tree.BPlusTree;
+import exceptions.ItemDuplicated;
+import list.ArrayList;
+import modelo.Item;
+
+/**
+ * Índice secundario sobre un atributo de Item (ubicación, nombre, cantidad, ...).
+ * Es un B+ Tree cuya clave compuesta es (atributo, código): el código desempata, así varios ítems
+ * pueden compartir el mismo valor de atributo. Una consulta por valor o por rango baja una vez
+ * al primer par y recorre la lista de hojas: O(log n + k).
+ * Los ítems con atributo null no se indexan.
+ * @param <A> tipo del atributo indexado
+ */
+public class SecondaryIndex<A extends Comparable<A>> {
+
+    /** Extrae el valor indexado de un ítem. */
+    public interface Attribute<A> {
+        A of(Item item);
+    }
+
+    /**
+     * Clave compuesta (atributo, código). Las claves de consulta llevan 'bound' distinto de 0
+     * para quedar antes (-1) o después (+1) de todos los códigos con ese mismo atributo.
+     */
+    static final class Key<A extends Comparable<A>> implements Comparable<Key<A>> {
+        final A attribute;
+        final String code;
+        final int bound;
+
+        Key(A attribute, String code, int bound) {
+            this.attribute = attribute;
+            this.code = code;
+            this.bound = bound;
+        }
+
+        @Override
+        public int compareTo(Key<A> o) {
+            int c = attribute.compareTo(o.attribute);
+            if (c != 0) return c;
+            if (bound != 0 || o.bound != 0) return Integer.compare(bound, o.bound);
+            return code.compareTo(o.code);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + attribute + ", " + code + ")";
+        }
+    }
+
+    private final String name;
+    private final Attribute<A> attribute;
+    private final BPlusTree<Key<A>, Item> tree = new BPlusTree<>();
+
+    /**
+     * @param name nombre descriptivo del índice (p. ej. "ubicacion")
+     * @param attribute función que obtiene el atributo de un ítem
+     */
+    public SecondaryIndex(String name, Attribute<A> attribute) {
+        this.name = name;
+        this.attribute = attribute;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Indexa el ítem con el valor actual de su atributo. */
+    public void add(Item item) throws ItemDuplicated {
+        A value = attribute.of(item);
+        if (value != null && tree.putIfAbsent(new Key<>(value, item.getCode(), 0), item) != null) {
+            throw new ItemDuplicated("Ítem ya indexado en " + name + ": " + item.getCode());
+        }
+    }
+
+    /**
+     * Quita el ítem del índice. Debe llamarse antes de modificar el atributo,
+     * porque se busca por el valor actual.
+     */
+    public boolean remove(Item item) {
+        A value = attribute.of(item);
+        return value != null && tree.remove(new Key<>(value, item.getCode(), 0)) != null;
+    }
+
+    /**
+     * Reubica el ítem después de que su atributo cambió de 'oldValue' al valor actual
+     * (cuando no se pudo llamar a remove antes del cambio).
+     */
+    public void update(Item item, A oldValue) {
+        if (oldValue != null) tree.remove(new Key<>(oldValue, item.getCode(), 0));
+        A value = attribute.of(item);
+        if (value != null) tree.putIfAbsent(new Key<>(value, item.getCode(), 0), item);
+    }
+
+    /** Ítems cuyo atributo es igual a 'value', ordenados por código. */
+    public ArrayList<Item> equalTo(A value) {
+        return range(value, true, value, true);
+    }
+
+    /**
+     * Ítems con atributo dentro del rango, ordenados por (atributo, código).
+     * Un extremo null significa "sin límite".
+     */
+    public ArrayList<Item> range(A from, boolean fromInclusive, A to, boolean toInclusive) {
+        Key<A> lo = from == null ? null : new Key<>(from, null, fromInclusive ? -1 : 1);
+        Key<A> hi = to == null ? null : new Key<>(to, null, toInclusive ? 1 : -1);
+        ArrayList<Item> res = new ArrayList<>();
+        BPlusTree<Key<A>, Item>.Cursor c = tree.cursor(lo, true, hi, false);
+        while (c.next()) {
+            res.append(c.value());
+        }
+        return res;
+    }
+}
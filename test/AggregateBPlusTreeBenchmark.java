@@ -0,0 +1,104 @@
+package test;
+
+import tree.AggregateBPlusTree;
+import tree.BPlusTree;
+import list.ArrayList;
+import modelo.Item;
+
+import java.util.Random;
+
+/**
+ * Tablero de stock: "unidades totales y cantidad de SKUs con código en [from, to]".
+ * Compara rangeSearch + ciclo sobre getQuantity (BPlusTree) contra sum/count de AggregateBPlusTree
+ * para rangos de distinto ancho, y mide el costo extra de mantener los agregados en inserciones y
+ * en cambios de stock (refresh del camino).
+ *
+ * Uso: java test.AggregateBPlusTreeBenchmark [n] [consultas]
+ */
+public class AggregateBPlusTreeBenchmark {
+    private static volatile long sink; // evita que el JIT descarte las consultas
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Random rnd = new Random(42);
+        Item[] items = new Item[n];
+        for (int i = 0; i < n; i++) {
+            items[i] = new Item(String.format("IT%08d", i), "Item " + i, rnd.nextInt(500), "A-" + (i % 100));
+        }
+        shuffle(items, rnd);
+
+        BPlusTree<String, Item> plain = new BPlusTree<>();
+        long t0 = System.nanoTime();
+        for (Item it : items) plain.put(it.getCode(), it);
+        long t1 = System.nanoTime();
+        AggregateBPlusTree<String, Item> agg = new AggregateBPlusTree<>(Item::getQuantity);
+        for (Item it : items) agg.put(it.getCode(), it);
+        long t2 = System.nanoTime();
+        System.out.println("=== " + n + " ítems ===");
+        System.out.printf("carga: BPlusTree %.0f ms, AggregateBPlusTree %.0f ms%n", (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+
+        System.out.println("ancho del rango   rangeSearch+ciclo (µs)   aggregate (µs)   speedup");
+        for (int width : new int[]{100, 10_000, 100_000, n / 2}) {
+            int[] starts = new int[queries];
+            for (int q = 0; q < queries; q++) starts[q] = rnd.nextInt(Math.max(1, n - width));
+            for (int w = 0; w < 3; w++) { // calentamiento
+                scan(plain, starts, width);
+                aggregate(agg, starts, width);
+            }
+            long a0 = System.nanoTime();
+            long s1 = scan(plain, starts, width);
+            long a1 = System.nanoTime();
+            long s2 = aggregate(agg, starts, width);
+            long a2 = System.nanoTime();
+            if (s1 != s2) throw new IllegalStateException("totales distintos: " + s1 + " vs " + s2);
+            sink = s1;
+            double x = (a1 - a0) / 1e3 / queries, y = (a2 - a1) / 1e3 / queries;
+            System.out.printf("%15d %24.1f %16.2f %9.1fx%n", width, x, y, x / y);
+        }
+
+        // Cambios de stock: la cantidad cambia sobre el ítem y se avisa al árbol
+        int updates = 200_000;
+        long u0 = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            Item it = items[rnd.nextInt(n)];
+            it.addStock(1);
+            agg.refresh(it.getCode());
+        }
+        long u1 = System.nanoTime();
+        System.out.printf("addStock + refresh: %.2f µs por cambio%n", (u1 - u0) / 1e3 / updates);
+    }
+
+    private static long scan(BPlusTree<String, Item> tree, int[] starts, int width) throws Exception {
+        long total = 0;
+        for (int s : starts) {
+            ArrayList<Item> found = tree.rangeSearch(code(s), code(s + width - 1));
+            for (int i = 0; i < found.size(); i++) {
+                total += found.get(i).getQuantity() + 1; // +1: cuenta los SKUs
+            }
+        }
+        return total;
+    }
+
+    private static long aggregate(AggregateBPlusTree<String, Item> tree, int[] starts, int width) {
+        long total = 0;
+        for (int s : starts) {
+            AggregateBPlusTree.Aggregate a = tree.aggregate(code(s), code(s + width - 1));
+            total += a.sum() + a.count();
+        }
+        return total;
+    }
+
+    private static String code(int i) {
+        return String.format("IT%08d", i);
+    }
+
+    private static void shuffle(Item[] a, Random rnd) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            Item t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+}
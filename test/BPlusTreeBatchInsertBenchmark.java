@@ -0,0 +1,96 @@
+package test;
+
+import tree.BPlusTree;
+import list.ArrayList;
+import exceptions.ItemDuplicated;
+
+import java.util.Random;
+
+/**
+ * Recepción de un envío: un lote de códigos nuevos sobre un árbol ya cargado.
+ * Compara un ciclo de insert(...) contra insertAll(lote) en dos escenarios:
+ * - códigos nuevos dispersos entre los existentes (orden aleatorio)
+ * - un bloque de códigos consecutivos al final (lo típico de un envío de un proveedor),
+ *   desordenado y ya ordenado (insertAll no necesita ordenarlo)
+ * Cada corrida parte de una copia fresca del árbol base (bulkLoad con 70% de llenado).
+ *
+ * Uso: java test.BPlusTreeBatchInsertBenchmark [base] [lote]
+ */
+public class BPlusTreeBatchInsertBenchmark {
+    public static void main(String[] args) throws Exception {
+        int base = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int batch = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+        // Árbol base con los códigos pares; los impares quedan libres para los lotes dispersos
+        String[] baseKeys = new String[base];
+        Integer[] baseValues = new Integer[base];
+        for (int i = 0; i < base; i++) {
+            baseKeys[i] = String.format("IT%08d", 2 * i);
+            baseValues[i] = i;
+        }
+        Random rnd = new Random(42);
+        String[] scattered = new String[batch];
+        String[] block = new String[batch];
+        Integer[] values = new Integer[batch];
+        for (int i = 0; i < batch; i++) {
+            scattered[i] = String.format("IT%08d", 2 * rnd.nextInt(base) + 1); // puede repetir: cuenta como duplicado
+            block[i] = String.format("IT%08d", 2 * base + i);
+            values[i] = i;
+        }
+        String[] sortedBlock = block.clone();
+        shuffle(block, rnd);
+
+        for (int w = 0; w < 3; w++) {
+            run(baseKeys, baseValues, scattered, values, false, null);
+            run(baseKeys, baseValues, block, values, false, null);
+            run(baseKeys, baseValues, sortedBlock, values, false, null);
+        }
+        System.out.println("=== Lote de " + batch + " sobre " + base + " claves ===");
+        System.out.println("escenario       insert x n (ms)   insertAll (ms)   speedup   duplicados");
+        run(baseKeys, baseValues, scattered, values, true, "dispersos");
+        run(baseKeys, baseValues, block, values, true, "bloque al final");
+        run(baseKeys, baseValues, sortedBlock, values, true, "bloque ordenado");
+    }
+
+    private static void run(String[] baseKeys, Integer[] baseValues, String[] batch, Integer[] values,
+                            boolean report, String name) throws Exception {
+        BPlusTree<String, Integer> loop = new BPlusTree<>();
+        loop.bulkLoad(baseKeys, baseValues, true, 0.7);
+        System.gc();
+        long t0 = System.nanoTime();
+        int dupLoop = 0;
+        for (int i = 0; i < batch.length; i++) {
+            try {
+                loop.insert(batch[i], values[i]);
+            } catch (ItemDuplicated e) {
+                dupLoop++;
+            }
+        }
+        long t1 = System.nanoTime();
+        loop = null;
+
+        BPlusTree<String, Integer> batched = new BPlusTree<>();
+        batched.bulkLoad(baseKeys, baseValues, true, 0.7);
+        System.gc();
+        long t2 = System.nanoTime();
+        ArrayList<ItemDuplicated> failures = batched.insertAll(batch, values);
+        long t3 = System.nanoTime();
+
+        if (failures.size() != dupLoop) {
+            throw new IllegalStateException("duplicados distintos: " + failures.size() + " vs " + dupLoop);
+        }
+        if (report) {
+            double a = (t1 - t0) / 1e6, b = (t3 - t2) / 1e6;
+            System.out.printf("%-15s %15.2f %16.2f %9.2fx %12d%n", name, a, b, a / b, failures.size());
+        }
+    }
+
+    private static void shuffle(String[] a, Random rnd) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            String t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+}
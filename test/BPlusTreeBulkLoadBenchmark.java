@@ -0,0 +1,66 @@
+package test;
+
+import tree.BPlusTree;
+import modelo.Item;
+
+/**
+ * Compara la reconstrucción del índice de ítems con inserciones individuales
+ * contra BPlusTree.bulkLoad (ordenando la exportación y ya ordenada).
+ *
+ * Uso: java test.BPlusTreeBulkLoadBenchmark [n]
+ */
+public class BPlusTreeBulkLoadBenchmark {
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Item[] export = BPlusTreeInsertBenchmark.buildItems(n, 5L); // exportación en orden arbitrario
+        Item[] sortedExport = export.clone();
+        java.util.Arrays.sort(sortedExport);
+        String[] codes = codesOf(export);
+        String[] sortedCodes = codesOf(sortedExport);
+
+        // Calentamiento
+        for (int i = 0; i < 3; i++) {
+            Item[] small = BPlusTreeInsertBenchmark.buildItems(100_000, i);
+            new BPlusTree<String, Item>().bulkLoad(codesOf(small), small);
+            BPlusTree<String, Item> t = new BPlusTree<>();
+            for (Item it : small) t.insert(it.getCode(), it);
+        }
+
+        System.out.println("=== Reconstrucción de " + n + " ítems ===");
+        System.gc();
+        long t0 = System.nanoTime();
+        BPlusTree<String, Item> one = new BPlusTree<>();
+        for (Item it : export) {
+            one.insert(it.getCode(), it);
+        }
+        long t1 = System.nanoTime();
+        System.out.printf("insert uno a uno              : %8.1f ms%n", (t1 - t0) / 1e6);
+        one = null; // cada árbol se descarta antes de medir el siguiente
+
+        for (double fill : new double[]{1.0, 0.7}) {
+            System.gc();
+            t0 = System.nanoTime();
+            BPlusTree<String, Item> bulk = new BPlusTree<>();
+            bulk.bulkLoad(codes, export, false, fill);
+            t1 = System.nanoTime();
+            System.out.printf("bulkLoad (ordena),   fill %.1f: %8.1f ms%n", fill, (t1 - t0) / 1e6);
+            bulk = null;
+
+            System.gc();
+            t0 = System.nanoTime();
+            BPlusTree<String, Item> bulkSorted = new BPlusTree<>();
+            bulkSorted.bulkLoad(sortedCodes, sortedExport, true, fill);
+            t1 = System.nanoTime();
+            System.out.printf("bulkLoad (ordenado), fill %.1f: %8.1f ms%n", fill, (t1 - t0) / 1e6);
+            if (!bulkSorted.contains(codes[n / 3])) throw new IllegalStateException("Clave perdida");
+        }
+    }
+
+    private static String[] codesOf(Item[] items) {
+        String[] codes = new String[items.length];
+        for (int i = 0; i < items.length; i++) {
+            codes[i] = items[i].getCode();
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,52 @@
+package test;
+
+import tree.BPlusTree;
+import modelo.Item;
+
+/**
+ * Barrido de fanout (orden) para BPlusTree.
+ * Para cada orden carga n ítems en orden aleatorio, luego hace n búsquedas con contains
+ * y un recorrido por rango completo. Sirve para elegir el orden por defecto midiendo.
+ *
+ * Uso: java test.BPlusTreeFanoutBenchmark [n]
+ */
+public class BPlusTreeFanoutBenchmark {
+    private static final int[] ORDERS = {4, 8, 16, 32, 64, 128, 256};
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Item[] items = BPlusTreeInsertBenchmark.buildItems(n, 7L);
+        Item[] probes = BPlusTreeInsertBenchmark.buildItems(n, 11L);
+
+        // Calentamiento con un tamaño pequeño en todos los órdenes
+        for (int order : ORDERS) {
+            measure(order, BPlusTreeInsertBenchmark.buildItems(50_000, 1L), probes);
+        }
+
+        System.out.println("=== BPlusTree fanout sweep, n=" + n + " ===");
+        System.out.println(" orden   insert(ms)   contains(ms)   range(ms)");
+        for (int order : ORDERS) {
+            long[] t = measure(order, items, probes);
+            System.out.printf("%6d %12.1f %14.1f %11.1f%n", order, t[0] / 1e6, t[1] / 1e6, t[2] / 1e6);
+        }
+    }
+
+    // Devuelve {inserción, búsquedas, rango} en nanosegundos
+    private static long[] measure(int order, Item[] items, Item[] probes) throws Exception {
+        BPlusTree<String, Item> tree = new BPlusTree<>(order);
+        long t0 = System.nanoTime();
+        for (Item it : items) {
+            tree.insert(it.getCode(), it);
+        }
+        long t1 = System.nanoTime();
+        int hits = 0;
+        for (Item p : probes) {
+            if (tree.contains(p.getCode())) hits++;
+        }
+        long t2 = System.nanoTime();
+        int found = tree.rangeSearch(null, null).size(); // todas las claves
+        long t3 = System.nanoTime();
+        if (hits < 0 || found < 0) System.out.println(); // evita que el JIT elimine el trabajo
+        return new long[]{t1 - t0, t2 - t1, t3 - t2};
+    }
+}
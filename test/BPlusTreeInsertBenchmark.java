@@ -0,0 +1,62 @@
+package test;
+
+import tree.BPlusTree;
+import modelo.Item;
+
+import java.util.Random;
+
+/**
+ * Benchmark de inserción para BPlusTree.
+ * Mide el throughput (inserciones por segundo) al cargar 10^4, 10^5 y 10^6 ítems
+ * con códigos aleatorios, que es el caso que antes se volvía casi cuadrático por findParent.
+ *
+ * Uso: java test.BPlusTreeInsertBenchmark [maxN]
+ */
+public class BPlusTreeInsertBenchmark {
+    public static void main(String[] args) throws Exception {
+        int maxN = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // Calentamiento para que el JIT compile el camino de inserción
+        run(20_000, 42L);
+        run(20_000, 43L);
+
+        System.out.println("=== BPlusTree insert (orden por defecto) ===");
+        for (int n = 10_000; n <= maxN; n *= 10) {
+            long nanos = run(n, 7L);
+            double secs = nanos / 1e9;
+            System.out.printf("n=%,10d  tiempo=%8.3f s  throughput=%,12.0f ins/s%n", n, secs, n / secs);
+        }
+    }
+
+    // Inserta n ítems en orden aleatorio y devuelve el tiempo transcurrido
+    private static long run(int n, long seed) throws Exception {
+        Item[] items = buildItems(n, seed);
+        BPlusTree<String, Item> tree = new BPlusTree<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            tree.insert(items[i].getCode(), items[i]);
+        }
+        long elapsed = System.nanoTime() - start;
+        // Verificación mínima para que el JIT no descarte el trabajo
+        if (!tree.contains(items[n / 2].getCode())) {
+            throw new IllegalStateException("Clave perdida tras la carga");
+        }
+        return elapsed;
+    }
+
+    // Genera n ítems con códigos únicos mezclados al azar (Fisher-Yates)
+    static Item[] buildItems(int n, long seed) {
+        Item[] items = new Item[n];
+        for (int i = 0; i < n; i++) {
+            items[i] = new Item(String.format("IT%08d", i), "Item" + i, i % 100, "Loc" + (i % 10));
+        }
+        Random rnd = new Random(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            Item tmp = items[i];
+            items[i] = items[j];
+            items[j] = tmp;
+        }
+        return items;
+    }
+}
@@ -0,0 +1,64 @@
+package test;
+
+import tree.BPlusTree;
+
+/**
+ * Baja de un bloque de códigos (pasillo que se da de baja): delete clave por clave contra deleteRange,
+ * para bloques de distinto tamaño sobre un árbol de n claves. También mide split + concat de un árbol
+ * completo (mover una partición a otro árbol y volver). Cada corrida parte de un árbol fresco (bulkLoad).
+ *
+ * Uso: java test.BPlusTreeRangeDeleteBenchmark [n]
+ */
+public class BPlusTreeRangeDeleteBenchmark {
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] keys = new String[n];
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = String.format("IT%08d", i);
+            values[i] = i;
+        }
+        int[] blocks = {1_000, 10_000, 100_000, n / 2};
+        for (int w = 0; w < 2; w++) { // calentamiento
+            for (int b : blocks) run(keys, values, b, false);
+        }
+        System.out.println("=== Baja de un bloque sobre " + n + " claves ===");
+        System.out.println("   bloque   delete x n (ms)   deleteRange (ms)   speedup");
+        for (int b : blocks) run(keys, values, b, true);
+
+        BPlusTree<String, Integer> tree = fresh(keys, values);
+        long t0 = System.nanoTime();
+        int reps = 1000;
+        for (int i = 0; i < reps; i++) {
+            BPlusTree<String, Integer> right = tree.split(keys[(int) ((long) i * 7919 % n)]);
+            tree.concat(right);
+        }
+        long t1 = System.nanoTime();
+        System.out.printf("split + concat: %.1f µs por par%n", (t1 - t0) / 1e3 / reps);
+    }
+
+    private static void run(String[] keys, Integer[] values, int block, boolean report) throws Exception {
+        int from = (keys.length - block) / 2;
+        BPlusTree<String, Integer> loop = fresh(keys, values);
+        long t0 = System.nanoTime();
+        for (int i = from; i < from + block; i++) {
+            loop.delete(keys[i]);
+        }
+        long t1 = System.nanoTime();
+        BPlusTree<String, Integer> ranged = fresh(keys, values);
+        long t2 = System.nanoTime();
+        long removed = ranged.deleteRange(keys[from], keys[from + block - 1]);
+        long t3 = System.nanoTime();
+        if (removed != block) throw new IllegalStateException("borradas " + removed + " de " + block);
+        if (report) {
+            double a = (t1 - t0) / 1e6, b = (t3 - t2) / 1e6;
+            System.out.printf("%9d %17.2f %18.3f %8.0fx%n", block, a, b, a / b);
+        }
+    }
+
+    private static BPlusTree<String, Integer> fresh(String[] keys, Integer[] values) throws Exception {
+        BPlusTree<String, Integer> tree = new BPlusTree<>();
+        tree.bulkLoad(keys, values, true, 0.7);
+        return tree;
+    }
+}
@@ -0,0 +1,107 @@
+package test;
+
+import tree.BPlusTree;
+import modelo.Item;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compara un recorrido de rango ancho (estilo reporte "A000".."Z999") materializado con rangeSearch
+ * contra el cursor perezoso y el stream sobre la lista de hojas, y la página "100 códigos anteriores"
+ * armada con rangeSearch contra el cursor descendente.
+ * Reporta tiempo y bytes asignados por el hilo durante cada recorrido (HotSpot).
+ *
+ * Uso: java test.BPlusTreeRangeScanBenchmark [n]
+ */
+public class BPlusTreeRangeScanBenchmark {
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        BPlusTree<String, Item> tree = new BPlusTree<>();
+        String[] codes = new String[n];
+        Item[] items = new Item[n];
+        for (int i = 0; i < n; i++) {
+            // Códigos tipo "A000".."Z999" con sufijo para llegar a n claves únicas
+            codes[i] = String.format("%c%03d-%05d", 'A' + (i % 26), (i / 26) % 1000, i / 26000);
+            items[i] = new Item(codes[i], "Item" + i, i % 50, "Loc" + (i % 10));
+        }
+        tree.bulkLoad(codes, items);
+
+        for (int w = 0; w < 5; w++) {
+            scanAll(tree, false);
+        }
+        System.out.println("=== Rango A000..Z999 sobre " + n + " ítems ===");
+        scanAll(tree, true);
+    }
+
+    private static void scanAll(BPlusTree<String, Item> tree, boolean report) throws Exception {
+        long[] r;
+
+        r = measure(() -> tree.rangeSearch("A000", "Z999~").size());
+        if (report) print("rangeSearch (materializa)", r);
+
+        r = measure(() -> {
+            long units = 0;
+            BPlusTree<String, Item>.Cursor c = tree.cursor("A000", "Z999~");
+            while (c.next()) {
+                units += c.value().getQuantity();
+            }
+            return units;
+        });
+        if (report) print("cursor", r);
+
+        r = measure(() -> tree.stream("A000", true, "Z999~", true).mapToLong(Item::getQuantity).sum());
+        if (report) print("stream", r);
+
+        r = measure(() -> {
+            // Terminación temprana: solo las primeras 100 del rango
+            long units = 0;
+            BPlusTree<String, Item>.Cursor c = tree.cursor("M000", true, null, false, 100);
+            while (c.next()) {
+                units += c.value().getQuantity();
+            }
+            return units;
+        });
+        if (report) print("cursor limit 100", r);
+
+        r = measure(() -> {
+            // Los 100 códigos anteriores a M000 sin lista previa: materializar y tomar el final
+            var all = tree.rangeSearch("A000", "M000");
+            long units = 0;
+            for (int i = all.size() - 1, k = 0; i >= 0 && k < 100; i--, k++) {
+                units += all.get(i).getQuantity();
+            }
+            return units;
+        });
+        if (report) print("100 previos (rangeSearch)", r);
+
+        r = measure(() -> {
+            long units = 0;
+            BPlusTree<String, Item>.Cursor c = tree.descendingCursor("M000", false, null, false, 100);
+            while (c.next()) {
+                units += c.value().getQuantity();
+            }
+            return units;
+        });
+        if (report) print("100 previos (descendente)", r);
+    }
+
+    interface Scan {
+        long run() throws Exception;
+    }
+
+    // Devuelve {nanos, bytes asignados, resultado}
+    private static long[] measure(Scan scan) throws Exception {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long b0 = mx.getThreadAllocatedBytes(tid);
+        long t0 = System.nanoTime();
+        long result = scan.run();
+        long t1 = System.nanoTime();
+        long b1 = mx.getThreadAllocatedBytes(tid);
+        return new long[]{t1 - t0, b1 - b0, result};
+    }
+
+    private static void print(String name, long[] r) {
+        System.out.printf("%-26s %9.2f ms %12d bytes  (resultado %d)%n", name, r[0] / 1e6, r[1], r[2]);
+    }
+}
@@ -0,0 +1,79 @@
+package test;
+
+import tree.BPlusTree;
+import modelo.Item;
+
+import java.util.Random;
+
+/**
+ * Prueba de resistencia (soak) de inserción/eliminación sobre BPlusTree.
+ * Simula la rotación de inventario: se mantiene una ventana de 'live' ítems vivos,
+ * en cada paso entra un código nuevo y sale el más antiguo (como removeItem de lo despachado),
+ * más algunas bajas al azar. Por época se mide:
+ * - tiempo de un rangeSearch desde el inicio del espacio de códigos hasta unas pocas claves vivas
+ *   (si quedaran hojas vacías a la izquierda, este recorrido crecería sin parar),
+ * - memoria usada tras un GC,
+ * - llenado promedio de las hojas y hojas vacías (BPlusTree.stats()).
+ * Todos deben mantenerse estables en el tiempo.
+ *
+ * Uso: java test.BPlusTreeSoakBenchmark [live] [epochs]
+ */
+public class BPlusTreeSoakBenchmark {
+    public static void main(String[] args) throws Exception {
+        int live = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int epochs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Random rnd = new Random(3L);
+
+        BPlusTree<String, Item> tree = new BPlusTree<>();
+        boolean[] deleted = new boolean[live * (epochs + 1) * 2];
+        int next = 0;   // siguiente código a insertar
+        int oldest = 0; // código vivo más antiguo
+        for (; next < live; next++) {
+            insert(tree, next);
+        }
+
+        System.out.println("=== BPlusTree soak: " + live + " ítems vivos, " + epochs + " épocas ===");
+        System.out.println(" época   ops acumuladas   rango(us)   heap(MB)   llenado hojas   hojas vacías");
+        for (int e = 1; e <= epochs; e++) {
+            for (int i = 0; i < live; i++) {
+                insert(tree, next++);
+                // Sale el más antiguo que siga vivo
+                while (deleted[oldest]) oldest++;
+                tree.delete(code(oldest));
+                deleted[oldest++] = true;
+                // Baja al azar dentro de la ventana (se repone con un código nuevo)
+                if (i % 4 == 0) {
+                    int victim = oldest + rnd.nextInt(next - oldest);
+                    if (!deleted[victim]) {
+                        tree.delete(code(victim));
+                        deleted[victim] = true;
+                        insert(tree, next++);
+                    }
+                }
+            }
+            while (deleted[oldest]) oldest++;
+
+            // Recorrido desde el principio del espacio de códigos hasta ~100 claves vivas
+            long t0 = System.nanoTime();
+            int found = tree.rangeSearch("IT", code(oldest + 100)).size();
+            long t1 = System.nanoTime();
+
+            System.gc();
+            Runtime rt = Runtime.getRuntime();
+            long used = rt.totalMemory() - rt.freeMemory();
+            BPlusTree.Stats st = tree.stats();
+            System.out.printf("%6d %16d %11.1f %10.1f %14.1f%% %14d   (%d claves en rango)%n",
+                    e, (long) e * live * 2, (t1 - t0) / 1e3, used / 1048576.0,
+                    st.averageLeafFill() * 100, st.emptyLeaves(), found);
+        }
+    }
+
+    private static String code(int id) {
+        return String.format("IT%09d", id);
+    }
+
+    private static void insert(BPlusTree<String, Item> tree, int id) throws Exception {
+        String code = code(id);
+        tree.insert(code, new Item(code, "Item" + id, id % 100, "Loc" + (id % 10)));
+    }
+}
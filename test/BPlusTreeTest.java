@@ -15,19 +15,19 @@ public class BPlusTreeTest {
     public static void main(String[] args) {
         try {
             // 1. Test básico de BPlusTree<Item>
-            System.out.println("=== BPlusTree<Record> Básico ===");
-            BPlusTree<Item> tree = new BPlusTree<>(4); // Árbol B+ de orden 4
+            System.out.println("=== BPlusTree<String, Item> Básico ===");
+            BPlusTree<String, Item> tree = new BPlusTree<>(4); // Árbol B+ de orden 4, indexado por código
             Item a = new Item("P1", "Prod1", 10, "Loc1");
             Item b = new Item("P2", "Prod2", 20, "Loc1");
             Item c = new Item("P3", "Prod3", 30, "Loc2");
 
             // Insertamos tres ítems en el árbol
-            tree.insert(a);
-            tree.insert(b);
-            tree.insert(c);
+            tree.insert(a.getCode(), a);
+            tree.insert(b.getCode(), b);
+            tree.insert(c.getCode(), c);
 
             // Verificamos si el ítem b ("P2") está contenido
-            System.out.println("Contains P2? " + tree.contains(b)); // true
+            System.out.println("Contains P2? " + tree.contains("P2")); // true
 
             // Mostramos la estructura actual del árbol
             tree.display();
@@ -35,22 +35,58 @@ public class BPlusTreeTest {
 
             // 2. Prueba de eliminación
             System.out.println("=== Delete ===");
-            tree.delete(b); // Eliminamos el ítem b ("P2")
+            tree.delete("P2"); // Eliminamos el ítem b ("P2")
             System.out.println("Después de delete(P2):");
             tree.display(); // Mostramos el árbol después de la eliminación
-            System.out.println("Contains P2? " + tree.contains(b)); // false
+            System.out.println("Contains P2? " + tree.contains("P2")); // false
             System.out.println();
 
             // 3. Prueba de búsqueda por rango
             System.out.println("=== rangeSearch(P1..P3) ===");
-            tree.insert(b); // Volvemos a insertar b para la prueba de rango
-            tree.insert(new Item("P4", "Prod4", 40, "Loc2")); // Insertamos un nuevo ítem
+            tree.insert(b.getCode(), b); // Volvemos a insertar b para la prueba de rango
+            tree.insert("P4", new Item("P4", "Prod4", 40, "Loc2")); // Insertamos un nuevo ítem
 
             // Buscamos todos los ítems con claves entre P1 y P3 (inclusive)
-            var rango = tree.rangeSearch(a, c);
+            var rango = tree.rangeSearch("P1", "P3");
             System.out.println("Claves en rango P1..P3: " + rango);
             System.out.println();
 
+            // 3b. Operaciones de mapa: get, put, putIfAbsent y remove
+            System.out.println("=== get/put/putIfAbsent/remove ===");
+            System.out.println("get(P3) = " + tree.get("P3")); // ítem c
+            System.out.println("get(P9) = " + tree.get("P9")); // null
+            Item c2 = new Item("P3", "Prod3-bis", 31, "Loc2");
+            System.out.println("put(P3) anterior = " + tree.put("P3", c2)); // devuelve c
+            System.out.println("putIfAbsent(P3) = " + tree.putIfAbsent("P3", c)); // devuelve c2, no reemplaza
+            System.out.println("remove(P4) = " + tree.remove("P4")); // ítem P4
+            System.out.println("remove(P4) otra vez = " + tree.remove("P4")); // null
+            System.out.println();
+
+            // 3c. Vecinos y recorrido descendente (claves actuales: P1, P2, P3)
+            System.out.println("=== first/last/floor/ceiling/lower/higher ===");
+            System.out.println("first = " + tree.first() + ", last = " + tree.last()); // P1, P3
+            System.out.println("floor(P2) = " + tree.floor("P2") + ", lower(P2) = " + tree.lower("P2")); // P2, P1
+            System.out.println("ceiling(P25) = " + tree.ceiling("P25") + ", higher(P3) = " + tree.higher("P3")); // P3, null
+            System.out.print("Descendente desde P3, máx 2:");
+            BPlusTree<String, Item>.Cursor desc = tree.descendingCursor("P3", true, null, false, 2);
+            while (desc.next()) {
+                System.out.print(" " + desc.key()); // P3 P2
+            }
+            System.out.println();
+            System.out.println();
+
+            // 3d. Estadísticas de forma y contadores (orden 4 para forzar splits y fusiones)
+            System.out.println("=== stats ===");
+            BPlusTree<Integer, Integer> small = new BPlusTree<>(4);
+            small.setCountersEnabled(true);
+            for (int i = 0; i < 100; i++) small.put(i, i);
+            for (int i = 0; i < 100; i += 2) small.remove(i);
+            // borrar una clave de cada dos deja hojas con 1 clave (< order/2): se rebalancean prestando o fusionando
+            System.out.println(small.stats()); // 50 claves, hojas vacías 0, ninguna hoja bajo 50%, fusiones y préstamos > 0
+            small.setCountersEnabled(false);
+            System.out.println("descensos con contadores apagados = " + small.stats().descents()); // -1
+            System.out.println();
+
             // 4. Prueba con clase Location (almacén)
             System.out.println("=== Location Test ===");
             Location loc = new Location("AlmacenA");
@@ -0,0 +1,102 @@
+package test;
+
+import tree.BPlusTree;
+import tree.ByteKeyBPlusTree;
+
+import java.util.Random;
+
+/**
+ * BPlusTree<String, V> (separadores = claves completas) contra ByteKeyBPlusTree (separadores más
+ * cortos con prefijo común por nodo) sobre códigos de ubicación realistas con prefijos largos,
+ * p. ej. "ALM-B-PAS07-EST12-NIV3-004711". Reporta throughput, heap ocupado por el árbol
+ * (las claves y valores se crean antes de medir) y, para el árbol de bytes, altura, fanout efectivo
+ * y bytes por separador. Ojo: BPlusTree comparte los String de las hojas con los internos, mientras
+ * que ByteKeyBPlusTree guarda en sus hojas una copia byte[] de cada clave, que domina su heap.
+ *
+ * Uso: java test.ByteKeyBPlusTreeBenchmark [n]
+ */
+public class ByteKeyBPlusTreeBenchmark {
+    private static volatile long sink; // evita que el JIT descarte las búsquedas
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] codes = realisticCodes(n, 42);
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) values[i] = i;
+
+        for (int w = 0; w < 2; w++) {
+            runPlain(codes, values, false);
+            runBytes(codes, values, false);
+        }
+        System.out.println("=== " + n + " códigos (ej. " + codes[0] + ") ===");
+        System.out.println("                 insert (ops/s)   get (ops/s)   heap del árbol (MB)");
+        runPlain(codes, values, true);
+        runBytes(codes, values, true);
+    }
+
+    private static void runPlain(String[] codes, Integer[] values, boolean report) {
+        long before = usedHeap();
+        BPlusTree<String, Integer> tree = new BPlusTree<>();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < codes.length; i++) tree.put(codes[i], values[i]);
+        long t1 = System.nanoTime();
+        long sum = 0;
+        for (String c : codes) sum += tree.get(c);
+        long t2 = System.nanoTime();
+        long heap = usedHeap() - before;
+        if (report) print("BPlusTree", codes.length, t1 - t0, t2 - t1, heap, sum);
+        tree.getRoot(); // mantiene vivo el árbol hasta después de medir
+    }
+
+    private static void runBytes(String[] codes, Integer[] values, boolean report) {
+        long before = usedHeap();
+        ByteKeyBPlusTree<Integer> tree = new ByteKeyBPlusTree<>();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < codes.length; i++) tree.put(codes[i], values[i]);
+        long t1 = System.nanoTime();
+        long sum = 0;
+        for (String c : codes) sum += tree.get(c);
+        long t2 = System.nanoTime();
+        // La medición incluye las claves normalizadas a byte[] que guardan las hojas
+        long heap = usedHeap() - before;
+        if (report) {
+            print("ByteKeyBPlusTree", codes.length, t1 - t0, t2 - t1, heap, sum);
+            long[] st = tree.internalStats();
+            System.out.printf("  altura %d, %d internos, %.1f hijos por interno%n",
+                    tree.height(), st[0], st[0] == 0 ? 0.0 : (double) (st[1] + st[0]) / st[0]);
+            System.out.printf("  %d separadores: %d bytes en internos (%.1f por separador; la clave completa tiene %d)%n",
+                    st[1], st[2], st[1] == 0 ? 0.0 : (double) st[2] / st[1], codes[0].length());
+        }
+    }
+
+    private static void print(String name, int n, long insertNanos, long getNanos, long heap, long check) {
+        sink = check;
+        System.out.printf("%-16s %14.0f %13.0f %21.1f%n", name, n / (insertNanos / 1e9), n / (getNanos / 1e9),
+                heap / 1048576.0);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    // Almacén - pasillo - estante - nivel - secuencia, en orden aleatorio
+    static String[] realisticCodes(int n, long seed) {
+        String[] codes = new String[n];
+        for (int i = 0; i < n; i++) {
+            int seq = i % 1000;
+            int rest = i / 1000;
+            codes[i] = String.format("ALM-%c-PAS%02d-EST%02d-NIV%d-%06d",
+                    'A' + rest % 4, rest / 4 % 40, rest / 160 % 30, rest / 4800 % 5, seq + rest / 24000 * 1000);
+        }
+        Random rnd = new Random(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            String t = codes[i];
+            codes[i] = codes[j];
+            codes[j] = t;
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,95 @@
+package test;
+
+import tree.BPlusTree;
+import tree.ConcurrentBPlusTree;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mezcla de lecturas/escrituras multi-hilo (como los terminales de picking compartiendo el índice).
+ * Compara ConcurrentBPlusTree contra el BPlusTree normal protegido con un único lock global,
+ * que es lo que se hacía hasta ahora. Se mide a 1, 4, 8 y 16 hilos.
+ *
+ * Uso: java test.ConcurrentBPlusTreeBenchmark [keys] [readPercent] [segundosPorCaso]
+ */
+public class ConcurrentBPlusTreeBenchmark {
+    private static final int[] THREADS = {1, 4, 8, 16};
+
+    interface Index {
+        Object get(String code);
+        void put(String code, Integer value);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int readPercent = args.length > 1 ? Integer.parseInt(args[1]) : 90;
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 2.0;
+
+        String[] codes = new String[keys * 2]; // la mitad superior solo la insertan los escritores
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = String.format("SKU%08d", i);
+        }
+
+        System.out.println("=== " + readPercent + "% lecturas, " + keys + " claves iniciales ===");
+        System.out.println(" hilos   lock global (ops/s)   OLC concurrente (ops/s)");
+        for (int threads : THREADS) {
+            BPlusTree<String, Integer> plain = new BPlusTree<>();
+            ConcurrentBPlusTree<String, Integer> olc = new ConcurrentBPlusTree<>();
+            for (int i = 0; i < keys; i++) {
+                plain.put(codes[i], i);
+                olc.put(codes[i], i);
+            }
+            Object lock = new Object();
+            Index locked = new Index() {
+                public Object get(String code) { synchronized (lock) { return plain.get(code); } }
+                public void put(String code, Integer value) { synchronized (lock) { plain.put(code, value); } }
+            };
+            Index concurrent = new Index() {
+                public Object get(String code) { return olc.get(code); }
+                public void put(String code, Integer value) { olc.put(code, value); }
+            };
+            run(locked, codes, keys, readPercent, threads, seconds / 2); // calentamiento
+            double a = run(locked, codes, keys, readPercent, threads, seconds);
+            run(concurrent, codes, keys, readPercent, threads, seconds / 2);
+            double b = run(concurrent, codes, keys, readPercent, threads, seconds);
+            System.out.printf("%6d %21.0f %25.0f%n", threads, a, b);
+        }
+        System.out.println("(procesadores disponibles: " + Runtime.getRuntime().availableProcessors() + ")");
+    }
+
+    // Ejecuta la mezcla durante 'seconds' con 'threads' hilos y devuelve operaciones por segundo
+    private static double run(Index index, String[] codes, int keys, int readPercent, int threads, double seconds)
+            throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder ops = new LongAdder();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final long seed = t * 31L + 7;
+            workers[t] = new Thread(() -> {
+                SplittableRandom rnd = new SplittableRandom(seed);
+                long local = 0;
+                while (!stop.get()) {
+                    for (int i = 0; i < 256; i++) {
+                        if (rnd.nextInt(100) < readPercent) {
+                            index.get(codes[rnd.nextInt(keys)]);
+                        } else {
+                            int k = rnd.nextInt(codes.length);
+                            index.put(codes[k], k);
+                        }
+                    }
+                    local += 256;
+                }
+                ops.add(local);
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread w : workers) w.start();
+        Thread.sleep((long) (seconds * 1000));
+        stop.set(true);
+        for (Thread w : workers) w.join();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        return ops.sum() / elapsed;
+    }
+}
@@ -0,0 +1,107 @@
+package test;
+
+import list.ConcurrentHashTable;
+import list.HashTable;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Búsquedas por código desde muchos hilos (terminales de escaneo) con algunas altas y bajas.
+ * Compara ConcurrentHashTable contra HashTable protegida con un único lock global, que es lo que se
+ * hacía hasta ahora. Las lecturas son get de códigos precargados; cada escritura da de alta un código
+ * de la mitad superior si no está o lo da de baja si está. Se mide de 1 a 32 hilos.
+ *
+ * Uso: java test.ConcurrentHashTableBenchmark [keys] [readPercent] [segundosPorCaso]
+ */
+public class ConcurrentHashTableBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+
+    interface Index {
+        Object get(String code) throws Exception;
+        boolean containsKey(String code);
+        void put(String code, Integer value) throws Exception;
+        void remove(String code) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int readPercent = args.length > 1 ? Integer.parseInt(args[1]) : 95;
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 2.0;
+
+        String[] codes = new String[keys * 2]; // la mitad superior solo la escriben los escritores
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = String.format("SKU%08d", i);
+        }
+
+        System.out.println("=== " + readPercent + "% lecturas, " + keys + " claves iniciales ===");
+        System.out.println(" hilos   lock global (ops/s)   concurrente (ops/s)");
+        for (int threads : THREADS) {
+            HashTable<String, Integer> plain = new HashTable<>();
+            ConcurrentHashTable<String, Integer> concurrentTable = new ConcurrentHashTable<>();
+            for (int i = 0; i < keys; i++) {
+                plain.put(codes[i], i);
+                concurrentTable.put(codes[i], i);
+            }
+            Object lock = new Object();
+            Index locked = new Index() {
+                public Object get(String code) throws Exception { synchronized (lock) { return plain.get(code); } }
+                public boolean containsKey(String code) { synchronized (lock) { return plain.containsKey(code); } }
+                public void put(String code, Integer value) throws Exception { synchronized (lock) { plain.put(code, value); } }
+                public void remove(String code) throws Exception { synchronized (lock) { plain.remove(code); } }
+            };
+            Index concurrent = new Index() {
+                public Object get(String code) throws Exception { return concurrentTable.get(code); }
+                public boolean containsKey(String code) { return concurrentTable.containsKey(code); }
+                public void put(String code, Integer value) throws Exception { concurrentTable.put(code, value); }
+                public void remove(String code) throws Exception { concurrentTable.remove(code); }
+            };
+            run(locked, codes, keys, readPercent, threads, seconds / 2); // calentamiento
+            double a = run(locked, codes, keys, readPercent, threads, seconds);
+            run(concurrent, codes, keys, readPercent, threads, seconds / 2);
+            double b = run(concurrent, codes, keys, readPercent, threads, seconds);
+            System.out.printf("%6d %21.0f %21.0f%n", threads, a, b);
+        }
+        System.out.println("(procesadores disponibles: " + Runtime.getRuntime().availableProcessors() + ")");
+    }
+
+    // Ejecuta la mezcla durante 'seconds' con 'threads' hilos y devuelve operaciones por segundo
+    private static double run(Index index, String[] codes, int keys, int readPercent, int threads, double seconds)
+            throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder ops = new LongAdder();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final long seed = t * 31L + 7;
+            workers[t] = new Thread(() -> {
+                SplittableRandom rnd = new SplittableRandom(seed);
+                long local = 0;
+                while (!stop.get()) {
+                    for (int i = 0; i < 256; i++) {
+                        try {
+                            if (rnd.nextInt(100) < readPercent) {
+                                index.get(codes[rnd.nextInt(keys)]);
+                            } else {
+                                int k = keys + rnd.nextInt(keys);
+                                if (index.containsKey(codes[k])) index.remove(codes[k]);
+                                else index.put(codes[k], k);
+                            }
+                        } catch (Exception e) {
+                            // otro hilo dio de alta o de baja el mismo código en medio: se sigue
+                        }
+                    }
+                    local += 256;
+                }
+                ops.add(local);
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread w : workers) w.start();
+        Thread.sleep((long) (seconds * 1000));
+        stop.set(true);
+        for (Thread w : workers) w.join();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        return ops.sum() / elapsed;
+    }
+}
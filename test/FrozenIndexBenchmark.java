@@ -0,0 +1,117 @@
+package test;
+
+import tree.BPlusTree;
+import tree.FrozenIndex;
+import modelo.CodeCodec;
+
+import java.util.Random;
+
+/**
+ * Catálogo publicado: el BPlusTree vivo contra su copia congelada (FrozenIndex, disposición de Eytzinger),
+ * sin prefijos y con los prefijos numéricos de CodeCodec. Reporta heap de cada estructura (claves y
+ * valores se crean antes y se comparten), tiempo de congelado, latencia de búsquedas puntuales
+ * aleatorias y de recorridos de 1000 pares con cursor.
+ *
+ * Uso: java test.FrozenIndexBenchmark [n] [búsquedas]
+ */
+public class FrozenIndexBenchmark {
+    private static volatile long sink; // evita que el JIT descarte las búsquedas
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        Random rnd = new Random(42);
+        String[] codes = new String[n];
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = String.format("IT%08d", i);
+            values[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            String t = codes[i];
+            codes[i] = codes[j];
+            codes[j] = t;
+        }
+        int[] queries = new int[lookups];
+        for (int i = 0; i < lookups; i++) queries[i] = rnd.nextInt(n);
+
+        long h0 = usedHeap();
+        BPlusTree<String, Integer> tree = new BPlusTree<>();
+        for (int i = 0; i < n; i++) tree.put(codes[i], values[i]); // carga en orden aleatorio, como el árbol vivo
+        long h1 = usedHeap();
+        long f0 = System.nanoTime();
+        FrozenIndex<String, Integer> frozen = tree.freeze();
+        long f1 = System.nanoTime();
+        long h2 = usedHeap();
+        FrozenIndex<String, Integer> prefixed = tree.freeze(CodeCodec.DEFAULT::prefix);
+        long h3 = usedHeap();
+
+        for (int w = 0; w < 3; w++) { // calentamiento
+            lookupTree(tree, codes, queries);
+            lookupFrozen(frozen, codes, queries);
+            scanTree(tree, codes, queries);
+            scanFrozen(frozen, codes, queries);
+            lookupFrozen(prefixed, codes, queries);
+        }
+        System.out.println("=== " + n + " códigos ===");
+        System.out.printf("congelado: %.0f ms%n", (f1 - f0) / 1e6);
+        System.out.println("estructura       heap (MB)   get (ns)   scan de 1000 (µs)");
+        System.out.printf("%-16s %9.1f %10.1f %19.1f%n", "BPlusTree", (h1 - h0) / 1048576.0,
+                lookupTree(tree, codes, queries), scanTree(tree, codes, queries));
+        System.out.printf("%-16s %9.1f %10.1f %19.1f%n", "FrozenIndex", (h2 - h1) / 1048576.0,
+                lookupFrozen(frozen, codes, queries), scanFrozen(frozen, codes, queries));
+        System.out.printf("%-16s %9.1f %10.1f %19.1f%n", "  + prefijos", (h3 - h2) / 1048576.0,
+                lookupFrozen(prefixed, codes, queries), scanFrozen(prefixed, codes, queries));
+    }
+
+    private static double lookupTree(BPlusTree<String, Integer> tree, String[] codes, int[] queries) {
+        long sum = 0;
+        long t0 = System.nanoTime();
+        for (int q : queries) sum += tree.get(codes[q]);
+        long t1 = System.nanoTime();
+        sink = sum;
+        return (t1 - t0) / (double) queries.length;
+    }
+
+    private static double lookupFrozen(FrozenIndex<String, Integer> index, String[] codes, int[] queries) {
+        long sum = 0;
+        long t0 = System.nanoTime();
+        for (int q : queries) sum += index.get(codes[q]);
+        long t1 = System.nanoTime();
+        sink = sum;
+        return (t1 - t0) / (double) queries.length;
+    }
+
+    // 1000 recorridos de 1000 pares desde códigos aleatorios
+    private static double scanTree(BPlusTree<String, Integer> tree, String[] codes, int[] queries) {
+        long sum = 0;
+        long t0 = System.nanoTime();
+        for (int s = 0; s < 1000; s++) {
+            BPlusTree<String, Integer>.Cursor c = tree.cursor(codes[queries[s]], true, null, false, 1000);
+            while (c.next()) sum += c.value();
+        }
+        long t1 = System.nanoTime();
+        sink = sum;
+        return (t1 - t0) / 1e3 / 1000;
+    }
+
+    private static double scanFrozen(FrozenIndex<String, Integer> index, String[] codes, int[] queries) {
+        long sum = 0;
+        FrozenIndex<String, Integer>.Cursor c = index.cursor(null, null);
+        long t0 = System.nanoTime();
+        for (int s = 0; s < 1000; s++) {
+            c.reset(codes[queries[s]], true, null, false); // el cursor se reutiliza
+            for (int i = 0; i < 1000 && c.next(); i++) sum += c.value();
+        }
+        long t1 = System.nanoTime();
+        sink = sum;
+        return (t1 - t0) / 1e3 / 1000;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
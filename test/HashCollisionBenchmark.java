@@ -0,0 +1,124 @@
+package test;
+
+import list.HashTable;
+import list.RobinHoodHashTable;
+
+/**
+ * Tablas hash con conjuntos de claves armados para chocar, como los que pueden llegar en etiquetas de
+ * proveedores o lotes EDI:
+ * - normales: códigos "IT00000000".. (referencia)
+ * - mismo hashCode: códigos hechos de bloques "Aa" / "BB", que tienen todos el mismo String.hashCode
+ *   (caen en la misma cubeta con cualquier capacidad)
+ * - misma cubeta: enteros múltiplos de 11·2^s, con hashCode distinto pero el mismo resto módulo todas las
+ *   capacidades por las que pasa HashTable (11·2^k)
+ * De cada conjunto se generan 2·2^bits claves: la primera mitad se inserta y la segunda se usa para las
+ * búsquedas fallidas (que así también chocan).
+ * Compara HashTable (las cubetas largas pasan a árbol), HashTable con semilla (SipHash para String) y
+ * RobinHoodHashTable, que no tiene defensa. Reporta carga total, get y búsqueda fallida por operación.
+ *
+ * Uso: java test.HashCollisionBenchmark [bits] [búsquedas]
+ */
+public class HashCollisionBenchmark {
+    private static volatile long sink; // evita que el JIT descarte las búsquedas
+
+    public static void main(String[] args) throws Exception {
+        int bits = args.length > 0 ? Integer.parseInt(args[0]) : 14;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int n = 1 << bits;
+
+        String[] normal = new String[n], normalMiss = new String[n];
+        String[] sameHash = new String[n], sameHashMiss = new String[n];
+        Integer[] sameBucket = new Integer[n], sameBucketMiss = new Integer[n];
+        int step = 11 * Integer.highestOneBit(Integer.MAX_VALUE / (11 * 2 * n)); // (2n - 1) * step sin desbordar
+        for (int i = 0; i < n; i++) {
+            normal[i] = String.format("IT%08d", i);
+            normalMiss[i] = String.format("IT%08d", n + i);
+            sameHash[i] = "IT" + collidingBlocks(i, bits + 1);
+            sameHashMiss[i] = "IT" + collidingBlocks(n + i, bits + 1);
+            sameBucket[i] = i * step;
+            sameBucketMiss[i] = (n + i) * step;
+        }
+        System.out.println("=== " + n + " claves por conjunto, " + lookups + " búsquedas ===");
+        System.out.println("  (mismo hashCode: " + sameHash[0].hashCode() + " == " + sameHash[n - 1].hashCode()
+                + "; misma cubeta: múltiplos de " + step + ")");
+        System.out.println("conjunto         tabla                carga (ms)   get (ns)   fallo (ns)");
+        for (int round = 0; round < 2; round++) { // la primera vuelta es de calentamiento
+            boolean print = round == 1;
+            run("normales", normal, normalMiss, lookups, print);
+            run("mismo hashCode", sameHash, sameHashMiss, lookups, print);
+            run("misma cubeta", sameBucket, sameBucketMiss, lookups, print);
+        }
+    }
+
+    // Bloques "Aa" y "BB" según los bits de i: "Aa".hashCode() == "BB".hashCode(), y también toda
+    // concatenación del mismo largo
+    private static String collidingBlocks(int i, int bits) {
+        StringBuilder sb = new StringBuilder(2 * bits);
+        for (int b = bits - 1; b >= 0; b--) sb.append((i >>> b & 1) == 0 ? "Aa" : "BB");
+        return sb.toString();
+    }
+
+    private static <K> void run(String set, K[] keys, K[] misses, int lookups, boolean print) throws Exception {
+        int n = keys.length;
+        int[] queries = new int[lookups];
+        for (int i = 0, x = 12345; i < lookups; i++) {
+            x = x * 1103515245 + 12345;
+            queries[i] = (x >>> 1) % n;
+        }
+
+        long t0 = System.nanoTime();
+        HashTable<K, Integer> chained = new HashTable<>();
+        for (int i = 0; i < n; i++) chained.put(keys[i], i);
+        long t1 = System.nanoTime();
+        HashTable<K, Integer> seeded = new HashTable<>(0x5DEECE66DL ^ System.nanoTime());
+        for (int i = 0; i < n; i++) seeded.put(keys[i], i);
+        long t2 = System.nanoTime();
+        RobinHoodHashTable<K, Integer> robin = new RobinHoodHashTable<>();
+        for (int i = 0; i < n; i++) robin.put(keys[i], i);
+        long t3 = System.nanoTime();
+
+        double getChained = get(chained, keys, queries), missChained = miss(chained, misses, queries);
+        double getSeeded = get(seeded, keys, queries), missSeeded = miss(seeded, misses, queries);
+        double getRobin = getRobin(robin, keys, queries), missRobin = missRobin(robin, misses, queries);
+        if (print) {
+            System.out.printf("%-16s %-20s %10.1f %10.1f %12.1f%n", set, "HashTable",
+                    (t1 - t0) / 1e6, getChained, missChained);
+            System.out.printf("%-16s %-20s %10.1f %10.1f %12.1f%n", set, "HashTable(seed)",
+                    (t2 - t1) / 1e6, getSeeded, missSeeded);
+            System.out.printf("%-16s %-20s %10.1f %10.1f %12.1f%n", set, "RobinHoodHashTable",
+                    (t3 - t2) / 1e6, getRobin, missRobin);
+        }
+    }
+
+    private static <K> double get(HashTable<K, Integer> t, K[] keys, int[] queries) throws Exception {
+        long acc = 0, t0 = System.nanoTime();
+        for (int q : queries) acc += t.get(keys[q]);
+        long t1 = System.nanoTime();
+        sink += acc;
+        return (double) (t1 - t0) / queries.length;
+    }
+
+    private static <K> double miss(HashTable<K, Integer> t, K[] misses, int[] queries) {
+        long acc = 0, t0 = System.nanoTime();
+        for (int q : queries) if (t.containsKey(misses[q])) acc++;
+        long t1 = System.nanoTime();
+        sink += acc;
+        return (double) (t1 - t0) / queries.length;
+    }
+
+    private static <K> double getRobin(RobinHoodHashTable<K, Integer> t, K[] keys, int[] queries) throws Exception {
+        long acc = 0, t0 = System.nanoTime();
+        for (int q : queries) acc += t.get(keys[q]);
+        long t1 = System.nanoTime();
+        sink += acc;
+        return (double) (t1 - t0) / queries.length;
+    }
+
+    private static <K> double missRobin(RobinHoodHashTable<K, Integer> t, K[] misses, int[] queries) {
+        long acc = 0, t0 = System.nanoTime();
+        for (int q : queries) if (t.containsKey(misses[q])) acc++;
+        long t1 = System.nanoTime();
+        sink += acc;
+        return (double) (t1 - t0) / queries.length;
+    }
+}
@@ -0,0 +1,103 @@
+package test;
+
+import list.HashTable;
+import list.RobinHoodHashTable;
+
+import java.util.Random;
+
+/**
+ * HashTable encadenada (un HashNode por par, cubeta por módulo) contra RobinHoodHashTable
+ * (direccionamiento abierto, arreglos paralelos, capacidad potencia de dos) con códigos de ítem.
+ * Reporta tiempo de carga, latencia de get con aciertos aleatorios, de containsKey con fallos, y heap
+ * por par (las claves y los valores se crean antes y se comparten, así que solo cuenta la tabla).
+ *
+ * Uso: java test.HashTableBenchmark [n] [búsquedas] [factor de carga Robin Hood]
+ */
+public class HashTableBenchmark {
+    private static volatile long sink; // evita que el JIT descarte las búsquedas
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        double loadFactor = args.length > 2 ? Double.parseDouble(args[2]) : 0.75;
+        Random rnd = new Random(42);
+        String[] codes = new String[n];
+        String[] misses = new String[n];
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = String.format("IT%08d", i);
+            misses[i] = String.format("XX%08d", i);
+            values[i] = i;
+            codes[i].hashCode(); // String guarda su hash: que ninguna estructura pague el primer cálculo
+            misses[i].hashCode();
+        }
+        int[] queries = new int[lookups];
+        for (int i = 0; i < lookups; i++) queries[i] = rnd.nextInt(n);
+
+        long h0 = usedHeap();
+        long t0 = System.nanoTime();
+        HashTable<String, Integer> chained = new HashTable<>();
+        for (int i = 0; i < n; i++) chained.put(codes[i], values[i]);
+        long t1 = System.nanoTime();
+        long h1 = usedHeap();
+        long t2 = System.nanoTime();
+        RobinHoodHashTable<String, Integer> robin = new RobinHoodHashTable<>(0, loadFactor);
+        for (int i = 0; i < n; i++) robin.put(codes[i], values[i]);
+        long t3 = System.nanoTime();
+        long h2 = usedHeap();
+
+        for (int w = 0; w < 3; w++) { // calentamiento
+            getChained(chained, codes, queries);
+            getRobin(robin, codes, queries);
+            missChained(chained, misses, queries);
+            missRobin(robin, misses, queries);
+        }
+        System.out.println("=== " + n + " códigos, " + lookups + " búsquedas ===");
+        System.out.println("tabla                 carga (ms)   get (ns)   fallo (ns)   bytes/par");
+        System.out.printf("%-21s %10.0f %10.1f %12.1f %11.1f%n", "HashTable",
+                (t1 - t0) / 1e6, getChained(chained, codes, queries), missChained(chained, misses, queries),
+                (double) (h1 - h0) / n);
+        System.out.printf("%-21s %10.0f %10.1f %12.1f %11.1f%n", "RobinHood (" + loadFactor + ")",
+                (t3 - t2) / 1e6, getRobin(robin, codes, queries), missRobin(robin, misses, queries),
+                (double) (h2 - h1) / n);
+    }
+
+    private static double getChained(HashTable<String, Integer> t, String[] codes, int[] queries) throws Exception {
+        long acc = 0, t0 = System.nanoTime();
+        for (int q : queries) acc += t.get(codes[q]);
+        long t1 = System.nanoTime();
+        sink += acc;
+        return (double) (t1 - t0) / queries.length;
+    }
+
+    private static double getRobin(RobinHoodHashTable<String, Integer> t, String[] codes, int[] queries) throws Exception {
+        long acc = 0, t0 = System.nanoTime();
+        for (int q : queries) acc += t.get(codes[q]);
+        long t1 = System.nanoTime();
+        sink += acc;
+        return (double) (t1 - t0) / queries.length;
+    }
+
+    // Los fallos se miden con containsKey: get lanzaría ItemNotFound en cada uno
+    private static double missChained(HashTable<String, Integer> t, String[] misses, int[] queries) {
+        long acc = 0, t0 = System.nanoTime();
+        for (int q : queries) if (t.containsKey(misses[q])) acc++;
+        long t1 = System.nanoTime();
+        sink += acc;
+        return (double) (t1 - t0) / queries.length;
+    }
+
+    private static double missRobin(RobinHoodHashTable<String, Integer> t, String[] misses, int[] queries) {
+        long acc = 0, t0 = System.nanoTime();
+        for (int q : queries) if (t.containsKey(misses[q])) acc++;
+        long t1 = System.nanoTime();
+        sink += acc;
+        return (double) (t1 - t0) / queries.length;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
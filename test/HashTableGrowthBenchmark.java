@@ -0,0 +1,95 @@
+package test;
+
+import list.HashTable;
+import list.RobinHoodHashTable;
+import modelo.Item;
+import sistema.InventorySystem;
+
+import java.util.Arrays;
+
+/**
+ * Latencia de cada inserción mientras la tabla crece. HashTable migra unas pocas cubetas por put
+ * (crecimiento incremental); RobinHoodHashTable redimensiona todo de una vez y sirve de referencia
+ * para ver la pausa que se evita. También se mide InventorySystem.addItem completo.
+ * Reporta percentiles de la latencia por operación, cuántas pasaron de 1 ms y la peor, en varias vueltas:
+ * la pausa de un rehash completo se repite en todas, mientras que las de GC, JIT o del sistema operativo
+ * cambian de una vuelta a otra (por eso se muestra también la menor de las peores). Conviene correrlo
+ * con heap fijo y generación joven grande (p. ej. -Xms3g -Xmx3g -Xmn2g).
+ *
+ * Uso: java test.HashTableGrowthBenchmark [n] [vueltas]
+ */
+public class HashTableGrowthBenchmark {
+    private static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String[] codes = new String[n];
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = String.format("IT%08d", i);
+            values[i] = i;
+        }
+        long[] lat = new long[n];
+
+        System.out.println("=== " + n + " inserciones desde tabla vacía ===");
+        System.out.println("estructura            p50 (ns)   p99 (ns)   p99.9 (ns)   > 1 ms   máx (ms)   total (ms)");
+        long bestChained = Long.MAX_VALUE, bestRobin = Long.MAX_VALUE;
+        for (int round = -2; round < rounds; round++) { // las vueltas negativas son de calentamiento
+            long total = fillChained(codes, values, lat);
+            if (round >= 0) bestChained = Math.min(bestChained, report("HashTable.put", lat, n, total));
+            total = fillRobin(codes, values, lat);
+            if (round >= 0) bestRobin = Math.min(bestRobin, report("RobinHood.put", lat, n, total));
+        }
+        System.out.printf("menor de las peores (ms): HashTable %.1f, RobinHood %.1f%n", bestChained / 1e6, bestRobin / 1e6);
+
+        int items = Math.min(n, 500_000);
+        Item[] all = new Item[items];
+        for (int i = 0; i < items; i++) all[i] = new Item(codes[i], "Prod" + i, i % 100, "Loc" + (i % 50));
+        InventorySystem system = new InventorySystem();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < items; i++) {
+            long s = System.nanoTime();
+            system.addItem(all[i]);
+            lat[i] = System.nanoTime() - s;
+        }
+        report("addItem (" + items + ")", lat, items, System.nanoTime() - t0);
+    }
+
+    private static long fillChained(String[] codes, Integer[] values, long[] lat) throws Exception {
+        HashTable<String, Integer> t = new HashTable<>();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < codes.length; i++) {
+            long s = System.nanoTime();
+            t.put(codes[i], values[i]);
+            lat[i] = System.nanoTime() - s;
+        }
+        long total = System.nanoTime() - t0;
+        sink += t.size();
+        return total;
+    }
+
+    private static long fillRobin(String[] codes, Integer[] values, long[] lat) throws Exception {
+        RobinHoodHashTable<String, Integer> t = new RobinHoodHashTable<>();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < codes.length; i++) {
+            long s = System.nanoTime();
+            t.put(codes[i], values[i]);
+            lat[i] = System.nanoTime() - s;
+        }
+        long total = System.nanoTime() - t0;
+        sink += t.size();
+        return total;
+    }
+
+    // Imprime una fila y devuelve la peor latencia
+    private static long report(String name, long[] lat, int n, long total) {
+        long[] sorted = Arrays.copyOf(lat, n);
+        Arrays.sort(sorted);
+        int slow = 0; // operaciones de más de 1 ms (rehash completo o pausa de GC)
+        while (slow < n && sorted[n - 1 - slow] > 1_000_000) slow++;
+        System.out.printf("%-21s %8d %10d %12d %8d %10.1f %12.0f%n", name, sorted[n / 2], sorted[(int) (n * 0.99)],
+                sorted[(int) (n * 0.999)], slow, sorted[n - 1] / 1e6, total / 1e6);
+        return sorted[n - 1];
+    }
+}
@@ -0,0 +1,95 @@
+package test;
+
+import tree.BPlusTree;
+import tree.LongBPlusTree;
+import modelo.CodeCodec;
+
+import java.util.Random;
+
+/**
+ * Búsquedas puntuales por código: BPlusTree<String, V> (compareTo virtual sobre String) contra
+ * LongBPlusTree con el código empaquetado por CodeCodec (claves long[] y barrido lineal sin saltos).
+ * Para LongBPlusTree se mide con la clave ya empaquetada y con encode(...) incluido en cada búsqueda,
+ * y con varios órdenes de nodo. Las consultas se generan antes de medir, en orden aleatorio.
+ *
+ * Uso: java test.LongBPlusTreeBenchmark [n] [búsquedas]
+ */
+public class LongBPlusTreeBenchmark {
+    private static volatile long sink; // evita que el JIT descarte las búsquedas
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        CodeCodec codec = CodeCodec.DEFAULT;
+        Random rnd = new Random(42);
+        String[] codes = new String[n];
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = String.format("IT%08d", i);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            String t = codes[i];
+            codes[i] = codes[j];
+            codes[j] = t;
+        }
+        for (int i = 0; i < n; i++) packed[i] = codec.encode(codes[i]);
+        int[] queries = new int[lookups];
+        for (int i = 0; i < lookups; i++) queries[i] = rnd.nextInt(n);
+
+        BPlusTree<String, Integer> generic = new BPlusTree<>();
+        for (int i = 0; i < n; i++) generic.put(codes[i], i);
+        int[] orders = {16, 32, 64};
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        LongBPlusTree<Integer>[] trees = new LongBPlusTree[orders.length];
+        for (int o = 0; o < orders.length; o++) {
+            trees[o] = new LongBPlusTree<>(orders[o]);
+            for (int i = 0; i < n; i++) trees[o].put(packed[i], i);
+        }
+
+        for (int w = 0; w < 3; w++) { // calentamiento
+            lookupGeneric(generic, codes, queries);
+            for (LongBPlusTree<Integer> t : trees) {
+                lookupPacked(t, packed, queries);
+                lookupEncoded(t, codec, codes, queries);
+            }
+        }
+        System.out.println("=== " + lookups + " búsquedas sobre " + n + " códigos ===");
+        System.out.println("árbol                              ns/búsqueda   speedup");
+        double base = lookupGeneric(generic, codes, queries);
+        System.out.printf("%-34s %11.1f %8.2fx%n", "BPlusTree<String> (orden 64)", base, 1.0);
+        for (int o = 0; o < orders.length; o++) {
+            double p = lookupPacked(trees[o], packed, queries);
+            double e = lookupEncoded(trees[o], codec, codes, queries);
+            System.out.printf("%-34s %11.1f %8.2fx%n", "LongBPlusTree orden " + orders[o], p, base / p);
+            System.out.printf("%-34s %11.1f %8.2fx%n", "  + encode(código)", e, base / e);
+        }
+    }
+
+    private static double lookupGeneric(BPlusTree<String, Integer> tree, String[] codes, int[] queries) {
+        long sum = 0;
+        long t0 = System.nanoTime();
+        for (int q : queries) sum += tree.get(codes[q]);
+        long t1 = System.nanoTime();
+        sink = sum;
+        return (t1 - t0) / (double) queries.length;
+    }
+
+    private static double lookupPacked(LongBPlusTree<Integer> tree, long[] packed, int[] queries) {
+        long sum = 0;
+        long t0 = System.nanoTime();
+        for (int q : queries) sum += tree.get(packed[q]);
+        long t1 = System.nanoTime();
+        sink = sum;
+        return (t1 - t0) / (double) queries.length;
+    }
+
+    private static double lookupEncoded(LongBPlusTree<Integer> tree, CodeCodec codec, String[] codes, int[] queries) {
+        long sum = 0;
+        long t0 = System.nanoTime();
+        for (int q : queries) sum += tree.get(codec.encode(codes[q]));
+        long t1 = System.nanoTime();
+        sink = sum;
+        return (t1 - t0) / (double) queries.length;
+    }
+}
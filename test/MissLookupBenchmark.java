@@ -0,0 +1,162 @@
+package test;
+
+import exceptions.ItemNotFound;
+import list.HashTable;
+import modelo.Item;
+import sistema.InventorySystem;
+
+import java.util.Random;
+
+/**
+ * Búsquedas por código con una proporción alta de fallos (0 %, 50 %, 90 % y 100 %), con cada forma de
+ * preguntar "¿está?":
+ * - get + catch con traza: lo que pagaba cada fallo antes (la excepción llenaba el stack trace);
+ *   se reproduce lanzando una ItemNotFound normal cuando getOrNull no encuentra
+ * - get + catch: get lanza ahora la excepción sin traza
+ * - containsKey, getOrNull: sin excepciones
+ * Después lo mismo a nivel de InventorySystem (getItem + catch contra findItem) y removeItem con
+ * códigos que no existen. Reporta millones de búsquedas por segundo.
+ * La traza se llena con la pila del momento: en la aplicación (más profunda que este main) costaba más.
+ *
+ * Uso: java test.MissLookupBenchmark [n] [búsquedas]
+ */
+public class MissLookupBenchmark {
+    private static volatile long sink; // evita que el JIT descarte las búsquedas
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int[] missPercents = {0, 50, 90, 100};
+        Random rnd = new Random(42);
+
+        String[] codes = new String[n];
+        String[] misses = new String[n];
+        HashTable<String, Integer> table = new HashTable<>();
+        InventorySystem system = new InventorySystem();
+        for (int i = 0; i < n; i++) {
+            codes[i] = String.format("IT%08d", i);
+            misses[i] = String.format("XX%08d", i);
+            table.put(codes[i], i);
+            system.addItem(new Item(codes[i], "Item " + i, i % 500, "Zona" + (i % 16)));
+        }
+
+        String[][] probes = new String[missPercents.length][];
+        for (int p = 0; p < missPercents.length; p++) {
+            probes[p] = new String[lookups];
+            for (int i = 0; i < lookups; i++) {
+                int k = rnd.nextInt(n);
+                probes[p][i] = rnd.nextInt(100) < missPercents[p] ? misses[k] : codes[k];
+                probes[p][i].hashCode(); // que ninguna variante pague el primer cálculo del hash
+            }
+        }
+
+        for (int w = 0; w < 2; w++) { // calentamiento
+            for (String[] probe : probes) runAll(table, system, probe);
+        }
+        System.out.println("=== " + n + " códigos, " + lookups + " búsquedas (M búsquedas/s) ===");
+        System.out.print("variante                     ");
+        for (int pct : missPercents) System.out.printf("%12s", pct + "% fallos");
+        System.out.println();
+        double[][] rates = new double[missPercents.length][];
+        for (int p = 0; p < missPercents.length; p++) rates[p] = runAll(table, system, probes[p]);
+        String[] names = {"get + catch con traza", "get + catch", "containsKey", "getOrNull",
+                "getItem + catch (sistema)", "findItem (sistema)"};
+        for (int v = 0; v < names.length; v++) {
+            System.out.printf("%-28s ", names[v]);
+            for (int p = 0; p < missPercents.length; p++) System.out.printf("%12.2f", rates[p][v]);
+            System.out.println();
+        }
+
+        // removeItem con códigos inexistentes: antes lanzaba ItemNotFound (get nunca devolvía null)
+        long t0 = System.nanoTime();
+        long removed = 0;
+        for (int i = 0; i < lookups; i++) {
+            if (system.removeItem(misses[i % n])) removed++;
+        }
+        long t1 = System.nanoTime();
+        sink += removed;
+        System.out.printf("removeItem de códigos inexistentes: %.2f M/s (%d eliminados)%n",
+                lookups / ((t1 - t0) / 1e3), removed);
+    }
+
+    private static double[] runAll(HashTable<String, Integer> table, InventorySystem system, String[] probe) {
+        return new double[]{
+                rate(() -> getCatchTrace(table, probe), probe.length),
+                rate(() -> getCatch(table, probe), probe.length),
+                rate(() -> containsKey(table, probe), probe.length),
+                rate(() -> getOrNull(table, probe), probe.length),
+                rate(() -> getItemCatch(system, probe), probe.length),
+                rate(() -> findItem(system, probe), probe.length)};
+    }
+
+    private static double rate(Runnable run, int ops) {
+        long t0 = System.nanoTime();
+        run.run();
+        long t1 = System.nanoTime();
+        return ops / ((t1 - t0) / 1e3);
+    }
+
+    private static void getCatchTrace(HashTable<String, Integer> t, String[] probe) {
+        long acc = 0;
+        for (String code : probe) {
+            try {
+                Integer v = t.getOrNull(code);
+                if (v == null) throw new ItemNotFound("Clave no encontrada: " + code);
+                acc += v;
+            } catch (ItemNotFound e) {
+                acc--;
+            }
+        }
+        sink += acc;
+    }
+
+    private static void getCatch(HashTable<String, Integer> t, String[] probe) {
+        long acc = 0;
+        for (String code : probe) {
+            try {
+                acc += t.get(code);
+            } catch (ItemNotFound e) {
+                acc--;
+            }
+        }
+        sink += acc;
+    }
+
+    private static void containsKey(HashTable<String, Integer> t, String[] probe) {
+        long acc = 0;
+        for (String code : probe) {
+            if (t.containsKey(code)) acc++;
+        }
+        sink += acc;
+    }
+
+    private static void getOrNull(HashTable<String, Integer> t, String[] probe) {
+        long acc = 0;
+        for (String code : probe) {
+            Integer v = t.getOrNull(code);
+            acc += v == null ? -1 : v;
+        }
+        sink += acc;
+    }
+
+    private static void getItemCatch(InventorySystem s, String[] probe) {
+        long acc = 0;
+        for (String code : probe) {
+            try {
+                acc += s.getItem(code).getQuantity();
+            } catch (Exception e) {
+                acc--;
+            }
+        }
+        sink += acc;
+    }
+
+    private static void findItem(InventorySystem s, String[] probe) {
+        long acc = 0;
+        for (String code : probe) {
+            Item it = s.findItem(code);
+            acc += it == null ? -1 : it.getQuantity();
+        }
+        sink += acc;
+    }
+}
@@ -0,0 +1,111 @@
+package test;
+
+import list.HashTable;
+import list.OffHeapCodeIndex;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Catálogo completo de códigos -> número de registro: HashTable&lt;String, Integer&gt; en el heap contra
+ * OffHeapCodeIndex (ByteBuffers directos). Para cada uno reporta heap usado tras un GC completo,
+ * duración de ese GC completo (crece con los objetos vivos que hay que recorrer), memoria fuera del heap
+ * y latencia de get con códigos aleatorios. También guarda el índice en un archivo y mide cuánto tarda en
+ * volver a abrirlo (mapeo directo, sin reconstruir).
+ *
+ * Uso: java test.OffHeapCodeIndexBenchmark [n] [búsquedas]   (p. ej. con -Xmx2g para 5M códigos)
+ */
+public class OffHeapCodeIndexBenchmark {
+    private static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        Random rnd = new Random(42);
+        String[] queries = new String[lookups];
+        int[] expected = new int[lookups];
+        for (int i = 0; i < lookups; i++) {
+            expected[i] = rnd.nextInt(n);
+            queries[i] = String.format("IT%08d", expected[i]);
+        }
+
+        long base = fullGc()[0];
+        HashTable<String, Integer> table = new HashTable<>();
+        for (int i = 0; i < n; i++) table.put(String.format("IT%08d", i), i);
+        long[] heapTable = fullGc();
+        double getTable = 0;
+        for (int w = 0; w < 3; w++) getTable = lookupTable(table, queries, expected);
+
+        long b0 = System.nanoTime();
+        OffHeapCodeIndex index = OffHeapCodeIndex.of(table, Integer::longValue);
+        long b1 = System.nanoTime();
+        table = null; // desde acá el catálogo solo vive fuera del heap
+        long[] heapIndex = fullGc();
+        double getIndex = 0;
+        for (int w = 0; w < 3; w++) getIndex = lookupIndex(index, queries, expected);
+
+        Path file = Files.createTempFile("code-index", ".idx");
+        try {
+            long s0 = System.nanoTime();
+            index.save(file);
+            long s1 = System.nanoTime();
+            OffHeapCodeIndex reopened = OffHeapCodeIndex.open(file);
+            long s2 = System.nanoTime();
+            double getMapped = 0;
+            for (int w = 0; w < 3; w++) getMapped = lookupIndex(reopened, queries, expected);
+
+            System.out.println("=== " + n + " códigos, " + lookups + " búsquedas ===");
+            System.out.println("estructura           heap (MB)   GC completo (ms)   fuera del heap (MB)   get (ns)");
+            System.out.printf("%-20s %9.1f %18d %21.1f %10.1f%n", "HashTable", (heapTable[0] - base) / 1048576.0,
+                    heapTable[1], 0.0, getTable);
+            System.out.printf("%-20s %9.1f %18d %21.1f %10.1f%n", "OffHeapCodeIndex", (heapIndex[0] - base) / 1048576.0,
+                    heapIndex[1], index.offHeapBytes() / 1048576.0, getIndex);
+            System.out.printf("%-20s %9s %18s %21.1f %10.1f%n", "  reabierto (mmap)", "-", "-",
+                    reopened.offHeapBytes() / 1048576.0, getMapped);
+            System.out.printf("armado desde HashTable: %.0f ms, save: %.0f ms (%d MB), open: %.1f ms%n",
+                    (b1 - b0) / 1e6, (s1 - s0) / 1e6, Files.size(file) / 1048576, (s2 - s1) / 1e6);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static double lookupTable(HashTable<String, Integer> t, String[] queries, int[] expected) throws Exception {
+        long acc = 0, t0 = System.nanoTime();
+        for (int i = 0; i < queries.length; i++) {
+            if (t.get(queries[i]) == expected[i]) acc++;
+        }
+        long t1 = System.nanoTime();
+        if (acc != queries.length) throw new IllegalStateException("Búsquedas fallidas: " + (queries.length - acc));
+        sink += acc;
+        return (double) (t1 - t0) / queries.length;
+    }
+
+    private static double lookupIndex(OffHeapCodeIndex index, String[] queries, int[] expected) {
+        long acc = 0, t0 = System.nanoTime();
+        for (int i = 0; i < queries.length; i++) {
+            if (index.get(queries[i]) == expected[i]) acc++;
+        }
+        long t1 = System.nanoTime();
+        if (acc != queries.length) throw new IllegalStateException("Búsquedas fallidas: " + (queries.length - acc));
+        sink += acc;
+        return (double) (t1 - t0) / queries.length;
+    }
+
+    // {heap usado tras el GC, ms que tardó el GC completo según los recolectores}
+    private static long[] fullGc() {
+        long before = gcMillis();
+        System.gc();
+        long gc = gcMillis() - before;
+        Runtime rt = Runtime.getRuntime();
+        return new long[]{rt.totalMemory() - rt.freeMemory(), gc};
+    }
+
+    private static long gcMillis() {
+        long ms = 0;
+        for (GarbageCollectorMXBean b : ManagementFactory.getGarbageCollectorMXBeans()) ms += Math.max(0, b.getCollectionTime());
+        return ms;
+    }
+}
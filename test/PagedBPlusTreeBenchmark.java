@@ -0,0 +1,77 @@
+package test;
+
+import tree.PagedBPlusTree;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Índice de códigos en disco: inserta n códigos en orden aleatorio en un PagedBPlusTree y luego hace
+ * búsquedas aleatorias, con distintos tamaños de buffer pool. Reporta throughput y tasa de aciertos
+ * del pool, y verifica que el árbol se reabre desde el archivo con los mismos datos.
+ *
+ * Uso: java test.PagedBPlusTreeBenchmark [n] [lookups]
+ */
+public class PagedBPlusTreeBenchmark {
+    private static final int[] POOL_PAGES = {16, 256, 4096};
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+
+        String[] codes = new String[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = String.format("IT%08d", i);
+        }
+        Random rnd = new Random(42);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            String t = codes[i];
+            codes[i] = codes[j];
+            codes[j] = t;
+        }
+
+        System.out.println("=== " + n + " inserciones, " + lookups + " búsquedas ===");
+        System.out.println(" pool(págs)  insert (ops/s)  hit%   lookup (ops/s)  hit%");
+        for (int poolPages : POOL_PAGES) {
+            Path file = Files.createTempFile("paged-bplustree", ".idx");
+            try {
+                double insRate, insHit, getRate, getHit;
+                try (PagedBPlusTree tree = new PagedBPlusTree(file, poolPages)) {
+                    long t0 = System.nanoTime();
+                    for (int i = 0; i < n; i++) {
+                        tree.insert(codes[i], i);
+                    }
+                    long t1 = System.nanoTime();
+                    insRate = n / ((t1 - t0) / 1e9);
+                    insHit = tree.hitRatio();
+                }
+                // Se reabre desde el archivo: las búsquedas arrancan con el pool frío
+                try (PagedBPlusTree tree = new PagedBPlusTree(file, poolPages)) {
+                    Random r = new Random(7);
+                    long found = 0;
+                    long t0 = System.nanoTime();
+                    for (int i = 0; i < lookups; i++) {
+                        int k = r.nextInt(n);
+                        if (tree.get(codes[k]) == k) found++;
+                    }
+                    long t1 = System.nanoTime();
+                    if (found != lookups) {
+                        throw new IllegalStateException("Búsquedas fallidas: " + (lookups - found));
+                    }
+                    getRate = lookups / ((t1 - t0) / 1e9);
+                    getHit = tree.hitRatio();
+                    if (poolPages == POOL_PAGES[0]) {
+                        System.out.println("(altura " + tree.height() + ", " + tree.size() + " claves, "
+                                + Files.size(file) / 1024 + " KB en disco)");
+                    }
+                }
+                System.out.printf("%11d %15.0f %5.1f %16.0f %5.1f%n",
+                        poolPages, insRate, insHit * 100, getRate, getHit * 100);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
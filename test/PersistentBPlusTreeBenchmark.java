@@ -0,0 +1,170 @@
+package test;
+
+import tree.BPlusTree;
+import tree.PersistentBPlusTree;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Costo del modo copy-on-write frente al BPlusTree mutable, y su beneficio con un reporte largo
+ * corriendo al mismo tiempo que las altas.
+ * 1) Un hilo: inserciones (tiempo y bytes asignados por inserción), búsquedas y recorrido completo.
+ * 2) Un escritor insertando y un lector haciendo recorridos completos: con el árbol mutable el lector
+ *    debe tomar un lock global durante todo el recorrido; con el persistente recorre un Snapshot.
+ *    Se reporta throughput del escritor y su peor latencia por inserción.
+ *
+ * Uso: java test.PersistentBPlusTreeBenchmark [n] [segundos]
+ */
+public class PersistentBPlusTreeBenchmark {
+    private static volatile long sink; // evita que el JIT descarte los recorridos
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 3.0;
+        String[] codes = shuffledCodes(n * 4, 42);
+
+        for (int w = 0; w < 3; w++) {
+            singleThread(codes, n, false);
+        }
+        System.out.println("=== Un hilo, " + n + " claves ===");
+        singleThread(codes, n, true);
+
+        System.out.println();
+        System.out.println("=== Escritor + lector de reportes, " + seconds + " s ===");
+        System.out.println("                 altas/s   peor alta (ms)   recorridos");
+        BPlusTree<String, Integer> plain = new BPlusTree<>();
+        PersistentBPlusTree<String, Integer> cow = new PersistentBPlusTree<>();
+        for (int i = 0; i < n; i++) {
+            plain.put(codes[i], i);
+            cow.put(codes[i], i);
+        }
+        Object lock = new Object();
+        mixed("lock global", seconds, codes, n, code -> {
+            synchronized (lock) {
+                plain.put(code, 0);
+            }
+        }, () -> {
+            synchronized (lock) {
+                long sum = 0;
+                BPlusTree<String, Integer>.Cursor c = plain.cursor(null, false, null, false);
+                while (c.next()) sum += c.value();
+                return sum;
+            }
+        });
+        mixed("snapshot (COW)", seconds, codes, n, code -> cow.put(code, 0), () -> {
+            long sum = 0;
+            PersistentBPlusTree<String, Integer>.Cursor c = cow.snapshot().cursor(null, false, null, false, -1);
+            while (c.next()) sum += c.value();
+            return sum;
+        });
+    }
+
+    private static void singleThread(String[] codes, int n, boolean report) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        BPlusTree<String, Integer> plain = new BPlusTree<>();
+        long b0 = mx.getThreadAllocatedBytes(tid);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) plain.put(codes[i], i);
+        long t1 = System.nanoTime();
+        long b1 = mx.getThreadAllocatedBytes(tid);
+        long plainGet = time(() -> {
+            long s = 0;
+            for (int i = 0; i < n; i++) s += plain.get(codes[i]);
+            return s;
+        });
+        long plainScan = time(() -> {
+            long s = 0;
+            BPlusTree<String, Integer>.Cursor c = plain.cursor(null, false, null, false);
+            while (c.next()) s += c.value();
+            return s;
+        });
+
+        PersistentBPlusTree<String, Integer> cow = new PersistentBPlusTree<>();
+        long b2 = mx.getThreadAllocatedBytes(tid);
+        long t2 = System.nanoTime();
+        for (int i = 0; i < n; i++) cow.put(codes[i], i);
+        long t3 = System.nanoTime();
+        long b3 = mx.getThreadAllocatedBytes(tid);
+        long cowGet = time(() -> {
+            long s = 0;
+            for (int i = 0; i < n; i++) s += cow.get(codes[i]);
+            return s;
+        });
+        PersistentBPlusTree<String, Integer>.Snapshot snap = cow.snapshot();
+        long cowScan = time(() -> {
+            long s = 0;
+            PersistentBPlusTree<String, Integer>.Cursor c = snap.cursor(null, false, null, false, -1);
+            while (c.next()) s += c.value();
+            return s;
+        });
+
+        if (report) {
+            System.out.println("                 insert (ops/s)  bytes/insert  get (ops/s)  recorrido (ms)");
+            System.out.printf("BPlusTree        %14.0f %13d %12.0f %15.2f%n",
+                    n / ((t1 - t0) / 1e9), (b1 - b0) / n, n / (plainGet / 1e9), plainScan / 1e6);
+            System.out.printf("PersistentBPlus  %14.0f %13d %12.0f %15.2f%n",
+                    n / ((t3 - t2) / 1e9), (b3 - b2) / n, n / (cowGet / 1e9), cowScan / 1e6);
+        }
+    }
+
+    interface Write {
+        void put(String code);
+    }
+
+    interface Scan {
+        long run();
+    }
+
+    private static long time(Scan scan) {
+        long t0 = System.nanoTime();
+        sink = scan.run();
+        return System.nanoTime() - t0;
+    }
+
+    private static void mixed(String name, double seconds, String[] codes, int from, Write write, Scan scan)
+            throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        long[] scans = new long[1];
+        Thread reader = new Thread(() -> {
+            while (!stop.get()) {
+                scan.run();
+                scans[0]++;
+            }
+        });
+        reader.start();
+        long writes = 0;
+        long worst = 0;
+        long start = System.nanoTime();
+        long end = start + (long) (seconds * 1e9);
+        int i = from;
+        long now = start;
+        while (now < end && i < codes.length) {
+            long t = System.nanoTime();
+            write.put(codes[i++]);
+            now = System.nanoTime();
+            worst = Math.max(worst, now - t);
+            writes++;
+        }
+        stop.set(true);
+        reader.join();
+        double elapsed = (now - start) / 1e9;
+        System.out.printf("%-15s %9.0f %16.2f %12d%n", name, writes / elapsed, worst / 1e6, scans[0]);
+    }
+
+    private static String[] shuffledCodes(int n, long seed) {
+        String[] codes = new String[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = String.format("IT%08d", i);
+        }
+        java.util.Random rnd = new java.util.Random(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            String t = codes[i];
+            codes[i] = codes[j];
+            codes[j] = t;
+        }
+        return codes;
+    }
+}
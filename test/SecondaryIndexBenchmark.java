@@ -0,0 +1,78 @@
+package test;
+
+import sistema.InventorySystem;
+import list.ArrayList;
+import modelo.Item;
+
+/**
+ * Consultas por atributo sobre el inventario completo: con los índices secundarios de InventorySystem
+ * contra el recorrido de todos los ítems (lo que se hacía antes). Verifica que ambos devuelvan
+ * la misma cantidad de resultados.
+ *
+ * Uso: java test.SecondaryIndexBenchmark [n] [repeticiones]
+ */
+public class SecondaryIndexBenchmark {
+    private static final String[] NAMES = {"Martillo", "Tornillos", "Tornillo fino", "Destornillador", "Pintura", "Tuerca"};
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int reps = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        InventorySystem system = new InventorySystem();
+        Item[] all = new Item[n];
+        for (int i = 0; i < n; i++) {
+            String location = "Almacen" + (char) ('A' + i % 5) + "-Pasillo" + (i / 5 % 200);
+            all[i] = new Item(String.format("IT%08d", i), NAMES[i % NAMES.length] + " " + i, i % 1000, location);
+            system.addItem(all[i]);
+        }
+
+        System.out.println("=== " + n + " ítems, " + reps + " consultas por caso ===");
+        System.out.println("consulta                     resultados   índice (µs)   recorrido (µs)");
+        for (int w = 0; w < 2; w++) {
+            run(system, all, reps, w == 1);
+        }
+    }
+
+    private static void run(InventorySystem system, Item[] all, int reps, boolean report) {
+        compare("ubicacion = AlmacenA-Pasillo1", reps, report,
+                () -> system.itemsAt("AlmacenA-Pasillo1").size(),
+                () -> {
+                    int k = 0;
+                    for (Item it : all) if ("AlmacenA-Pasillo1".equals(it.getLocation())) k++;
+                    return k;
+                });
+        compare("nombre empieza con Torn", reps, report,
+                () -> system.itemsByNamePrefix("Torn").size(),
+                () -> {
+                    int k = 0;
+                    for (Item it : all) if (it.getName().startsWith("Torn")) k++;
+                    return k;
+                });
+        compare("cantidad < 10", reps, report,
+                () -> system.itemsWithQuantityBelow(10).size(),
+                () -> {
+                    int k = 0;
+                    for (Item it : all) if (it.getQuantity() < 10) k++;
+                    return k;
+                });
+    }
+
+    interface Query {
+        int run();
+    }
+
+    private static void compare(String name, int reps, boolean report, Query indexed, Query scan) {
+        int a = 0, b = 0;
+        long t0 = System.nanoTime();
+        for (int r = 0; r < reps; r++) a = indexed.run();
+        long t1 = System.nanoTime();
+        for (int r = 0; r < reps; r++) b = scan.run();
+        long t2 = System.nanoTime();
+        if (a != b) {
+            throw new IllegalStateException(name + ": índice devolvió " + a + ", recorrido " + b);
+        }
+        if (report) {
+            System.out.printf("%-28s %10d %13.1f %16.1f%n", name, a, (t1 - t0) / 1e3 / reps, (t2 - t1) / 1e3 / reps);
+        }
+    }
+}
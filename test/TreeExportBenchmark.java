@@ -0,0 +1,69 @@
+package test;
+
+import tree.BPlusTree;
+import tree.TreeExporter;
+
+import java.io.Writer;
+
+/**
+ * Exportación de un B+ Tree grande con TreeExporter a un Writer que solo cuenta caracteres (sin disco).
+ * Compara la exportación completa con una acotada (profundidad, hijos por nodo y claves por etiqueta) en
+ * DOT y JSON: tiempo y tamaño de la salida. La memoria extra no depende del árbol porque todo se escribe
+ * a medida que se recorre.
+ *
+ * Uso: java test.TreeExportBenchmark [n] [maxDepth] [maxChildren] [maxLabelKeys]
+ */
+public class TreeExportBenchmark {
+    private static volatile long sink;
+
+    // Writer que descarta lo escrito y solo lo cuenta
+    private static final class CountingWriter extends Writer {
+        long chars;
+
+        @Override public void write(int c) { chars++; }
+        @Override public void write(String s, int off, int len) { chars += len; }
+        @Override public void write(char[] buf, int off, int len) { chars += len; }
+        @Override public void flush() { }
+        @Override public void close() { }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int children = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int labelKeys = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        BPlusTree<String, Integer> tree = new BPlusTree<>();
+        for (int i = 0; i < n; i++) tree.put(String.format("IT%08d", i), i);
+
+        TreeExporter<String, Integer> full = new TreeExporter<>(tree);
+        TreeExporter<String, Integer> limited = new TreeExporter<>(tree);
+        limited.setMaxDepth(depth);
+        limited.setMaxChildren(children);
+        limited.setMaxLabelKeys(labelKeys);
+
+        System.out.println("=== " + n + " claves, límites: profundidad " + depth + ", " + children
+                + " hijos, " + labelKeys + " claves por nodo ===");
+        System.out.println("exportación       formato    tiempo (ms)   salida (KB)");
+        for (int round = 0; round < 3; round++) { // la primera vuelta es de calentamiento
+            boolean print = round == 2;
+            run("completa", "DOT", full, true, print);
+            run("completa", "JSON", full, false, print);
+            run("acotada", "DOT", limited, true, print);
+            run("acotada", "JSON", limited, false, print);
+        }
+    }
+
+    private static void run(String name, String format, TreeExporter<String, Integer> exporter, boolean dot,
+                            boolean print) throws Exception {
+        CountingWriter out = new CountingWriter();
+        long t0 = System.nanoTime();
+        if (dot) exporter.writeDot(out);
+        else exporter.writeJson(out);
+        long t1 = System.nanoTime();
+        sink += out.chars;
+        if (print) {
+            System.out.printf("%-17s %-10s %11.1f %13.1f%n", name, format, (t1 - t0) / 1e6, out.chars / 1024.0);
+        }
+    }
+}
@@ -1,18 +1,49 @@
 package test;
 
 import tree.BPlusTree;
-import tree.TreeView;
+import tree.TreeExporter;
 import modelo.Record;
 
+import java.awt.GraphicsEnvironment;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Muestra un B+ Tree chico. Con GraphStream en el classpath y pantalla abre la ventana de TreeView;
+ * si no (o si se pide "dot" / "json") escribe el árbol por consola con TreeExporter.
+ * TreeView se carga por reflexión para que la demo compile y corra sin GraphStream.
+ *
+ * Uso: java test.TreeViewDemo [dot|json]
+ */
 public class TreeViewDemo {
     public static void main(String[] args) throws Exception {
-        BPlusTree<Record> tree = new BPlusTree<>(4);
+        BPlusTree<String, Record> tree = new BPlusTree<>(4);
         // Insertar algunos registros
-        tree.insert(new Record("P1","Prod1",10,"Loc1"));
-        tree.insert(new Record("P2","Prod2",20,"Loc1"));
-        tree.insert(new Record("P3","Prod3",30,"Loc2"));
+        tree.insert("P1", new Record("P1","Prod1",10,"Loc1"));
+        tree.insert("P2", new Record("P2","Prod2",20,"Loc1"));
+        tree.insert("P3", new Record("P3","Prod3",30,"Loc2"));
+
+        String format = args.length > 0 ? args[0] : null;
+        if (format == null && !GraphicsEnvironment.isHeadless() && hasGraphStream()) {
+            // Mostrar la vista
+            Object view = Class.forName("tree.TreeView").getConstructor(BPlusTree.class).newInstance(tree);
+            view.getClass().getMethod("display").invoke(view);
+            return;
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+        TreeExporter<String, Record> exporter = new TreeExporter<>(tree);
+        if ("json".equals(format)) exporter.writeJson(out);
+        else exporter.writeDot(out);
+        out.flush();
+    }
 
-        // Mostrar la vista
-        new TreeView<>(tree).display();
+    private static boolean hasGraphStream() {
+        try {
+            Class.forName("org.graphstream.graph.implementations.SingleGraph");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,557 @@
+package tree;
+
+import exceptions.ItemDuplicated;
+
+// B+ Tree aumentado (mapa clave -> valor) para tableros de stock: cada nodo interno guarda, por hijo,
+// la cantidad de pares de su subárbol y la suma, el mínimo y el máximo de una medida numérica de los
+// valores (p. ej. Item::getQuantity). Con eso responde en O(log n):
+// - count/sum/min/max de las claves en un rango [from, to]
+// - rank(key): cuántas claves son menores que key
+// - select(i): la i-ésima clave en orden
+// Los agregados se actualizan en inserciones, borrados, splits, préstamos y fusiones. Si la medida de
+// un valor cambia por fuera del árbol (p. ej. Item.addStock) hay que avisar con refresh(key).
+// @param <K> tipo de clave
+// @param <V> tipo de valor (no null: se le aplica la medida)
+
+public class AggregateBPlusTree<K extends Comparable<K>, V> {
+    private static final int DEFAULT_ORDER = 64;
+
+    // Medida numérica que se agrega sobre los valores
+    public interface Measure<V> {
+        long of(V value);
+    }
+
+    // Resultado de una consulta de agregados sobre un rango
+    public static final class Aggregate {
+        private long count;
+        private long sum;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        public long count() { return count; }
+        public long sum() { return sum; }
+        // Mínimo y máximo de la medida; en un rango vacío quedan en Long.MAX_VALUE / Long.MIN_VALUE
+        public long min() { return min; }
+        public long max() { return max; }
+
+        void add(long x) {
+            count++;
+            sum += x;
+            if (x < min) min = x;
+            if (x > max) max = x;
+        }
+
+        void add(long c, long s, long mn, long mx) {
+            count += c;
+            sum += s;
+            if (mn < min) min = mn;
+            if (mx > max) max = mx;
+        }
+
+        @Override
+        public String toString() {
+            return "Aggregate{count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + "}";
+        }
+    }
+
+    private final int order;
+    private final Measure<V> measure;
+    private Node root;
+    private long size;
+
+    abstract class Node {
+        final Object[] keys = new Object[order]; // un lugar extra para el desborde previo al split
+        int count;
+        abstract boolean isLeaf();
+
+        @SuppressWarnings("unchecked")
+        K key(int i) {
+            return (K) keys[i];
+        }
+
+        // Índice si está, o -(punto de inserción) - 1
+        int search(K key) {
+            int lo = 0, hi = count - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = key(mid).compareTo(key);
+                if (cmp < 0) lo = mid + 1;
+                else if (cmp > 0) hi = mid - 1;
+                else return mid;
+            }
+            return -(lo + 1);
+        }
+    }
+
+    // Arreglo de nodos (Java no permite crear arreglos del tipo genérico Node directamente)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node[] newNodes(int n) {
+        return (Node[]) new AggregateBPlusTree.Node[n];
+    }
+
+    // Interno con los agregados de cada hijo en arreglos paralelos a 'children'
+    class InternalNode extends Node {
+        final Node[] children = newNodes(order + 1);
+        final long[] counts = new long[order + 1];
+        final long[] sums = new long[order + 1];
+        final long[] mins = new long[order + 1];
+        final long[] maxs = new long[order + 1];
+        @Override boolean isLeaf() { return false; }
+
+        // Cantidad de claves <= key
+        int childIndex(K key) {
+            int i = search(key);
+            return i >= 0 ? i + 1 : -i - 1;
+        }
+    }
+
+    class LeafNode extends Node {
+        final Object[] values = new Object[order];
+        LeafNode next;
+        @Override boolean isLeaf() { return true; }
+
+        @SuppressWarnings("unchecked")
+        V value(int i) {
+            return (V) values[i];
+        }
+    }
+
+    // Resultado de una escritura recursiva
+    private final class Edit {
+        K sep;        // separador que sube si el nodo se dividió
+        V old;        // valor previo de la clave
+        boolean found;
+    }
+
+    public AggregateBPlusTree(Measure<V> measure) {
+        this(DEFAULT_ORDER, measure);
+    }
+
+    public AggregateBPlusTree(int order, Measure<V> measure) {
+        if (order < 4) throw new RuntimeException("Order must be >= 4");
+        this.order = order;
+        this.measure = measure;
+        this.root = new LeafNode();
+    }
+
+    // ---------------------------------------------------------------------
+    // Mapa
+    // ---------------------------------------------------------------------
+
+    public V get(K key) {
+        Node node = root;
+        while (!node.isLeaf()) {
+            InternalNode in = (InternalNode) node;
+            node = in.children[in.childIndex(key)];
+        }
+        int pos = node.search(key);
+        return pos >= 0 ? ((LeafNode) node).value(pos) : null;
+    }
+
+    public boolean contains(K key) {
+        return get(key) != null;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public void insert(K key, V value) throws ItemDuplicated {
+        Edit e = new Edit();
+        put(key, value, false, e);
+        if (e.found) throw new ItemDuplicated("Clave duplicada: " + key, false);
+    }
+
+    // Asocia el valor a la clave; devuelve el anterior o null
+    public V put(K key, V value) {
+        Edit e = new Edit();
+        put(key, value, true, e);
+        return e.old;
+    }
+
+    private void put(K key, V value, boolean replace, Edit e) {
+        if (value == null) throw new IllegalArgumentException("No se admiten valores null");
+        Node right = insert(root, key, value, replace, e);
+        if (right != null) {
+            InternalNode nr = new InternalNode();
+            nr.keys[0] = e.sep;
+            nr.count = 1;
+            nr.children[0] = root;
+            nr.children[1] = right;
+            refresh(nr, 0);
+            refresh(nr, 1);
+            root = nr;
+        }
+        if (!e.found) size++;
+    }
+
+    // Quita la clave y devuelve su valor, o null si no estaba
+    public V remove(K key) {
+        Edit e = new Edit();
+        if (!remove(root, key, e)) return null;
+        if (!root.isLeaf() && root.count == 0) {
+            root = ((InternalNode) root).children[0]; // la raíz quedó con un solo hijo
+        }
+        size--;
+        return e.old;
+    }
+
+    // Recalcula los agregados del camino de la clave (cuando la medida de su valor cambió por fuera)
+    public void refresh(K key) {
+        refresh(root, key);
+    }
+
+    private void refresh(Node node, K key) {
+        if (node.isLeaf()) return;
+        InternalNode in = (InternalNode) node;
+        int ci = in.childIndex(key);
+        refresh(in.children[ci], key);
+        refresh(in, ci);
+    }
+
+    // ---------------------------------------------------------------------
+    // Consultas de agregados, rank y select
+    // ---------------------------------------------------------------------
+
+    // Cantidad, suma, mínimo y máximo de la medida para las claves en [from, to] (null = sin límite)
+    public Aggregate aggregate(K from, K to) {
+        Aggregate acc = new Aggregate();
+        if (from == null || to == null || from.compareTo(to) <= 0) {
+            aggregate(root, from, to, acc);
+        }
+        return acc;
+    }
+
+    public long count(K from, K to) {
+        return aggregate(from, to).count();
+    }
+
+    public long sum(K from, K to) {
+        return aggregate(from, to).sum();
+    }
+
+    // Solo los dos caminos de borde se recorren; los hijos completamente dentro del rango aportan
+    // sus agregados guardados sin bajar
+    private void aggregate(Node node, K from, K to, Aggregate acc) {
+        if (node.isLeaf()) {
+            LeafNode leaf = (LeafNode) node;
+            int i = 0;
+            if (from != null) {
+                int pos = leaf.search(from);
+                i = pos >= 0 ? pos : -pos - 1;
+            }
+            for (; i < leaf.count; i++) {
+                if (to != null && leaf.key(i).compareTo(to) > 0) break;
+                acc.add(measure.of(leaf.value(i)));
+            }
+            return;
+        }
+        InternalNode in = (InternalNode) node;
+        int lo = from == null ? 0 : in.childIndex(from);
+        int hi = to == null ? in.count : in.childIndex(to);
+        if (lo == hi) {
+            aggregate(in.children[lo], from, to, acc);
+            return;
+        }
+        aggregate(in.children[lo], from, null, acc);
+        for (int j = lo + 1; j < hi; j++) {
+            acc.add(in.counts[j], in.sums[j], in.mins[j], in.maxs[j]);
+        }
+        aggregate(in.children[hi], null, to, acc);
+    }
+
+    // Cantidad de claves estrictamente menores que key
+    public long rank(K key) {
+        long rank = 0;
+        Node node = root;
+        while (!node.isLeaf()) {
+            InternalNode in = (InternalNode) node;
+            int ci = in.childIndex(key);
+            for (int j = 0; j < ci; j++) rank += in.counts[j];
+            node = in.children[ci];
+        }
+        int pos = node.search(key);
+        return rank + (pos >= 0 ? pos : -pos - 1);
+    }
+
+    // Clave en la posición i (0 = la menor), o null si i está fuera de [0, size)
+    public K select(long i) {
+        if (i < 0 || i >= size) return null;
+        Node node = root;
+        while (!node.isLeaf()) {
+            InternalNode in = (InternalNode) node;
+            int j = 0;
+            while (i >= in.counts[j]) {
+                i -= in.counts[j++];
+            }
+            node = in.children[j];
+        }
+        return node.key((int) i);
+    }
+
+    // ---------------------------------------------------------------------
+    // Inserción
+    // ---------------------------------------------------------------------
+
+    // Inserta en el subárbol; si el nodo se divide devuelve el hermano derecho (separador en e.sep)
+    private Node insert(Node node, K key, V value, boolean replace, Edit e) {
+        if (node.isLeaf()) {
+            LeafNode leaf = (LeafNode) node;
+            int pos = leaf.search(key);
+            if (pos >= 0) {
+                e.found = true;
+                e.old = leaf.value(pos);
+                if (replace) leaf.values[pos] = value;
+                return null;
+            }
+            pos = -pos - 1;
+            System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.count - pos);
+            System.arraycopy(leaf.values, pos, leaf.values, pos + 1, leaf.count - pos);
+            leaf.keys[pos] = key;
+            leaf.values[pos] = value;
+            leaf.count++;
+            return leaf.count > order - 1 ? splitLeaf(leaf, e) : null;
+        }
+        InternalNode in = (InternalNode) node;
+        int ci = in.childIndex(key);
+        Node right = insert(in.children[ci], key, value, replace, e);
+        if (right == null) {
+            if (!e.found) {
+                // Alta simple: se suma sin recorrer el hijo
+                long x = measure.of(value);
+                in.counts[ci]++;
+                in.sums[ci] += x;
+                if (x < in.mins[ci]) in.mins[ci] = x;
+                if (x > in.maxs[ci]) in.maxs[ci] = x;
+            } else if (replace) {
+                refresh(in, ci);
+            }
+            return null;
+        }
+        openChild(in, ci + 1);
+        in.keys[ci] = e.sep;
+        in.children[ci + 1] = right;
+        refresh(in, ci);
+        refresh(in, ci + 1);
+        return in.count > order - 1 ? splitInternal(in, e) : null;
+    }
+
+    private Node splitLeaf(LeafNode leaf, Edit e) {
+        int mid = order / 2;
+        LeafNode sibling = new LeafNode();
+        int moved = leaf.count - mid;
+        System.arraycopy(leaf.keys, mid, sibling.keys, 0, moved);
+        System.arraycopy(leaf.values, mid, sibling.values, 0, moved);
+        sibling.count = moved;
+        for (int i = mid; i < leaf.count; i++) {
+            leaf.keys[i] = null;
+            leaf.values[i] = null;
+        }
+        leaf.count = mid;
+        sibling.next = leaf.next;
+        leaf.next = sibling;
+        e.sep = sibling.key(0); // se copia hacia arriba, la hoja la conserva
+        return sibling;
+    }
+
+    private Node splitInternal(InternalNode node, Edit e) {
+        int mid = order / 2;
+        e.sep = node.key(mid);
+        InternalNode sibling = new InternalNode();
+        int movedKeys = node.count - mid - 1;
+        System.arraycopy(node.keys, mid + 1, sibling.keys, 0, movedKeys);
+        copyChildren(node, mid + 1, sibling, 0, movedKeys + 1);
+        sibling.count = movedKeys;
+        for (int i = mid; i < node.count; i++) {
+            node.keys[i] = null;
+            node.children[i + 1] = null;
+        }
+        node.count = mid;
+        return sibling;
+    }
+
+    // ---------------------------------------------------------------------
+    // Borrado con préstamo / fusión
+    // ---------------------------------------------------------------------
+
+    // Mínimo de claves de un nodo que no es raíz, igual que en BPlusTree: order / 2 en las hojas y
+    // ceil(order/2) - 1 en los internos (que al fusionarse suman el separador del padre)
+    private int minKeys(Node node) {
+        return node.isLeaf() ? order / 2 : (order + 1) / 2 - 1;
+    }
+
+    private boolean remove(Node node, K key, Edit e) {
+        if (node.isLeaf()) {
+            LeafNode leaf = (LeafNode) node;
+            int pos = leaf.search(key);
+            if (pos < 0) return false;
+            e.old = leaf.value(pos);
+            System.arraycopy(leaf.keys, pos + 1, leaf.keys, pos, leaf.count - pos - 1);
+            System.arraycopy(leaf.values, pos + 1, leaf.values, pos, leaf.count - pos - 1);
+            leaf.count--;
+            leaf.keys[leaf.count] = null;
+            leaf.values[leaf.count] = null;
+            return true;
+        }
+        InternalNode in = (InternalNode) node;
+        int ci = in.childIndex(key);
+        if (!remove(in.children[ci], key, e)) return false;
+        if (in.children[ci].count < minKeys(in.children[ci])) {
+            rebalance(in, ci > 0 ? ci - 1 : ci);
+        } else {
+            long x = measure.of(e.old);
+            in.counts[ci]--;
+            in.sums[ci] -= x;
+            if (x == in.mins[ci] || x == in.maxs[ci]) refresh(in, ci); // el extremo pudo cambiar
+        }
+        return true;
+    }
+
+    // Los hijos li y li + 1 de 'parent' (uno en underflow) se fusionan si entran en un nodo,
+    // si no se reparten por mitades (equivale a pedir prestado)
+    private void rebalance(InternalNode parent, int li) {
+        Node left = parent.children[li];
+        Node right = parent.children[li + 1];
+        if (left.isLeaf()) {
+            LeafNode l = (LeafNode) left, r = (LeafNode) right;
+            int total = l.count + r.count;
+            if (total <= order - 1) {
+                System.arraycopy(r.keys, 0, l.keys, l.count, r.count);
+                System.arraycopy(r.values, 0, l.values, l.count, r.count);
+                l.count = total;
+                l.next = r.next;
+                closeChild(parent, li);
+            } else {
+                int leftCount = total / 2;
+                if (l.count > leftCount) { // pasan claves de l a r
+                    int k = l.count - leftCount;
+                    System.arraycopy(r.keys, 0, r.keys, k, r.count);
+                    System.arraycopy(r.values, 0, r.values, k, r.count);
+                    System.arraycopy(l.keys, leftCount, r.keys, 0, k);
+                    System.arraycopy(l.values, leftCount, r.values, 0, k);
+                    for (int i = leftCount; i < l.count; i++) {
+                        l.keys[i] = null;
+                        l.values[i] = null;
+                    }
+                    r.count += k;
+                } else { // pasan claves de r a l
+                    int k = leftCount - l.count;
+                    System.arraycopy(r.keys, 0, l.keys, l.count, k);
+                    System.arraycopy(r.values, 0, l.values, l.count, k);
+                    System.arraycopy(r.keys, k, r.keys, 0, r.count - k);
+                    System.arraycopy(r.values, k, r.values, 0, r.count - k);
+                    for (int i = r.count - k; i < r.count; i++) {
+                        r.keys[i] = null;
+                        r.values[i] = null;
+                    }
+                    r.count -= k;
+                }
+                l.count = leftCount;
+                parent.keys[li] = r.keys[0];
+                refresh(parent, li + 1);
+            }
+        } else {
+            InternalNode l = (InternalNode) left, r = (InternalNode) right;
+            // Se junta todo en 'l' bajando el separador del padre
+            int lc = l.count;
+            l.keys[lc] = parent.keys[li];
+            if (lc + 1 + r.count <= order - 1) {
+                System.arraycopy(r.keys, 0, l.keys, lc + 1, r.count);
+                copyChildren(r, 0, l, lc + 1, r.count + 1);
+                l.count = lc + 1 + r.count;
+                closeChild(parent, li);
+            } else {
+                // No entra: l toma del comienzo de r (o cede su final) hasta quedar parejos
+                int total = lc + 1 + r.count; // claves incluyendo el separador
+                int leftCount = total / 2;
+                if (leftCount > lc) {
+                    int k = leftCount - lc; // claves que pasan de r (la primera baja como separador)
+                    System.arraycopy(r.keys, 0, l.keys, lc + 1, k - 1);
+                    copyChildren(r, 0, l, lc + 1, k);
+                    parent.keys[li] = r.keys[k - 1];
+                    System.arraycopy(r.keys, k, r.keys, 0, r.count - k);
+                    copyChildren(r, k, r, 0, r.count - k + 1);
+                    for (int i = r.count - k; i < r.count; i++) {
+                        r.keys[i] = null;
+                        r.children[i + 1] = null;
+                    }
+                    r.count -= k;
+                    l.count = leftCount;
+                } else {
+                    int k = lc - leftCount; // claves que pasan de l a r (la última es el separador viejo)
+                    System.arraycopy(r.keys, 0, r.keys, k, r.count);
+                    copyChildren(r, 0, r, k, r.count + 1);
+                    System.arraycopy(l.keys, leftCount + 1, r.keys, 0, k);
+                    copyChildren(l, leftCount + 1, r, 0, k);
+                    parent.keys[li] = l.keys[leftCount];
+                    for (int i = leftCount; i <= lc; i++) {
+                        l.keys[i] = null;
+                        if (i > leftCount) l.children[i] = null;
+                    }
+                    r.count += k;
+                    l.count = leftCount;
+                }
+                refresh(parent, li + 1);
+            }
+        }
+        refresh(parent, li);
+    }
+
+    // ---------------------------------------------------------------------
+    // Mantenimiento de los arreglos de hijos y agregados
+    // ---------------------------------------------------------------------
+
+    // Recalcula los agregados del hijo i a partir de su contenido (O(order))
+    private void refresh(InternalNode in, int i) {
+        Node child = in.children[i];
+        long c = 0, s = 0, mn = Long.MAX_VALUE, mx = Long.MIN_VALUE;
+        if (child.isLeaf()) {
+            LeafNode leaf = (LeafNode) child;
+            c = leaf.count;
+            for (int j = 0; j < leaf.count; j++) {
+                long x = measure.of(leaf.value(j));
+                s += x;
+                if (x < mn) mn = x;
+                if (x > mx) mx = x;
+            }
+        } else {
+            InternalNode ch = (InternalNode) child;
+            for (int j = 0; j <= ch.count; j++) {
+                c += ch.counts[j];
+                s += ch.sums[j];
+                if (ch.mins[j] < mn) mn = ch.mins[j];
+                if (ch.maxs[j] > mx) mx = ch.maxs[j];
+            }
+        }
+        in.counts[i] = c;
+        in.sums[i] = s;
+        in.mins[i] = mn;
+        in.maxs[i] = mx;
+    }
+
+    // Abre un hueco en la posición 'pos' de los hijos (y en la de la clave pos - 1)
+    private void openChild(InternalNode in, int pos) {
+        System.arraycopy(in.keys, pos - 1, in.keys, pos, in.count - pos + 1);
+        copyChildren(in, pos, in, pos + 1, in.count + 1 - pos);
+        in.count++;
+    }
+
+    // Quita el hijo li + 1 y la clave li (tras fusionar li + 1 dentro de li)
+    private void closeChild(InternalNode in, int li) {
+        System.arraycopy(in.keys, li + 1, in.keys, li, in.count - li - 1);
+        copyChildren(in, li + 2, in, li + 1, in.count - li - 1);
+        in.count--;
+        in.keys[in.count] = null;
+        in.children[in.count + 1] = null;
+    }
+
+    // Copia 'n' hijos con sus agregados (admite solapamiento, como System.arraycopy)
+    private static void copyChildren(AggregateBPlusTree<?, ?>.InternalNode src, int from,
+                                     AggregateBPlusTree<?, ?>.InternalNode dst, int to, int n) {
+        System.arraycopy(src.children, from, dst.children, to, n);
+        System.arraycopy(src.counts, from, dst.counts, to, n);
+        System.arraycopy(src.sums, from, dst.sums, to, n);
+        System.arraycopy(src.mins, from, dst.mins, to, n);
+        System.arraycopy(src.maxs, from, dst.maxs, to, n);
+    }
+}
@@ -5,33 +5,93 @@ import exceptions.ItemDuplicated;
 import exceptions.IsEmpty;
 import exceptions.ItemNotFound;
 
-// B+ Tree genérico para el Sistema de Gestión y Optimización de Inventarios en Almacenes.
-// Cada nodo almacena hasta 'order' claves; las hojas están encadenadas para búsquedas por rango.
-// @param <T> tipo de clave, debe implementar Comparable<T> */
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+// B+ Tree genérico (mapa ordenado clave -> valor) para el Sistema de Gestión y Optimización de Inventarios en Almacenes.
+// Cada nodo almacena hasta 'order' claves; las hojas guardan cada valor una sola vez junto a su clave
+// y están encadenadas para búsquedas por rango. Los internos solo guardan claves separadoras.
+// Los nodos guardan sus claves en arreglos de tamaño fijo con un contador, se busca con
+// búsqueda binaria y los corrimientos se hacen con System.arraycopy.
+// @param <K> tipo de clave, debe implementar Comparable<K> (p. ej. el código String del ítem)
+// @param <V> tipo de valor asociado (p. ej. Item); get/remove devuelven null si la clave no está */
 
-public class BPlusTree<T extends Comparable<T>> {
-    private static final int DEFAULT_ORDER = 4; // Orden por defecto del árbol (máx claves por nodo)
+
+public class BPlusTree<K extends Comparable<K>, V> {
+    private static final int DEFAULT_ORDER = 64; // Orden por defecto del árbol (máx hijos por nodo), ver BPlusTreeFanoutBenchmark
     private final int order; // Orden definido por el usuario
     private Node root; // Raíz del árbol
+    private int height; // Niveles internos sobre las hojas (0 = la raíz es hoja)
+    private Counters counters; // Contadores de operaciones; null = apagados (cada punto de conteo es un chequeo de null)
 
     // Nodo base, clase abstracta común para hojas e internos */
     abstract class Node {
-        ArrayList<T> keys = new ArrayList<>(); // Claves contenidas en el nodo
+        // Claves contenidas en el nodo; se reserva un espacio extra para el desborde previo al split
+        final Object[] keys = new Object[order];
+        int count; // Número de claves válidas en keys[0..count)
         abstract boolean isLeaf(); // Método para saber si es hoja
+
+        @SuppressWarnings("unchecked")
+        K key(int i) {
+            return (K) keys[i];
+        }
+
+        // Búsqueda binaria de la clave dentro del nodo.
+        // Devuelve su índice si está, o -(punto de inserción) - 1 si no está.
+        int search(K key) {
+            int lo = 0, hi = count - 1, steps = 0;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = key(mid).compareTo(key);
+                steps++;
+                if (cmp < 0) lo = mid + 1;
+                else if (cmp > 0) hi = mid - 1;
+                else {
+                    if (counters != null) counters.comparisons += steps;
+                    return mid;
+                }
+            }
+            if (counters != null) counters.comparisons += steps;
+            return -(lo + 1);
+        }
+
+        // Representación de las claves como "[k1, k2, ...]" (usada por display y TreeView)
+        String keysToString() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < count; i++) {
+                sb.append(keys[i]);
+                if (i < count - 1) sb.append(", ");
+            }
+            return sb.append("]").toString();
+        }
     }
 
     // Nodo interno que almacena punteros a otros nodos (hijos) */
     class InternalNode extends Node {
-        ArrayList<Node> children = new ArrayList<>(); // Hijos de este nodo interno
+        final Node[] children = newNodes(order + 1); // Hijos de este nodo interno (count + 1 válidos)
         @Override boolean isLeaf() { return false; }
+
+        // Índice del hijo por el que se desciende: cantidad de claves <= key
+        int childIndex(K key) {
+            int i = search(key);
+            return i >= 0 ? i + 1 : -i - 1;
+        }
     }
 
     // Nodo hoja que almacena claves y valores, y apunta a la siguiente hoja (para búsquedas por rango)
     class LeafNode extends Node {
-        ArrayList<T> values = new ArrayList<>(); // En este caso, los valores son iguales a las claves
+        final Object[] values = new Object[order]; // values[i] es el valor asociado a keys[i]
         LeafNode next; // Apuntador a la siguiente hoja (lista enlazada)
+        LeafNode prev; // Apuntador a la hoja anterior (recorridos descendentes)
         @Override boolean isLeaf() { return true; }
+
+        @SuppressWarnings("unchecked")
+        V value(int i) {
+            return (V) values[i];
+        }
     }
 
     // Constructor por defecto con orden predefinido
@@ -39,7 +99,7 @@ public class BPlusTree<T extends Comparable<T>> {
         this(DEFAULT_ORDER);
     }
 
-    // Constructor que permite definir el orden del árbol , orden 4
+    // Constructor que permite definir el orden del árbol (máximo de hijos por nodo interno)
     public BPlusTree(int order) {
         if (order < 3) throw new RuntimeException("Order must be >= 3");
         this.order = order;
@@ -51,182 +111,1341 @@ public class BPlusTree<T extends Comparable<T>> {
         return root;
     }
 
-    // Inserta una clave al árbol.
-     // Si ya existe, lanza excepción.
-     
-    public void insert(T key) throws ItemDuplicated, IsEmpty, ItemNotFound {
-        LeafNode leaf = findLeaf(root, key); // Encuentra la hoja correspondiente
-        int pos = 0;
-        // Busca la posición de inserción ordenada
-        while (pos < leaf.keys.size() && key.compareTo(leaf.keys.get(pos)) > 0) {
-            pos++;
-        }        // Si ya existe la clave, lanza excepción
-        if (pos < leaf.keys.size() && leaf.keys.get(pos).compareTo(key) == 0) {
-            throw new ItemDuplicated("Clave duplicada: " + key);
+    // Inserta el par (clave, valor) al árbol.
+     // Si la clave ya existe, lanza excepción.
+     // Durante el descenso se guarda el camino raíz-hoja (pila de padres), así los splits
+     // suben en O(altura) sin volver a recorrer el árbol buscando al padre.
+
+    public void insert(K key, V value) throws ItemDuplicated, IsEmpty, ItemNotFound {
+        InternalNode[] path = newPath(); // Pila de nodos internos visitados
+        LeafNode leaf = findLeaf(root, key, path); // Encuentra la hoja correspondiente
+        int pos = leaf.search(key);
+        // Si ya existe la clave, lanza excepción
+        if (pos >= 0) {
+            throw new ItemDuplicated("Clave duplicada: " + key, false);
         }
-        // Inserta clave y valor en la posición correspondiente
-        leaf.keys.add(pos, key);
-        leaf.values.add(pos, key);
-        // Si se sobrepasa la capacidad, se divide
-        if (leaf.keys.size() > order - 1) {
-            splitLeaf(leaf);
+        insertAt(leaf, -pos - 1, key, value, path);
+    }
+
+    // Asocia el valor a la clave; si ya existía reemplaza el valor y devuelve el anterior, si no devuelve null
+
+    public V put(K key, V value) {
+        InternalNode[] path = newPath();
+        LeafNode leaf = findLeaf(root, key, path);
+        int pos = leaf.search(key);
+        if (pos >= 0) {
+            V old = leaf.value(pos);
+            leaf.values[pos] = value;
+            return old;
         }
+        insertAt(leaf, -pos - 1, key, value, path);
+        return null;
     }
 
-    // Encuentra la hoja que contendría la clave especificada
-    
-    private LeafNode findLeaf(Node node, T key) throws IsEmpty, ItemNotFound {
-        if (node.isLeaf()) return (LeafNode) node;//si el nodo actual es hoja, ¡ya lo encontramos!
-        InternalNode in = (InternalNode) node;//sino es un nodo interno
+    // Inserta solo si la clave no existe. Devuelve el valor ya presente, o null si se insertó
+
+    public V putIfAbsent(K key, V value) {
+        InternalNode[] path = newPath();
+        LeafNode leaf = findLeaf(root, key, path);
+        int pos = leaf.search(key);
+        if (pos >= 0) {
+            return leaf.value(pos);
+        }
+        insertAt(leaf, -pos - 1, key, value, path);
+        return null;
+    }
+
+    // Devuelve el valor asociado a la clave, o null si no está
+
+    public V get(K key) {
+        LeafNode leaf = findLeaf(root, key);
+        int pos = leaf.search(key);
+        return pos >= 0 ? leaf.value(pos) : null;
+    }
+
+    // Coloca clave y valor en la posición 'pos' de la hoja y divide si se sobrepasa la capacidad
+    private void insertAt(LeafNode leaf, int pos, K key, V value, InternalNode[] path) {
+        System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.count - pos);
+        System.arraycopy(leaf.values, pos, leaf.values, pos + 1, leaf.count - pos);
+        leaf.keys[pos] = key;
+        leaf.values[pos] = value;
+        leaf.count++;
+        if (leaf.count > order - 1) {
+            splitLeaf(leaf, path, height);
+        }
+    }
+
+    // Inserción por lotes (recepción de un envío): ordena una copia del lote (si no venía ya ordenado)
+    // y recorre el árbol de izquierda a derecha. Por cada hoja afectada baja una sola vez, mezcla en ella
+    // todas las claves del lote que le corresponden (hasta el separador que la limita por la derecha)
+    // y para la siguiente hoja no vuelve a la raíz: sube por el camino guardado solo hasta el primer
+    // ancestro cuyo subárbol contiene la próxima clave. Tras un split sí se baja desde la raíz.
+    // Solo conviene con lotes ya ordenados o agrupados (p. ej. los códigos consecutivos de un proveedor):
+    // ahí es ~2x más rápido que insert uno por uno. Con un lote desordenado o disperso es MÁS LENTO
+    // (0.7x - 1.0x en BPlusTreeBatchInsertBenchmark): ordenarlo cuesta lo mismo que los descensos que
+    // ahorra. Para esos lotes usar insert/put por clave y quedarse con insertAll solo si se quiere juntar
+    // los duplicados en una lista en vez de cortar en el primero.
+    // Las claves repetidas (ya presentes en el árbol o repetidas dentro del lote, gana la primera)
+    // no abortan el lote: se devuelven como una lista de ItemDuplicated, vacía si no hubo ninguna.
+
+    public ArrayList<ItemDuplicated> insertAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys y values deben tener el mismo largo");
+        }
+        K[] ks = keys;
+        V[] vs = values;
+        if (!isSorted(keys)) {
+            ks = keys.clone();
+            vs = values.clone();
+            sortByKey(ks, vs); // estable: entre claves iguales queda primero la que venía primero
+        }
+        ArrayList<ItemDuplicated> failures = new ArrayList<>();
+        Object[] runKeys = new Object[order];
+        Object[] runValues = new Object[order];
+        InternalNode[] path = null; // camino de la última hoja (null: hay que bajar desde la raíz)
+        int[] slots = null;
+        Object[] bounds = null;     // bounds[d]: límite derecho del subárbol en la profundidad d (null = sin límite)
+        int n = ks.length;
         int i = 0;
-        while (i < in.keys.size() && key.compareTo(in.keys.get(i)) >= 0) i++;// decidir por cuál “puerta” (hijo) debes bajar
-        return findLeaf(in.children.get(i), key);
+        while (i < n) {
+            int from = 0;
+            if (path == null) {
+                path = newPath();
+                slots = new int[height];
+                bounds = new Object[height + 1];
+            } else {
+                // Sube hasta el ancestro más profundo cuyo subárbol todavía contiene la clave
+                from = Math.max(height - 1, 0);
+                while (from > 0 && bounds[from] != null && ks[i].compareTo(key(bounds, from)) >= 0) from--;
+            }
+            LeafNode leaf = descend(from, ks[i], path, slots, bounds);
+            K bound = key(bounds, height);
+
+            // Junta las claves nuevas que caben en la hoja sin dividirla
+            int free = order - 1 - leaf.count;
+            int run = 0;
+            while (i < n && (bound == null || ks[i].compareTo(bound) < 0)) {
+                K k = ks[i];
+                if ((i > 0 && k.compareTo(ks[i - 1]) == 0) || leaf.search(k) >= 0) {
+                    failures.append(new ItemDuplicated("Clave duplicada: " + k, false));
+                    i++;
+                    continue;
+                }
+                if (run == free) break;
+                runKeys[run] = k;
+                runValues[run++] = vs[i++];
+            }
+            mergeIntoLeaf(leaf, runKeys, runValues, run);
+
+            // La hoja se llenó y quedan claves suyas: la siguiente la divide y se vuelve a bajar
+            if (i < n && (bound == null || ks[i].compareTo(bound) < 0)) {
+                insertAt(leaf, -leaf.search(ks[i]) - 1, ks[i], vs[i], path);
+                i++;
+                path = null;
+            }
+        }
+        return failures;
+    }
+
+    // Baja desde path[from] (o la raíz si from == 0) hasta la hoja de 'key', completando
+    // path, slots y bounds desde esa profundidad
+    private LeafNode descend(int from, K key, InternalNode[] path, int[] slots, Object[] bounds) {
+        if (counters != null) counters.descents++;
+        Node node = from == 0 ? root : path[from];
+        for (int d = from; d < height; d++) {
+            InternalNode in = (InternalNode) node;
+            int ci = in.childIndex(key);
+            path[d] = in;
+            slots[d] = ci;
+            bounds[d + 1] = ci < in.count ? in.keys[ci] : bounds[d];
+            node = in.children[ci];
+        }
+        return (LeafNode) node;
+    }
+
+    private static <K extends Comparable<K>> boolean isSorted(K[] keys) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1].compareTo(keys[i]) > 0) return false;
+        }
+        return true;
+    }
+
+    // Mezcla de atrás hacia adelante 'run' pares ordenados (que entran sin split) con los de la hoja
+    private void mergeIntoLeaf(LeafNode leaf, Object[] runKeys, Object[] runValues, int run) {
+        int a = leaf.count - 1, b = run - 1, w = leaf.count + run - 1;
+        while (b >= 0) {
+            if (a >= 0 && leaf.key(a).compareTo(key(runKeys, b)) > 0) {
+                leaf.keys[w] = leaf.keys[a];
+                leaf.values[w--] = leaf.values[a--];
+            } else {
+                leaf.keys[w] = runKeys[b];
+                leaf.values[w--] = runValues[b];
+                runKeys[b] = null;
+                runValues[b--] = null;
+            }
+        }
+        leaf.count += run;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(Object[] keys, int i) {
+        return (K) keys[i];
+    }
+
+    // Crea la pila para registrar el descenso (una posición por nivel interno)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private InternalNode[] newPath() {
+        return (InternalNode[]) new BPlusTree.InternalNode[height];
+    }
+
+    // Arreglo de nodos (Java no permite crear arreglos del tipo genérico Node directamente)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node[] newNodes(int n) {
+        return (Node[]) new BPlusTree.Node[n];
+    }
+
+    // Encuentra la hoja que contendría la clave especificada
+
+    private LeafNode findLeaf(Node node, K key) {
+        return findLeaf(node, key, null, null);
+    }
+
+    private LeafNode findLeaf(Node node, K key, InternalNode[] path) {
+        return findLeaf(node, key, path, null);
+    }
+
+    // Igual que findLeaf, pero si 'path' no es null anota cada nodo interno del descenso
+    // (path[0] = raíz, path[height-1] = padre de la hoja) y si 'slots' no es null
+    // anota también por qué hijo se bajó en cada nivel (slots[d] es índice en path[d].children)
+
+    private LeafNode findLeaf(Node node, K key, InternalNode[] path, int[] slots) {
+        if (counters != null) counters.descents++;
+        int depth = 0;
+        while (!node.isLeaf()) {//mientras no sea hoja seguimos bajando
+            InternalNode in = (InternalNode) node;
+            int ci = in.childIndex(key);// decidir por cuál “puerta” (hijo) debes bajar
+            if (path != null) path[depth] = in;
+            if (slots != null) slots[depth] = ci;
+            depth++;
+            node = in.children[ci];
+        }
+        return (LeafNode) node;//si el nodo actual es hoja, ¡ya lo encontramos!
     }
 
     // Divide una hoja en dos cuando se excede el número de claves
     //SPLITEAR
-    
-    private void splitLeaf(LeafNode leaf) throws ItemDuplicated, IsEmpty, ItemNotFound {
+    // 'depth' es la cantidad de ancestros válidos en 'path' (el padre está en path[depth-1])
+
+    private void splitLeaf(LeafNode leaf, InternalNode[] path, int depth) {
+        if (counters != null) counters.splits++;
         int mid = order / 2;
         LeafNode sibling = new LeafNode();
-        
+
         // Mueve la mitad superior al hermano (incluyendo la clave a promover)
-        for (int i = mid; i < leaf.keys.size(); i++) {
-            sibling.keys.add(leaf.keys.get(i));
-            sibling.values.add(leaf.values.get(i));
-        }
-        // Elimina las claves movidas de la hoja original
-        while (leaf.keys.size() > mid) {
-            leaf.keys.remove(mid);
-            leaf.values.remove(mid);
+        int moved = leaf.count - mid;
+        System.arraycopy(leaf.keys, mid, sibling.keys, 0, moved);
+        System.arraycopy(leaf.values, mid, sibling.values, 0, moved);
+        sibling.count = moved;
+        // Limpia las posiciones movidas de la hoja original (para no retener referencias)
+        for (int i = mid; i < leaf.count; i++) {
+            leaf.keys[i] = null;
+            leaf.values[i] = null;
         }
-        
+        leaf.count = mid;
+
         // Actualiza el enlace entre hojas
         sibling.next = leaf.next;
+        sibling.prev = leaf;
+        if (leaf.next != null) leaf.next.prev = sibling;
         leaf.next = sibling;
 
-        // --- CORRECCIÓN AQUÍ --- //
-        // 1. Primero remueve y guarda la clave promovida (7)
-        T promotedKey = sibling.keys.remove(0);  // Elimina y obtiene el 7
-        sibling.values.remove(0);               // Elimina su valor asociado
-        
-        // 2. Luego promueve ESA clave (no sibling.keys.get(0))
-        insertIntoParent(leaf, promotedKey, sibling);  // Usa promotedKey, no sibling.keys.get(0)
+        // En un B+ la clave promovida se COPIA al padre: la hoja hermana la conserva,
+        // si no, contains/rangeSearch ya no la encontrarían en el nivel de hojas
+        K promotedKey = sibling.key(0);
+        insertIntoParent(leaf, promotedKey, sibling, path, depth);
     }
 
     // Inserta una clave y nuevo hijo en el nodo padre del nodo dividido
-     
-    private void insertIntoParent(Node left, T key, Node right) throws ItemDuplicated, IsEmpty, ItemNotFound {
+
+    private void insertIntoParent(Node left, K key, Node right, InternalNode[] path, int depth) {
         // Si se divide la raíz, se crea una nueva
-        if (left == root) {
+        if (depth == 0) {
             InternalNode nr = new InternalNode();
-            nr.keys.add(key);
-            nr.children.add(left);
-            nr.children.add(right);
+            nr.keys[0] = key;
+            nr.count = 1;
+            nr.children[0] = left;
+            nr.children[1] = right;
             root = nr;
+            height++;
             return;
         }
-        // Encuentra el padre y la posición adecuada
-        InternalNode parent = findParent(root, left);
-        int pos = 0;
+        // El padre es el último ancestro registrado en el descenso
+        InternalNode parent = path[depth - 1];
         //BUSCAMOS LA POSICION DEL NUEVO PADRE
-        while (pos < parent.keys.size() && key.compareTo(parent.keys.get(pos)) > 0) {
-            pos++;
-        }
-        parent.keys.add(pos, key);
-        parent.children.add(pos + 1, right);
-        // Si se sobrepasa la capacidad, se divide el nodo interno 
-        if (parent.children.size() > order) {
-            splitInternal(parent);
+        int pos = parent.childIndex(key);
+        System.arraycopy(parent.keys, pos, parent.keys, pos + 1, parent.count - pos);
+        System.arraycopy(parent.children, pos + 1, parent.children, pos + 2, parent.count - pos);
+        parent.keys[pos] = key;
+        parent.children[pos + 1] = right;
+        parent.count++;
+        // Si se sobrepasa la capacidad, se divide el nodo interno
+        if (parent.count + 1 > order) {
+            splitInternal(parent, path, depth - 1);
         }
     }
 
-    // Encuentra el nodo padre de un hijo dado (usado en inserción)
-     
-    private InternalNode findParent(Node cur, Node child) throws IsEmpty, ItemNotFound {
-        if (!cur.isLeaf()) {//verificamos que cur no sea hoja o no nos sirve jaja
-            InternalNode in = (InternalNode) cur;
-            for (int i = 0; i < in.children.size(); i++) {//bucamos el node hijoo, va por las ramas (hijo interno)
-                if (in.children.get(i) == child) return in;
-            }
-            
-            for (int i = 0; i < in.children.size(); i++) {//buscamos mas abajo
-                InternalNode p = findParent(in.children.get(i), child);
-                if (p != null) return p; //Si la llamada interna devolvió un padre, lo retorna
-            }
-        }
-        return null;
-    }
-
     // Divide un nodo interno que ha superado su capacidad
-     
-    private void splitInternal(InternalNode node) throws ItemDuplicated, IsEmpty, ItemNotFound {
+
+    private void splitInternal(InternalNode node, InternalNode[] path, int depth) {
+        if (counters != null) counters.splits++;
         int mid = order / 2;
-        T upKey = node.keys.get(mid); // Clave que se promoverá al padre
+        K upKey = node.key(mid); // Clave que se promoverá al padre
         //creamos el NUEVO hermno derecho que la mitad derecha
         InternalNode sibling = new InternalNode();
-        // Mueve claves hijos al nuevo nodo
-        for (int i = mid + 1; i < node.keys.size(); i++) {
-            sibling.keys.add(node.keys.get(i));
+        // Mueve claves e hijos al nuevo nodo
+        int movedKeys = node.count - mid - 1;
+        System.arraycopy(node.keys, mid + 1, sibling.keys, 0, movedKeys);
+        System.arraycopy(node.children, mid + 1, sibling.children, 0, movedKeys + 1);
+        sibling.count = movedKeys;
+        // Elimina las claves e hijos movidos del nodo original
+        for (int i = mid; i < node.count; i++) {
+            node.keys[i] = null;
+            node.children[i + 1] = null;
         }
-        // Mueve los punteros hijos al nuevo nodo
-        for (int i = mid + 1; i < node.children.size(); i++) {
-            sibling.children.add(node.children.get(i));
+        node.count = mid;
+        // Inserta la clave promovida al padre
+        insertIntoParent(node, upKey, sibling, path, depth);
+    }
+
+    // Carga masiva: reemplaza el contenido del árbol con los pares dados, ordenándolos antes.
+    // Ver bulkLoad(K[], V[], boolean, double).
+
+    public void bulkLoad(K[] keys, V[] values) throws ItemDuplicated {
+        bulkLoad(keys, values, false, 1.0);
+    }
+
+    // Carga masiva de abajo hacia arriba (reconstrucción nocturna del índice).
+    // En lugar de n inserciones con descenso y splits, arma las hojas empaquetadas de izquierda
+    // a derecha, las encadena y luego construye cada nivel interno sobre el anterior: O(n).
+    // - values[i] es el valor de keys[i]
+    // - sorted: true si 'keys' ya viene ordenado ascendentemente (no se copia ni se ordena)
+    // - fillFactor: fracción (0, 1] de cada nodo que se llena; dejar hueco abarata inserciones futuras
+    // Si hay claves repetidas lanza ItemDuplicated y el árbol queda como estaba.
+
+    public void bulkLoad(K[] keys, V[] values, boolean sorted, double fillFactor) throws ItemDuplicated {
+        if (fillFactor <= 0 || fillFactor > 1) {
+            throw new IllegalArgumentException("fillFactor debe estar en (0, 1]: " + fillFactor);
         }
-        // Elimina las claves e hijos movidos del nodo original
-        while (node.keys.size() > mid) {
-            node.keys.remove(mid);
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys y values deben tener el mismo largo");
         }
-        //  eliminamos los sobrantes del nodo nuevo     
-        while (node.children.size() > mid + 1) {
-            node.children.remove(node.children.size() - 1);
+        if (!sorted) {
+            keys = keys.clone();
+            values = values.clone();
+            sortByKey(keys, values);
         }
-        // Inserta la clave promovida al padre
-        insertIntoParent(node, upKey, sibling);
+        for (int i = 1; i < keys.length; i++) {
+            int cmp = keys[i - 1].compareTo(keys[i]);
+            if (cmp == 0) throw new ItemDuplicated("Clave duplicada: " + keys[i], false);
+            if (cmp > 0) throw new IllegalArgumentException("Claves no ordenadas en la posición " + i);
+        }
+        if (keys.length == 0) {
+            root = new LeafNode();
+            height = 0;
+            return;
+        }
+
+        // Nivel de hojas: cada una con 'leafCap' claves, salvo el ajuste final
+        int leafCap = clamp((int) Math.round(fillFactor * (order - 1)), Math.max(1, minLeafKeys()), order - 1);
+        int[] sizes = chunkSizes(keys.length, leafCap, minLeafKeys(), order - 1);
+        Node[] level = newNodes(sizes.length);
+        Object[] lows = new Object[sizes.length]; // menor clave de cada subárbol (separador hacia su izquierda)
+        LeafNode prev = null;
+        for (int i = 0, start = 0; i < sizes.length; i++) {
+            LeafNode leaf = new LeafNode();
+            System.arraycopy(keys, start, leaf.keys, 0, sizes[i]);
+            System.arraycopy(values, start, leaf.values, 0, sizes[i]);
+            leaf.count = sizes[i];
+            if (prev != null) prev.next = leaf;
+            leaf.prev = prev;
+            prev = leaf;
+            level[i] = leaf;
+            lows[i] = keys[start];
+            start += sizes[i];
+        }
+
+        // Niveles internos: se agrupan 'fanout' nodos del nivel inferior hasta que quede uno solo
+        int fanout = clamp((int) Math.round(fillFactor * order), minInternalKeys() + 1, order);
+        int levels = 0;
+        while (level.length > 1) {
+            sizes = chunkSizes(level.length, fanout, minInternalKeys() + 1, order);
+            Node[] upper = newNodes(sizes.length);
+            Object[] upperLows = new Object[sizes.length];
+            for (int i = 0, start = 0; i < sizes.length; i++) {
+                InternalNode in = new InternalNode();
+                System.arraycopy(level, start, in.children, 0, sizes[i]);
+                // El separador j es la menor clave del hijo j + 1
+                System.arraycopy(lows, start + 1, in.keys, 0, sizes[i] - 1);
+                in.count = sizes[i] - 1;
+                upper[i] = in;
+                upperLows[i] = lows[start];
+                start += sizes[i];
+            }
+            level = upper;
+            lows = upperLows;
+            levels++;
+        }
+        root = level[0];
+        height = levels;
+    }
+
+    // Reparte 'total' elementos en grupos de 'cap'. Si el último grupo queda bajo 'min' se junta
+    // con el anterior: si entran en un nodo ('max') quedan en uno, si no se reparten a la mitad.
+    private static int[] chunkSizes(int total, int cap, int min, int max) {
+        int groups = (total + cap - 1) / cap;
+        int[] sizes = new int[groups];
+        Arrays.fill(sizes, cap);
+        sizes[groups - 1] = total - cap * (groups - 1);
+        if (groups > 1 && sizes[groups - 1] < min) {
+            int both = sizes[groups - 2] + sizes[groups - 1];
+            if (both <= max) {
+                sizes = Arrays.copyOf(sizes, groups - 1);
+                sizes[groups - 2] = both;
+            } else {
+                sizes[groups - 2] = both - both / 2;
+                sizes[groups - 1] = both / 2;
+            }
+        }
+        return sizes;
+    }
+
+    // Ordena ambos arreglos por clave (merge sort estable de abajo hacia arriba sobre arreglos paralelos)
+    private static <K extends Comparable<K>, V> void sortByKey(K[] keys, V[] values) {
+        int n = keys.length;
+        K[] srcK = keys, dstK = keys.clone();
+        V[] srcV = values, dstV = values.clone();
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n), hi = Math.min(lo + 2 * width, n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    if (srcK[j].compareTo(srcK[i]) < 0) {
+                        dstK[k] = srcK[j];
+                        dstV[k++] = srcV[j++];
+                    } else {
+                        dstK[k] = srcK[i];
+                        dstV[k++] = srcV[i++];
+                    }
+                }
+                while (i < mid) {
+                    dstK[k] = srcK[i];
+                    dstV[k++] = srcV[i++];
+                }
+                while (j < hi) {
+                    dstK[k] = srcK[j];
+                    dstV[k++] = srcV[j++];
+                }
+            }
+            K[] tk = srcK; srcK = dstK; dstK = tk;
+            V[] tv = srcV; srcV = dstV; dstV = tv;
+        }
+        if (srcK != keys) {
+            System.arraycopy(srcK, 0, keys, 0, n);
+            System.arraycopy(srcV, 0, values, 0, n);
+        }
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return Math.max(lo, Math.min(hi, v));
     }
 
     // Verifica si la clave está presente en el árbol
-    
-    public boolean contains(T key) throws IsEmpty, ItemNotFound {
-        LeafNode leaf = findLeaf(root, key);
-        for (int i = 0; i < leaf.keys.size(); i++) {
-            if (leaf.keys.get(i).compareTo(key) == 0) return true;
+
+    public boolean contains(K key) throws IsEmpty, ItemNotFound {
+        return findLeaf(root, key).search(key) >= 0;
+    }
+
+    // Elimina una clave del árbol y rebalancea (ver remove)
+
+    public void delete(K key) throws IsEmpty, ItemNotFound {
+        remove(key);
+    }
+
+    // Elimina la clave y devuelve su valor, o null si no estaba. Rebalancea el árbol.
+    // Si la hoja queda por debajo del mínimo (la mitad de su capacidad, minLeafKeys) primero
+    // intenta pedir prestada una clave a un hermano y, si ninguno puede prestar, se fusiona con él.
+    // La fusión puede dejar al padre en underflow, así que se repite hacia arriba usando el camino
+    // registrado, y si la raíz interna se queda sin claves el árbol baja un nivel.
+
+    public V remove(K key) {
+        InternalNode[] path = newPath();
+        int[] slots = new int[height];
+        LeafNode leaf = findLeaf(root, key, path, slots);
+        int pos = leaf.search(key);
+        if (pos < 0) return null;
+        V old = leaf.value(pos);
+        removeFromLeaf(leaf, pos);
+        if (height == 0) return old; // la raíz es hoja: puede quedar con cualquier cantidad
+
+        // Si se borró la primera clave, el separador que la copiaba ahora apunta a la nueva mínima
+        if (pos == 0 && leaf.count > 0) {
+            replaceSeparator(path, slots, key, leaf.key(0));
         }
-        return false;
+        if (leaf.count < minLeafKeys()) {
+            rebalanceLeaf(leaf, path, slots, height);
+        }
+        return old;
     }
 
-    // Elimina una clave del árbol SIN rebalancear
-     
-    public void delete(T key) throws IsEmpty, ItemNotFound {
-        LeafNode leaf = findLeaf(root, key);
-        for (int i = 0; i < leaf.keys.size(); i++) {
-            if (leaf.keys.get(i).compareTo(key) == 0) {
-                leaf.keys.remove(i);
-                leaf.values.remove(i);
+    // Mínimo de claves de una hoja que no es raíz: ceil(max/2) con max = order - 1 claves, o sea order / 2.
+    // Dos hojas por debajo del mínimo o en él (minLeafKeys - 1 + minLeafKeys) siempre entran en una.
+    private int minLeafKeys() {
+        return order / 2;
+    }
+
+    // Mínimo de claves de un nodo interno que no es raíz: ceil(order/2) hijos, el mismo umbral que
+    // BNodePlus.nodeUnderflow; al fusionar se suma el separador del padre, así que no puede ser order / 2
+    private int minInternalKeys() {
+        return (order + 1) / 2 - 1;
+    }
+
+    // Busca, del nivel más bajo al más alto, el separador que delimita por la izquierda al camino
+    // y si es igual a 'old' lo reemplaza (evita que los internos retengan claves ya borradas)
+    private void replaceSeparator(InternalNode[] path, int[] slots, K old, K replacement) {
+        for (int d = height - 1; d >= 0; d--) {
+            if (slots[d] > 0) {
+                if (path[d].key(slots[d] - 1).compareTo(old) == 0) {
+                    path[d].keys[slots[d] - 1] = replacement;
+                }
                 return;
             }
         }
     }
 
-    // Búsqueda por rango: devuelve todas las claves en el rango [from, to]
-     
-    public ArrayList<T> rangeSearch(T from, T to) throws IsEmpty, ItemNotFound, ItemDuplicated {
-        ArrayList<T> res = new ArrayList<>();//mochila de rango
-        LeafNode leaf = findLeaf(root, from);//ubicamoc la hoja para colocar el desde
-        while (leaf != null) {
-            for (int i = 0; i < leaf.keys.size(); i++) {
-                T k = leaf.keys.get(i);
-                if (k.compareTo(from) >= 0 && k.compareTo(to) <= 0) {//Si k está dentro de [from, to], lo añade
-                    res.add(k);
-                } else if (k.compareTo(to) > 0) {//Si k ya supera 'to', el rango terminó: devolvemos 'res'
-                    return res;
+    // Corrige el underflow de una hoja; su padre es path[depth-1] y la hoja es su hijo slots[depth-1]
+    private void rebalanceLeaf(LeafNode leaf, InternalNode[] path, int[] slots, int depth) {
+        InternalNode parent = path[depth - 1];
+        int ci = slots[depth - 1];
+        LeafNode left = ci > 0 ? (LeafNode) parent.children[ci - 1] : null;
+        LeafNode right = ci < parent.count ? (LeafNode) parent.children[ci + 1] : null;
+
+        if (left != null && left.count > minLeafKeys()) {
+            // Préstamo desde la izquierda: su última clave pasa a ser la primera de esta hoja
+            System.arraycopy(leaf.keys, 0, leaf.keys, 1, leaf.count);
+            System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.count);
+            left.count--;
+            leaf.keys[0] = left.keys[left.count];
+            leaf.values[0] = left.values[left.count];
+            left.keys[left.count] = null;
+            left.values[left.count] = null;
+            leaf.count++;
+            parent.keys[ci - 1] = leaf.keys[0];
+            if (counters != null) counters.borrows++;
+            return;
+        }
+        if (right != null && right.count > minLeafKeys()) {
+            // Préstamo desde la derecha: su primera clave pasa al final de esta hoja
+            leaf.keys[leaf.count] = right.keys[0];
+            leaf.values[leaf.count] = right.values[0];
+            leaf.count++;
+            removeFromLeaf(right, 0);
+            parent.keys[ci] = right.keys[0];
+            if (counters != null) counters.borrows++;
+            return;
+        }
+        // Ningún hermano puede prestar: se fusiona con uno de ellos
+        if (left != null) {
+            mergeLeaves(left, leaf);
+            removeFromInternal(parent, ci - 1);
+        } else {
+            mergeLeaves(leaf, right);
+            removeFromInternal(parent, ci);
+        }
+        fixInternalUnderflow(path, slots, depth - 1);
+    }
+
+    // Pasa todas las claves de 'right' al final de 'left' y la saca de la lista de hojas
+    private void mergeLeaves(LeafNode left, LeafNode right) {
+        if (counters != null) counters.merges++;
+        System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+        System.arraycopy(right.values, 0, left.values, left.count, right.count);
+        left.count += right.count;
+        left.next = right.next;
+        if (right.next != null) right.next.prev = left;
+    }
+
+    // Quita la clave 'pos' de una hoja desplazando las posteriores
+    private void removeFromLeaf(LeafNode leaf, int pos) {
+        System.arraycopy(leaf.keys, pos + 1, leaf.keys, pos, leaf.count - pos - 1);
+        System.arraycopy(leaf.values, pos + 1, leaf.values, pos, leaf.count - pos - 1);
+        leaf.count--;
+        leaf.keys[leaf.count] = null;
+        leaf.values[leaf.count] = null;
+    }
+
+    // Quita de un nodo interno la clave 'pos' y el hijo a su derecha (pos + 1)
+    private void removeFromInternal(InternalNode node, int pos) {
+        System.arraycopy(node.keys, pos + 1, node.keys, pos, node.count - pos - 1);
+        System.arraycopy(node.children, pos + 2, node.children, pos + 1, node.count - pos - 1);
+        node.count--;
+        node.keys[node.count] = null;
+        node.children[node.count + 1] = null;
+    }
+
+    // Revisa el nodo interno path[d] después de perder un hijo y sube mientras haya underflow
+    private void fixInternalUnderflow(InternalNode[] path, int[] slots, int d) {
+        InternalNode node = path[d];
+        if (d == 0) {
+            // La raíz interna puede tener una sola clave; si se queda sin ninguna, su único hijo es la nueva raíz
+            if (node.count == 0) {
+                root = node.children[0];
+                height--;
+            }
+            return;
+        }
+        if (node.count >= minInternalKeys()) return;
+
+        InternalNode parent = path[d - 1];
+        int ci = slots[d - 1];
+        InternalNode left = ci > 0 ? (InternalNode) parent.children[ci - 1] : null;
+        InternalNode right = ci < parent.count ? (InternalNode) parent.children[ci + 1] : null;
+
+        if (left != null && left.count > minInternalKeys()) {
+            // Rotación a la derecha: el separador baja a este nodo y la última clave del izquierdo sube
+            System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+            System.arraycopy(node.children, 0, node.children, 1, node.count + 1);
+            node.keys[0] = parent.keys[ci - 1];
+            node.children[0] = left.children[left.count];
+            node.count++;
+            parent.keys[ci - 1] = left.keys[left.count - 1];
+            left.keys[left.count - 1] = null;
+            left.children[left.count] = null;
+            left.count--;
+            if (counters != null) counters.borrows++;
+            return;
+        }
+        if (right != null && right.count > minInternalKeys()) {
+            // Rotación a la izquierda: el separador baja al final y la primera clave del derecho sube
+            node.keys[node.count] = parent.keys[ci];
+            node.children[node.count + 1] = right.children[0];
+            node.count++;
+            parent.keys[ci] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            System.arraycopy(right.children, 1, right.children, 0, right.count);
+            right.count--;
+            right.keys[right.count] = null;
+            right.children[right.count + 1] = null;
+            if (counters != null) counters.borrows++;
+            return;
+        }
+        // Fusión: separador del padre + claves e hijos del nodo derecho se agregan al izquierdo
+        if (left != null) {
+            mergeInternal(left, parent.key(ci - 1), node);
+            removeFromInternal(parent, ci - 1);
+        } else {
+            mergeInternal(node, parent.key(ci), right);
+            removeFromInternal(parent, ci);
+        }
+        fixInternalUnderflow(path, slots, d - 1);
+    }
+
+    // Une dos nodos internos hermanos bajando entre ellos el separador del padre
+    private void mergeInternal(InternalNode left, K separator, InternalNode right) {
+        if (counters != null) counters.merges++;
+        left.keys[left.count] = separator;
+        System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+        System.arraycopy(right.children, 0, left.children, left.count + 1, right.count + 1);
+        left.count += right.count + 1;
+    }
+
+    // ---------------------------------------------------------------------
+    // Rangos y árboles completos: deleteRange, extractRange, split, concat, graft
+    // Los nodos enteros cambian de árbol sin copiarse; solo se tocan los caminos de corte y de unión.
+    // Ojo: los nodos movidos siguen sumando sus comparaciones a los contadores del árbol que los creó.
+    // ---------------------------------------------------------------------
+
+    // Borra todas las claves en [from, to] (null = sin límite) y devuelve cuántas había.
+    // El rango se separa con dos cortes y una unión (O(log n)); las hojas borradas solo se recorren para contarlas
+    public long deleteRange(K from, K to) {
+        BPlusTree<K, V> removed = extractRange(from, to);
+        long count = 0;
+        for (LeafNode leaf = removed.firstLeaf(); leaf != null; leaf = leaf.next) {
+            count += leaf.count;
+        }
+        return count;
+    }
+
+    // Quita las claves en [from, to] (null = sin límite) y las devuelve como un árbol aparte. O(log n)
+    public BPlusTree<K, V> extractRange(K from, K to) {
+        if (from != null && to != null && from.compareTo(to) > 0) return new BPlusTree<>(order);
+        BPlusTree<K, V> middle = cut(from, true);
+        BPlusTree<K, V> tail = to == null ? new BPlusTree<>(order) : middle.cut(to, false);
+        concat(tail);
+        return middle;
+    }
+
+    // Parte el árbol: devuelve uno nuevo (del mismo orden) con las claves >= at; este se queda con las < at. O(log n)
+    public BPlusTree<K, V> split(K at) {
+        if (at == null) throw new IllegalArgumentException("La clave de corte no puede ser null");
+        return cut(at, true);
+    }
+
+    // Agrega a la derecha todas las claves de 'other', que deben ser mayores que las de este árbol.
+    // Sus nodos pasan a este árbol y 'other' queda vacío. O(log n)
+    public void concat(BPlusTree<K, V> other) {
+        if (other == this) throw new IllegalArgumentException("No se puede concatenar un árbol consigo mismo");
+        if (other.order != order) throw new IllegalArgumentException("Los árboles deben tener el mismo orden");
+        K last = last(), first = other.first();
+        if (last != null && first != null && last.compareTo(first) >= 0) {
+            throw new IllegalArgumentException("Las claves de 'other' deben ser mayores que las de este árbol");
+        }
+        join(root, height, other.root, other.height);
+        other.root = other.new LeafNode();
+        other.height = 0;
+    }
+
+    // Injerta 'other' si sus claves caen en un hueco de este árbol (ninguna clave propia entre la primera y la
+    // última de 'other'): se corta en ese punto y se concatena a ambos lados, O(log n), y 'other' queda vacío.
+    // Si no es un hueco devuelve false sin modificar nada
+    public boolean graft(BPlusTree<K, V> other) {
+        K first = other.first();
+        if (first == null) return true;
+        K next = ceiling(first);
+        if (next != null && next.compareTo(other.last()) <= 0) return false;
+        BPlusTree<K, V> tail = cut(first, true);
+        concat(other);
+        concat(tail);
+        return true;
+    }
+
+    // Mueve a un árbol nuevo las claves >= at (> at si !inclusive; todas si at == null).
+    // Cada nivel del camino de 'at' se parte en una pieza izquierda y una derecha (subárboles con raíz
+    // posiblemente chica) y luego las piezas se unen de abajo hacia arriba; como las alturas crecen de a
+    // una, el costo total de las uniones es O(altura)
+    private BPlusTree<K, V> cut(K at, boolean inclusive) {
+        BPlusTree<K, V> right = new BPlusTree<>(order);
+        if (at == null) {
+            right.root = root;
+            right.height = height;
+            root = new LeafNode();
+            height = 0;
+            return right;
+        }
+        int h = height;
+        Node[] lefts = newNodes(h + 1), rights = newNodes(h + 1);
+        int[] leftHeights = new int[h + 1], rightHeights = new int[h + 1];
+        Node node = root;
+        for (int d = 0; d < h; d++) {
+            InternalNode in = (InternalNode) node;
+            int ci = in.childIndex(at);
+            int nodeHeight = h - d;
+            node = in.children[ci];
+            // Pieza derecha: hijos ci + 1 .. count (con un solo hijo, la pieza es ese hijo)
+            int rc = in.count - ci;
+            if (rc == 1) {
+                rights[d] = in.children[in.count];
+                rightHeights[d] = nodeHeight - 1;
+            } else if (rc > 1) {
+                InternalNode r = new InternalNode();
+                System.arraycopy(in.keys, ci + 1, r.keys, 0, rc - 1);
+                System.arraycopy(in.children, ci + 1, r.children, 0, rc);
+                r.count = rc - 1;
+                rights[d] = r;
+                rightHeights[d] = nodeHeight;
+            }
+            // Pieza izquierda: hijos 0 .. ci - 1, reutilizando el mismo nodo recortado
+            if (ci == 1) {
+                lefts[d] = in.children[0];
+                leftHeights[d] = nodeHeight - 1;
+            } else if (ci > 1) {
+                for (int i = ci - 1; i < in.count; i++) {
+                    in.keys[i] = null;
+                    in.children[i + 1] = null;
+                }
+                in.count = ci - 1;
+                lefts[d] = in;
+                leftHeights[d] = nodeHeight;
+            }
+        }
+        // La hoja se parte en dos
+        LeafNode leaf = (LeafNode) node;
+        int pos = leaf.search(at);
+        int cutAt = pos >= 0 ? (inclusive ? pos : pos + 1) : -pos - 1;
+        LeafNode tail = new LeafNode();
+        int moved = leaf.count - cutAt;
+        System.arraycopy(leaf.keys, cutAt, tail.keys, 0, moved);
+        System.arraycopy(leaf.values, cutAt, tail.values, 0, moved);
+        tail.count = moved;
+        for (int i = cutAt; i < leaf.count; i++) {
+            leaf.keys[i] = null;
+            leaf.values[i] = null;
+        }
+        leaf.count = cutAt;
+        tail.next = leaf.next;
+        if (tail.next != null) tail.next.prev = tail;
+        leaf.next = null;
+        lefts[h] = leaf;
+        rights[h] = tail;
+
+        root = new LeafNode();
+        height = 0;
+        for (int d = h; d >= 0; d--) {
+            join(lefts[d], leftHeights[d], root, height);
+            right.join(right.root, right.height, rights[d], rightHeights[d]);
+        }
+        // Los extremos pueden haber quedado apuntando a la hoja cortada si alguna mitad quedó vacía
+        lastLeaf().next = null;
+        right.firstLeaf().prev = null;
+        return right;
+    }
+
+    private static boolean isEmpty(BPlusTree<?, ?>.Node node) {
+        return node == null || (node.isLeaf() && node.count == 0);
+    }
+
+    // Une dos subárboles de alturas ha y hb (todas las claves de a < todas las de b; cualquiera puede
+    // ser null o una hoja vacía) y deja el resultado como raíz de este árbol.
+    // El más bajo se cuelga del borde del más alto a la altura que corresponde; si quedó con menos del
+    // mínimo se fusiona o reparte con su hermano, y si el padre se desborda se divide hacia arriba
+    private void join(Node a, int ha, Node b, int hb) {
+        if (isEmpty(a) || isEmpty(b)) {
+            boolean useB = isEmpty(a) && !isEmpty(b);
+            root = useB ? b : (isEmpty(a) ? new LeafNode() : a);
+            height = useB ? hb : (isEmpty(a) ? 0 : ha);
+            return;
+        }
+        LeafNode aLast = lastLeaf(a), bFirst = firstLeaf(b);
+        aLast.next = bFirst;
+        bFirst.prev = aLast;
+        K sep = bFirst.key(0);
+        if (ha == hb) {
+            InternalNode nr = new InternalNode();
+            nr.keys[0] = sep;
+            nr.count = 1;
+            nr.children[0] = a;
+            nr.children[1] = b;
+            root = nr;
+            height = ha + 1;
+            fixPair(nr, 0);
+            if (nr.count == 0) { // se fusionaron en un solo nodo
+                root = nr.children[0];
+                height = ha;
+            }
+            return;
+        }
+        boolean right = ha > hb; // b se cuelga del borde derecho de a, o a del borde izquierdo de b
+        root = right ? a : b;
+        height = right ? ha : hb;
+        int depth = Math.abs(ha - hb) - 1;
+        InternalNode[] path = newPath();
+        Node node = root;
+        for (int d = 0; d < depth; d++) {
+            path[d] = (InternalNode) node;
+            node = path[d].children[right ? path[d].count : 0];
+        }
+        InternalNode p = (InternalNode) node;
+        path[depth] = p;
+        if (right) {
+            p.keys[p.count] = sep;
+            p.children[p.count + 1] = b;
+            p.count++;
+            fixPair(p, p.count - 1);
+        } else {
+            System.arraycopy(p.keys, 0, p.keys, 1, p.count);
+            System.arraycopy(p.children, 0, p.children, 1, p.count + 1);
+            p.keys[0] = sep;
+            p.children[0] = a;
+            p.count++;
+            fixPair(p, 0);
+        }
+        if (p.count > order - 1) {
+            splitInternal(p, path, depth);
+        }
+    }
+
+    // Si alguno de los hijos li y li + 1 de 'parent' tiene menos del mínimo, los fusiona si entran en un
+    // nodo o, si no, reparte sus claves por mitades (a diferencia del préstamo del borrado, que mueve una
+    // sola clave, aquí el hijo puede estar muy por debajo del mínimo)
+    private void fixPair(InternalNode parent, int li) {
+        Node left = parent.children[li], right = parent.children[li + 1];
+        int min = left.isLeaf() ? minLeafKeys() : minInternalKeys();
+        if (left.count >= min && right.count >= min) return;
+        if (left.isLeaf()) {
+            LeafNode l = (LeafNode) left, r = (LeafNode) right;
+            int total = l.count + r.count;
+            if (total <= order - 1) {
+                mergeLeaves(l, r);
+                removeFromInternal(parent, li);
+                return;
+            }
+            int leftCount = total / 2;
+            if (l.count > leftCount) { // pasan claves de l a r
+                int k = l.count - leftCount;
+                System.arraycopy(r.keys, 0, r.keys, k, r.count);
+                System.arraycopy(r.values, 0, r.values, k, r.count);
+                System.arraycopy(l.keys, leftCount, r.keys, 0, k);
+                System.arraycopy(l.values, leftCount, r.values, 0, k);
+                for (int i = leftCount; i < l.count; i++) {
+                    l.keys[i] = null;
+                    l.values[i] = null;
                 }
+                r.count += k;
+            } else { // pasan claves de r a l
+                int k = leftCount - l.count;
+                System.arraycopy(r.keys, 0, l.keys, l.count, k);
+                System.arraycopy(r.values, 0, l.values, l.count, k);
+                System.arraycopy(r.keys, k, r.keys, 0, r.count - k);
+                System.arraycopy(r.values, k, r.values, 0, r.count - k);
+                for (int i = r.count - k; i < r.count; i++) {
+                    r.keys[i] = null;
+                    r.values[i] = null;
+                }
+                r.count -= k;
             }
-            leaf = leaf.next;//sigueinte hojitaa jeje
+            l.count = leftCount;
+            parent.keys[li] = r.keys[0];
+            if (counters != null) counters.borrows++;
+            return;
+        }
+        InternalNode l = (InternalNode) left, r = (InternalNode) right;
+        int lc = l.count;
+        int total = lc + 1 + r.count; // claves contando el separador del padre
+        if (total <= order - 1) {
+            mergeInternal(l, parent.key(li), r);
+            removeFromInternal(parent, li);
+            return;
+        }
+        // Se reparte como si el separador estuviera al final de l: quedan 'leftCount' claves en l y sube la siguiente
+        l.keys[lc] = parent.keys[li];
+        int leftCount = total / 2;
+        if (leftCount > lc) {
+            int k = leftCount - lc; // claves que pasan de r (la última sube como separador)
+            System.arraycopy(r.keys, 0, l.keys, lc + 1, k - 1);
+            System.arraycopy(r.children, 0, l.children, lc + 1, k);
+            parent.keys[li] = r.keys[k - 1];
+            System.arraycopy(r.keys, k, r.keys, 0, r.count - k);
+            System.arraycopy(r.children, k, r.children, 0, r.count - k + 1);
+            for (int i = r.count - k; i < r.count; i++) {
+                r.keys[i] = null;
+                r.children[i + 1] = null;
+            }
+            r.count -= k;
+        } else {
+            int k = lc - leftCount; // claves que pasan de l a r (la última es el separador viejo)
+            System.arraycopy(r.keys, 0, r.keys, k, r.count);
+            System.arraycopy(r.children, 0, r.children, k, r.count + 1);
+            System.arraycopy(l.keys, leftCount + 1, r.keys, 0, k);
+            System.arraycopy(l.children, leftCount + 1, r.children, 0, k);
+            parent.keys[li] = l.keys[leftCount];
+            for (int i = leftCount; i <= lc; i++) {
+                l.keys[i] = null;
+                if (i > leftCount) l.children[i] = null;
+            }
+            r.count += k;
+        }
+        l.count = leftCount;
+        if (counters != null) counters.borrows++;
+    }
+
+    // Búsqueda por rango: devuelve los valores de todas las claves en el rango [from, to], en orden de clave.
+    // Materializa el resultado; para rangos anchos conviene cursor(...) o stream(...), que no copian nada.
+
+    public ArrayList<V> rangeSearch(K from, K to) throws IsEmpty, ItemNotFound, ItemDuplicated {
+        ArrayList<V> res = new ArrayList<>();//mochila de rango
+        Cursor c = cursor(from, true, to, true);
+        while (c.next()) {
+            res.append(c.value()); // las claves del rango son únicas: no hace falta el chequeo de duplicados de add
         }
         return res;//devolveos el recorrido
     }
 
+    // Cursor sobre el rango [from, to] (ambos incluidos), sin límite
+
+    public Cursor cursor(K from, K to) {
+        return cursor(from, true, to, true, -1);
+    }
+
+    // Cursor sobre un rango con extremos abiertos o cerrados; un extremo null significa "sin límite"
+
+    public Cursor cursor(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        return cursor(from, fromInclusive, to, toInclusive, -1);
+    }
+
+    // Cursor sobre un rango que entrega como máximo 'limit' pares (limit < 0: sin límite)
+
+    public Cursor cursor(K from, boolean fromInclusive, K to, boolean toInclusive, long limit) {
+        return new Cursor(from, fromInclusive, to, toInclusive, limit);
+    }
+
+    // Spliterator secuencial de los valores del rango, para usar con streams
+
+    public Spliterator<V> spliterator(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        return new RangeSpliterator(cursor(from, fromInclusive, to, toInclusive));
+    }
+
+    // Stream secuencial de los valores del rango en orden de clave (se puede cortar con limit/findFirst)
+
+    public Stream<V> stream(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        return StreamSupport.stream(spliterator(from, fromInclusive, to, toInclusive), false);
+    }
+
+    // Cursor descendente: empieza en 'from' (extremo mayor) y baja hasta 'to' (extremo menor)
+    // siguiendo LeafNode.prev. Extremos null = sin límite, limit < 0 = sin límite.
+    // P. ej. "los 20 códigos anteriores a X": descendingCursor(X, false, null, false, 20)
+
+    public Cursor descendingCursor(K from, boolean fromInclusive, K to, boolean toInclusive, long limit) {
+        return new Cursor(from, fromInclusive, to, toInclusive, limit, true);
+    }
+
+    // Cursor descendente sobre [to, from] (ambos incluidos), sin límite
+
+    public Cursor descendingCursor(K from, K to) {
+        return descendingCursor(from, true, to, true, -1);
+    }
+
+    // Copia de solo lectura en arreglos contiguos (ver FrozenIndex), para publicar versiones que no cambian.
+    // Sin KeyPrefix las búsquedas con claves objeto son más lentas que en el árbol; para códigos String
+    // usar freeze(CodeCodec.DEFAULT::prefix)
+
+    public FrozenIndex<K, V> freeze() {
+        return FrozenIndex.of(this);
+    }
+
+    public FrozenIndex<K, V> freeze(FrozenIndex.KeyPrefix<K> prefix) {
+        return FrozenIndex.of(this, prefix);
+    }
+
+    // Menor clave del árbol, o null si está vacío
+
+    public K first() {
+        LeafNode leaf = firstLeaf();
+        return leaf.count > 0 ? leaf.key(0) : null;
+    }
+
+    // Mayor clave del árbol, o null si está vacío
+
+    public K last() {
+        LeafNode leaf = lastLeaf();
+        return leaf.count > 0 ? leaf.key(leaf.count - 1) : null;
+    }
+
+    // Mayor clave <= key, o null si no hay
+
+    public K floor(K key) {
+        LeafNode leaf = findLeaf(root, key);
+        int pos = leaf.search(key);
+        return keyAtOrBefore(leaf, pos >= 0 ? pos : -pos - 2);
+    }
+
+    // Mayor clave < key, o null si no hay
+
+    public K lower(K key) {
+        LeafNode leaf = findLeaf(root, key);
+        int pos = leaf.search(key);
+        return keyAtOrBefore(leaf, pos >= 0 ? pos - 1 : -pos - 2);
+    }
+
+    // Menor clave >= key, o null si no hay
+
+    public K ceiling(K key) {
+        LeafNode leaf = findLeaf(root, key);
+        int pos = leaf.search(key);
+        return keyAtOrAfter(leaf, pos >= 0 ? pos : -pos - 1);
+    }
+
+    // Menor clave > key, o null si no hay
+
+    public K higher(K key) {
+        LeafNode leaf = findLeaf(root, key);
+        int pos = leaf.search(key);
+        return keyAtOrAfter(leaf, pos >= 0 ? pos + 1 : -pos - 1);
+    }
+
+    // Clave en la posición 'idx' de la hoja; si idx < 0 la última de la hoja anterior no vacía
+    private K keyAtOrBefore(LeafNode leaf, int idx) {
+        while (idx < 0) {
+            leaf = leaf.prev;
+            if (leaf == null) return null;
+            idx = leaf.count - 1;
+        }
+        return leaf.key(idx);
+    }
+
+    // Clave en la posición 'idx' de la hoja; si idx >= count la primera de la hoja siguiente no vacía
+    private K keyAtOrAfter(LeafNode leaf, int idx) {
+        while (idx >= leaf.count) {
+            leaf = leaf.next;
+            if (leaf == null) return null;
+            idx = 0;
+        }
+        return leaf.key(idx);
+    }
+
+    // Hoja más a la izquierda (primera de la lista enlazada)
+    private LeafNode firstLeaf() {
+        return firstLeaf(root);
+    }
+
+    private LeafNode firstLeaf(Node node) {
+        while (!node.isLeaf()) {
+            node = ((InternalNode) node).children[0];
+        }
+        return (LeafNode) node;
+    }
+
+    // Hoja más a la derecha (última de la lista enlazada)
+    private LeafNode lastLeaf() {
+        return lastLeaf(root);
+    }
+
+    private LeafNode lastLeaf(Node node) {
+        while (!node.isLeaf()) {
+            InternalNode in = (InternalNode) node;
+            node = in.children[in.count];
+        }
+        return (LeafNode) node;
+    }
+
+    // Cursor perezoso sobre la lista de hojas: un solo descenso para ubicar el inicio y luego
+    // sigue LeafNode.next (o LeafNode.prev si es descendente) sin armar ninguna colección
+    // intermedia (memoria extra constante).
+    // Uso: while (c.next()) { c.key(); c.value(); }  — para cortar antes basta con dejar de llamar a next().
+    // No admite modificaciones del árbol mientras se recorre.
+    public final class Cursor {
+        private LeafNode leaf; // hoja actual (null cuando se terminó)
+        private int idx;       // próxima posición a leer dentro de la hoja
+        private final K to;
+        private final boolean toInclusive;
+        private long remaining; // pares que faltan por entregar (< 0: sin límite)
+        private final boolean descending;
+        private K key;
+        private V value;
+
+        private Cursor(K from, boolean fromInclusive, K to, boolean toInclusive, long limit) {
+            this(from, fromInclusive, to, toInclusive, limit, false);
+        }
+
+        private Cursor(K from, boolean fromInclusive, K to, boolean toInclusive, long limit, boolean descending) {
+            this.to = to;
+            this.toInclusive = toInclusive;
+            this.remaining = limit;
+            this.descending = descending;
+            if (from == null) {
+                leaf = descending ? lastLeaf() : firstLeaf();
+                idx = descending ? leaf.count - 1 : 0;
+            } else {
+                leaf = findLeaf(root, from);
+                int pos = leaf.search(from);
+                if (descending) {
+                    idx = pos >= 0 ? (fromInclusive ? pos : pos - 1) : -pos - 2;
+                } else {
+                    idx = pos >= 0 ? (fromInclusive ? pos : pos + 1) : -pos - 1;
+                }
+            }
+        }
+
+        // Avanza al siguiente par del rango; devuelve false cuando ya no quedan
+        public boolean next() {
+            if (remaining == 0) {
+                leaf = null;
+            }
+            if (descending) {
+                while (leaf != null && idx < 0) {
+                    leaf = leaf.prev;
+                    if (leaf != null) idx = leaf.count - 1;
+                }
+            } else {
+                while (leaf != null && idx >= leaf.count) {
+                    leaf = leaf.next;
+                    idx = 0;
+                }
+            }
+            if (leaf == null) return false;
+            K k = leaf.key(idx);
+            if (to != null) {
+                int cmp = k.compareTo(to);
+                if (descending ? (cmp < 0 || (cmp == 0 && !toInclusive)) : (cmp > 0 || (cmp == 0 && !toInclusive))) {
+                    leaf = null;
+                    return false;
+                }
+            }
+            key = k;
+            value = leaf.value(idx);
+            idx += descending ? -1 : 1;
+            if (remaining > 0) remaining--;
+            return true;
+        }
+
+        // Clave del par actual (válida después de un next() que devolvió true)
+        public K key() {
+            return key;
+        }
+
+        // Valor del par actual
+        public V value() {
+            return value;
+        }
+    }
+
+    // Adaptador del cursor a Spliterator: ordenado y sin división (el recorrido es secuencial por naturaleza)
+    private final class RangeSpliterator implements Spliterator<V> {
+        private final Cursor cursor;
+
+        RangeSpliterator(Cursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            if (!cursor.next()) return false;
+            action.accept(cursor.value());
+            return true;
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Estadísticas de forma y contadores de operaciones
+    // ---------------------------------------------------------------------
+
+    // Contadores acumulados desde que se encendieron (o desde el último resetCounters)
+    private static final class Counters {
+        long splits;      // hojas e internos divididos
+        long merges;      // fusiones de hermanos en el borrado
+        long borrows;     // préstamos / rotaciones entre hermanos en el borrado
+        long descents;    // descensos raíz-hoja guiados por una clave
+        long comparisons; // compareTo hechos por la búsqueda binaria dentro de los nodos
+    }
+
+    // Enciende o apaga los contadores. Apagados (por defecto) no reservan nada y cada punto de conteo
+    // es solo un chequeo de null; al apagarlos se pierden los valores acumulados
+    public void setCountersEnabled(boolean enabled) {
+        if (!enabled) counters = null;
+        else if (counters == null) counters = new Counters();
+    }
+
+    // Pone en cero los contadores (si están encendidos)
+    public void resetCounters() {
+        if (counters != null) counters = new Counters();
+    }
+
+    // Recorre los nodos (no las claves) y arma una foto de la forma del árbol junto con los contadores.
+    // Cuesta O(n / order); pensado para monitoreo y para ajustar el orden, no para cada operación
+    public Stats stats() {
+        long[] perLevel = new long[height + 1];
+        long[] fill = new long[10];
+        long[] totals = new long[3]; // claves, hojas vacías, claves en internos
+        collect(root, 0, perLevel, fill, totals);
+        return new Stats(order, height, perLevel, fill, totals[0], totals[1], totals[2], counters);
+    }
+
+    private void collect(Node node, int depth, long[] perLevel, long[] fill, long[] totals) {
+        perLevel[depth]++;
+        if (node.isLeaf()) {
+            totals[0] += node.count;
+            if (node.count == 0) totals[1]++;
+            fill[Math.min(9, node.count * 10 / (order - 1))]++;
+            return;
+        }
+        InternalNode in = (InternalNode) node;
+        totals[2] += in.count;
+        for (int i = 0; i <= in.count; i++) {
+            collect(in.children[i], depth + 1, perLevel, fill, totals);
+        }
+    }
+
+    // Foto de la forma del árbol (ver stats()); los contadores valen -1 si estaban apagados
+    public static final class Stats {
+        private final int order;
+        private final int height;
+        private final long[] nodesPerLevel; // [0] = raíz ... [height] = hojas
+        private final long[] leafFill;      // hojas por décimo de llenado: [0] = 0-9%, ..., [9] = 90-100%
+        private final long keys;
+        private final long emptyLeaves;
+        private final long internalKeys;
+        private final long splits, merges, borrows, descents, comparisons;
+
+        private Stats(int order, int height, long[] nodesPerLevel, long[] leafFill, long keys,
+                      long emptyLeaves, long internalKeys, Counters c) {
+            this.order = order;
+            this.height = height;
+            this.nodesPerLevel = nodesPerLevel;
+            this.leafFill = leafFill;
+            this.keys = keys;
+            this.emptyLeaves = emptyLeaves;
+            this.internalKeys = internalKeys;
+            this.splits = c != null ? c.splits : -1;
+            this.merges = c != null ? c.merges : -1;
+            this.borrows = c != null ? c.borrows : -1;
+            this.descents = c != null ? c.descents : -1;
+            this.comparisons = c != null ? c.comparisons : -1;
+        }
+
+        public int order() { return order; }
+        public int height() { return height; }
+        public long keys() { return keys; }
+        public long leaves() { return nodesPerLevel[height]; }
+        public long emptyLeaves() { return emptyLeaves; }
+        public long splits() { return splits; }
+        public long merges() { return merges; }
+        public long borrows() { return borrows; }
+        public long descents() { return descents; }
+        public long comparisons() { return comparisons; }
+
+        // Nodos en el nivel 'level' (0 = raíz, height = hojas)
+        public long nodesAt(int level) {
+            return nodesPerLevel[level];
+        }
+
+        // Hojas con llenado en [decile * 10%, decile * 10% + 10%) (el 9 incluye las llenas)
+        public long leavesWithFill(int decile) {
+            return leafFill[decile];
+        }
+
+        // Llenado promedio de las hojas respecto de su capacidad (order - 1 claves), entre 0 y 1
+        public double averageLeafFill() {
+            return (double) keys / (leaves() * (order - 1));
+        }
+
+        // Llenado promedio de los internos (hasta order - 1 separadores), 0 si no hay internos
+        public double averageInternalFill() {
+            long internals = 0;
+            for (int i = 0; i < height; i++) internals += nodesPerLevel[i];
+            return internals == 0 ? 0.0 : (double) internalKeys / (internals * (order - 1));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("orden %d, altura %d, %d claves%n", order, height, keys));
+            sb.append("nodos por nivel:");
+            for (long n : nodesPerLevel) sb.append(' ').append(n);
+            sb.append(String.format("%nllenado promedio: hojas %.1f%%, internos %.1f%%, hojas vacías %d%n",
+                    averageLeafFill() * 100, averageInternalFill() * 100, emptyLeaves));
+            sb.append("hojas por llenado:");
+            for (int i = 0; i < leafFill.length; i++) sb.append(' ').append(i * 10).append("%:").append(leafFill[i]);
+            if (splits >= 0) {
+                sb.append(String.format("%nsplits %d, fusiones %d, préstamos %d, descensos %d, comparaciones %d",
+                        splits, merges, borrows, descents, comparisons));
+            }
+            return sb.toString();
+        }
+    }
+
     // Imprime la estructura del árbol (para debug o visualización)
     //DUBIJAMOS NUESTRO PODEROSO ARBOL BPLUSS TREE
 
@@ -234,14 +1453,14 @@ public class BPlusTree<T extends Comparable<T>> {
         displayNode(root, "");
     }
 
-    private void displayNode(Node node, String indent) throws IsEmpty, ItemNotFound {
+    private void displayNode(Node node, String indent) {
         if (node.isLeaf()) {
-            System.out.println(indent + "Leaf: " + node.keys);
+            System.out.println(indent + "Leaf: " + node.keysToString());
         } else {
             InternalNode in = (InternalNode) node;
-            System.out.println(indent + "Internal: " + in.keys);
-            for (int i = 0; i < in.children.size(); i++) {
-                displayNode(in.children.get(i), indent + "    ");
+            System.out.println(indent + "Internal: " + in.keysToString());
+            for (int i = 0; i <= in.count; i++) {
+                displayNode(in.children[i], indent + "    ");
             }
         }
     }
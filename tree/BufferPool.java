@@ -0,0 +1,135 @@
+package tree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+// Buffer pool acotado para páginas de tamaño fijo de un archivo (usado por PagedBPlusTree).
+// Mantiene 'capacity' marcos en memoria directa (fuera del heap). Cada página pedida con fetch queda
+// "pinneada" hasta que se llama unpin; solo las páginas sin pin pueden ser desalojadas.
+// El reemplazo es CLOCK: una aguja recorre los marcos, a los usados recientemente les quita el bit
+// de referencia y desaloja el primero que lo tenga apagado (aproximación barata de LRU).
+
+class BufferPool {
+    private final FileChannel channel;
+    private final int pageSize;
+    private final ByteBuffer[] frames;
+    private final int[] pageOfFrame;  // página cargada en cada marco (-1 = libre)
+    private final int[] pins;         // cantidad de usuarios actuales del marco
+    private final boolean[] dirty;    // el marco fue modificado y hay que escribirlo al desalojar
+    private final boolean[] referenced;
+    private int[] frameOfPage = new int[64]; // página -> marco + 1 (0 = no está en memoria)
+    private int hand;                 // aguja del reloj
+    private long hits;
+    private long misses;
+
+    BufferPool(FileChannel channel, int pageSize, int capacity) {
+        if (capacity < 4) throw new IllegalArgumentException("El buffer pool necesita al menos 4 marcos");
+        this.channel = channel;
+        this.pageSize = pageSize;
+        this.frames = new ByteBuffer[capacity];
+        this.pageOfFrame = new int[capacity];
+        this.pins = new int[capacity];
+        this.dirty = new boolean[capacity];
+        this.referenced = new boolean[capacity];
+        for (int i = 0; i < capacity; i++) {
+            frames[i] = ByteBuffer.allocateDirect(pageSize);
+            pageOfFrame[i] = -1;
+        }
+    }
+
+    // Devuelve el marco con la página cargada y pinneada. Si 'fresh' la página es nueva y se
+    // entrega en ceros sin leer del archivo.
+    int fetch(int page, boolean fresh) throws IOException {
+        int frame = page < frameOfPage.length ? frameOfPage[page] - 1 : -1;
+        if (frame >= 0) {
+            hits++;
+            pins[frame]++;
+            referenced[frame] = true;
+            return frame;
+        }
+        misses++;
+        frame = victim();
+        ByteBuffer buf = frames[frame];
+        buf.clear();
+        if (fresh) {
+            for (int i = 0; i < pageSize; i += 8) {
+                buf.putLong(i, 0L);
+            }
+        } else {
+            long pos = (long) page * pageSize;
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, pos + buf.position()) < 0) break; // más allá del final: ceros
+            }
+            buf.clear();
+        }
+        if (page >= frameOfPage.length) {
+            int[] grown = new int[Math.max(page + 1, frameOfPage.length * 2)];
+            System.arraycopy(frameOfPage, 0, grown, 0, frameOfPage.length);
+            frameOfPage = grown;
+        }
+        frameOfPage[page] = frame + 1;
+        pageOfFrame[frame] = page;
+        pins[frame] = 1;
+        dirty[frame] = fresh;
+        referenced[frame] = true;
+        return frame;
+    }
+
+    // Libera un pin; 'modified' marca el marco como sucio
+    void unpin(int frame, boolean modified) {
+        pins[frame]--;
+        if (modified) dirty[frame] = true;
+    }
+
+    ByteBuffer buffer(int frame) {
+        return frames[frame];
+    }
+
+    // Escribe al archivo todas las páginas sucias
+    void flush() throws IOException {
+        for (int f = 0; f < frames.length; f++) {
+            if (pageOfFrame[f] >= 0 && dirty[f]) {
+                writeBack(f);
+            }
+        }
+        channel.force(false);
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long misses() {
+        return misses;
+    }
+
+    // Busca un marco desalojable con el algoritmo del reloj (dos vueltas como máximo)
+    private int victim() throws IOException {
+        for (int step = 0; step < 2 * frames.length + 1; step++) {
+            int f = hand;
+            hand = (hand + 1) % frames.length;
+            if (pageOfFrame[f] < 0) return f;
+            if (pins[f] > 0) continue;
+            if (referenced[f]) {
+                referenced[f] = false;
+                continue;
+            }
+            if (dirty[f]) writeBack(f);
+            frameOfPage[pageOfFrame[f]] = 0;
+            pageOfFrame[f] = -1;
+            return f;
+        }
+        throw new IllegalStateException("Todas las páginas del buffer pool están pinneadas");
+    }
+
+    private void writeBack(int frame) throws IOException {
+        ByteBuffer buf = frames[frame].duplicate();
+        buf.clear();
+        long pos = (long) pageOfFrame[frame] * pageSize;
+        while (buf.hasRemaining()) {
+            channel.write(buf, pos + buf.position());
+        }
+        dirty[frame] = false;
+    }
+}
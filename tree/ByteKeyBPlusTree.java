@@ -0,0 +1,469 @@
+package tree;
+
+import list.ArrayList;
+import exceptions.ItemDuplicated;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// B+ Tree con claves normalizadas a cadenas de bytes (UTF-8, comparadas sin signo) pensado para
+// códigos con prefijos largos compartidos ("ALM-A-PAS01-EST03-...").
+// - Al dividir una hoja no sube la primera clave completa de la derecha sino el separador más corto
+//   que distingue ambas mitades (el menor prefijo de la primera clave derecha que supera a la última
+//   izquierda); además el punto de corte se elige cerca de la mitad buscando el separador más corto.
+// - Cada nodo interno guarda una sola vez el prefijo común de sus separadores y solo los sufijos,
+//   empaquetados en un único byte[]. La capacidad del interno se mide en bytes (como una página),
+//   así separadores más cortos significan más hijos por nodo y un árbol más bajo.
+// Las hojas guardan las claves completas y están encadenadas para búsquedas por rango.
+// remove rebalancea: una hoja con menos de minLeafKeys claves pide prestado a una hermana o se
+// fusiona con ella; un interno por debajo de un cuarto del presupuesto se fusiona si cabe o reparte bytes.
+// @param <V> tipo de valor; get devuelve null si la clave no está
+
+public class ByteKeyBPlusTree<V> {
+    private static final int DEFAULT_LEAF_CAPACITY = 64;
+    private static final int DEFAULT_INTERNAL_BYTES = 4096; // una página
+    private static final int ENTRY_OVERHEAD = 2; // bytes contabilizados por separador (largo), como en una página
+
+    private final int leafCapacity;  // máximo de claves por hoja
+    private final int minLeafKeys;   // mínimo por hoja (salvo la raíz): la más chica que deja splitLeaf
+    private final int internalBytes; // presupuesto de bytes de separadores por nodo interno
+    private Node root;
+    private int height;
+    private long size;
+
+    abstract static class Node {
+        abstract boolean isLeaf();
+    }
+
+    static final class LeafNode extends Node {
+        final byte[][] keys;
+        final Object[] values;
+        int count;
+        LeafNode next;
+
+        LeafNode(int capacity) {
+            keys = new byte[capacity + 1][]; // +1 para el desborde previo al split
+            values = new Object[capacity + 1];
+        }
+
+        @Override boolean isLeaf() { return true; }
+    }
+
+    // Interno con compresión de prefijo: separador i = prefix + data[start(i)..ends[i])
+    static final class InternalNode extends Node {
+        byte[] prefix;
+        byte[] data;
+        int[] ends;
+        Node[] children; // count + 1 hijos
+        int count;
+
+        @Override boolean isLeaf() { return false; }
+
+        int start(int i) {
+            return i == 0 ? 0 : ends[i - 1];
+        }
+
+        // Separador i completo (prefijo + sufijo)
+        byte[] separator(int i) {
+            int s = start(i);
+            byte[] sep = Arrays.copyOf(prefix, prefix.length + ends[i] - s);
+            System.arraycopy(data, s, sep, prefix.length, ends[i] - s);
+            return sep;
+        }
+
+        // Bytes que ocupa el nodo según el presupuesto (prefijo + sufijos + overhead por entrada)
+        int bytesUsed() {
+            return prefix.length + data.length + count * ENTRY_OVERHEAD;
+        }
+
+        // Índice del hijo por el que se desciende: cantidad de separadores <= key
+        int childIndex(byte[] key) {
+            int p = prefix.length;
+            int n = Math.min(p, key.length);
+            int c = Arrays.compareUnsigned(key, 0, n, prefix, 0, n);
+            if (c == 0 && key.length < p) c = -1; // la clave es prefijo estricto del prefijo común
+            if (c < 0) return 0;
+            if (c > 0) return count;
+            int lo = 0, hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (Arrays.compareUnsigned(data, start(mid), ends[mid], key, p, key.length) <= 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    public ByteKeyBPlusTree() {
+        this(DEFAULT_LEAF_CAPACITY, DEFAULT_INTERNAL_BYTES);
+    }
+
+    // leafCapacity: claves por hoja; internalBytes: presupuesto de bytes de separadores por interno
+    public ByteKeyBPlusTree(int leafCapacity, int internalBytes) {
+        if (leafCapacity < 3) throw new RuntimeException("leafCapacity must be >= 3");
+        if (internalBytes < 64) throw new RuntimeException("internalBytes must be >= 64");
+        this.leafCapacity = leafCapacity;
+        this.minLeafKeys = (leafCapacity + 1) / 2 - Math.max(1, (leafCapacity + 1) / 8);
+        this.internalBytes = internalBytes;
+        this.root = new LeafNode(leafCapacity);
+    }
+
+    // Normaliza un código a bytes; el orden sin signo de UTF-8 coincide con el de los code points
+    public static byte[] normalize(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ---------------------------------------------------------------------
+    // Operaciones
+    // ---------------------------------------------------------------------
+
+    public void insert(String key, V value) throws ItemDuplicated {
+        byte[] k = normalize(key);
+        InternalNode[] path = new InternalNode[height];
+        LeafNode leaf = findLeaf(k, path);
+        int pos = search(leaf, k);
+        if (pos >= 0) throw new ItemDuplicated("Clave duplicada: " + key, false);
+        insertAt(leaf, -pos - 1, k, value, path);
+    }
+
+    // Asocia el valor a la clave; devuelve el anterior o null
+    @SuppressWarnings("unchecked")
+    public V put(String key, V value) {
+        byte[] k = normalize(key);
+        InternalNode[] path = new InternalNode[height];
+        LeafNode leaf = findLeaf(k, path);
+        int pos = search(leaf, k);
+        if (pos >= 0) {
+            V old = (V) leaf.values[pos];
+            leaf.values[pos] = value;
+            return old;
+        }
+        insertAt(leaf, -pos - 1, k, value, path);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(String key) {
+        byte[] k = normalize(key);
+        LeafNode leaf = findLeaf(k, null);
+        int pos = search(leaf, k);
+        return pos >= 0 ? (V) leaf.values[pos] : null;
+    }
+
+    public boolean contains(String key) {
+        byte[] k = normalize(key);
+        return search(findLeaf(k, null), k) >= 0;
+    }
+
+    // Quita la clave y devuelve su valor, o null si no estaba
+    @SuppressWarnings("unchecked")
+    public V remove(String key) {
+        byte[] k = normalize(key);
+        InternalNode[] path = new InternalNode[height];
+        LeafNode leaf = findLeaf(k, path);
+        int pos = search(leaf, k);
+        if (pos < 0) return null;
+        V old = (V) leaf.values[pos];
+        System.arraycopy(leaf.keys, pos + 1, leaf.keys, pos, leaf.count - pos - 1);
+        System.arraycopy(leaf.values, pos + 1, leaf.values, pos, leaf.count - pos - 1);
+        leaf.count--;
+        leaf.keys[leaf.count] = null;
+        leaf.values[leaf.count] = null;
+        size--;
+        if (height > 0 && leaf.count < minLeafKeys) rebalanceLeaf(k, path);
+        return old;
+    }
+
+    // Valores de las claves en [from, to], en orden
+    @SuppressWarnings("unchecked")
+    public ArrayList<V> rangeSearch(String from, String to) {
+        ArrayList<V> res = new ArrayList<>();
+        byte[] lo = normalize(from);
+        byte[] hi = normalize(to);
+        LeafNode leaf = findLeaf(lo, null);
+        int i = search(leaf, lo);
+        if (i < 0) i = -i - 1;
+        while (leaf != null) {
+            for (; i < leaf.count; i++) {
+                if (Arrays.compareUnsigned(leaf.keys[i], hi) > 0) return res;
+                res.append((V) leaf.values[i]);
+            }
+            leaf = leaf.next;
+            i = 0;
+        }
+        return res;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // Niveles internos sobre las hojas (0 = la raíz es hoja)
+    public int height() {
+        return height;
+    }
+
+    // {nodos internos, separadores, bytes guardados en internos (prefijos + sufijos)}
+    public long[] internalStats() {
+        long[] stats = new long[3];
+        if (!root.isLeaf()) internalStats((InternalNode) root, stats);
+        return stats;
+    }
+
+    private void internalStats(InternalNode node, long[] stats) {
+        stats[0]++;
+        stats[1] += node.count;
+        stats[2] += node.prefix.length + node.data.length;
+        for (int i = 0; i <= node.count; i++) {
+            if (!node.children[i].isLeaf()) internalStats((InternalNode) node.children[i], stats);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Descenso y splits
+    // ---------------------------------------------------------------------
+
+    private LeafNode findLeaf(byte[] key, InternalNode[] path) {
+        Node node = root;
+        for (int d = 0; d < height; d++) {
+            InternalNode in = (InternalNode) node;
+            if (path != null) path[d] = in;
+            node = in.children[in.childIndex(key)];
+        }
+        return (LeafNode) node;
+    }
+
+    private static int search(LeafNode leaf, byte[] key) {
+        int lo = 0, hi = leaf.count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = Arrays.compareUnsigned(leaf.keys[mid], key);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    private void insertAt(LeafNode leaf, int pos, byte[] key, V value, InternalNode[] path) {
+        System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.count - pos);
+        System.arraycopy(leaf.values, pos, leaf.values, pos + 1, leaf.count - pos);
+        leaf.keys[pos] = key;
+        leaf.values[pos] = value;
+        leaf.count++;
+        size++;
+        if (leaf.count > leafCapacity) {
+            splitLeaf(leaf, path);
+        }
+    }
+
+    // Divide la hoja cerca de la mitad, en el punto que produce el separador más corto
+    private void splitLeaf(LeafNode leaf, InternalNode[] path) {
+        int n = leaf.count;
+        int mid = n / 2;
+        int slack = Math.max(1, n / 8);
+        int best = mid;
+        int bestLen = Integer.MAX_VALUE;
+        for (int s = mid - slack; s <= mid + slack; s++) {
+            if (s < 1 || s >= n) continue;
+            int len = separatorLength(leaf.keys[s - 1], leaf.keys[s]);
+            if (len < bestLen || (len == bestLen && Math.abs(s - mid) < Math.abs(best - mid))) {
+                best = s;
+                bestLen = len;
+            }
+        }
+        LeafNode right = new LeafNode(leafCapacity);
+        right.count = n - best;
+        System.arraycopy(leaf.keys, best, right.keys, 0, right.count);
+        System.arraycopy(leaf.values, best, right.values, 0, right.count);
+        Arrays.fill(leaf.keys, best, n, null);
+        Arrays.fill(leaf.values, best, n, null);
+        leaf.count = best;
+        right.next = leaf.next;
+        leaf.next = right;
+        byte[] sep = Arrays.copyOf(right.keys[0], bestLen);
+        insertIntoParent(leaf, sep, right, path, height);
+    }
+
+    // Largo del separador más corto s con a < s <= b: prefijo común + 1 byte de b
+    private static int separatorLength(byte[] a, byte[] b) {
+        int i = Arrays.mismatch(a, b); // a < b, así que difieren en algún punto o a es prefijo de b
+        return i + 1;
+    }
+
+    private void insertIntoParent(Node left, byte[] sep, Node right, InternalNode[] path, int depth) {
+        if (depth == 0) {
+            root = build(new byte[][]{sep}, new Node[]{left, right}, 0, 1, new InternalNode());
+            height++;
+            return;
+        }
+        InternalNode parent = path[depth - 1];
+        int pos = parent.childIndex(sep);
+        // Reconstruye el nodo con todos los separadores completos más el nuevo
+        int count = parent.count + 1;
+        byte[][] seps = new byte[count][];
+        Node[] children = new Node[count + 1];
+        for (int i = 0, j = 0; i < count; i++) {
+            seps[i] = i == pos ? sep : parent.separator(j++);
+        }
+        System.arraycopy(parent.children, 0, children, 0, pos + 1);
+        children[pos + 1] = right;
+        System.arraycopy(parent.children, pos + 1, children, pos + 2, parent.count - pos);
+
+        build(seps, children, 0, count, parent);
+        splitIfOver(parent, seps, children, path, depth - 1);
+    }
+
+    // Si node (path[depth]) excede el presupuesto, el separador del medio sube y cada mitad se recomprime
+    private void splitIfOver(InternalNode node, byte[][] seps, Node[] children, InternalNode[] path, int depth) {
+        int count = seps.length;
+        if (node.bytesUsed() <= internalBytes || count < 3) return;
+        int mid = count / 2;
+        InternalNode sibling = build(seps, children, mid + 1, count, new InternalNode());
+        build(seps, children, 0, mid, node);
+        insertIntoParent(node, seps[mid], sibling, path, depth);
+    }
+
+    // ---------------------------------------------------------------------
+    // Rebalanceo tras remove
+    // ---------------------------------------------------------------------
+
+    // La hoja de 'key' quedó con menos de minLeafKeys claves: se toma el par (li, li + 1) de hojas
+    // hermanas que la incluye; si la otra tiene claves de sobra le presta una, si no se fusionan
+    private void rebalanceLeaf(byte[] key, InternalNode[] path) {
+        InternalNode parent = path[height - 1];
+        int ci = parent.childIndex(key);
+        int li = ci > 0 ? ci - 1 : 0;
+        LeafNode left = (LeafNode) parent.children[li];
+        LeafNode right = (LeafNode) parent.children[li + 1];
+        int min = minLeafKeys;
+        if (left.count > min || right.count > min) {
+            if (left.count > min) { // la última de la izquierda pasa adelante en la derecha
+                System.arraycopy(right.keys, 0, right.keys, 1, right.count);
+                System.arraycopy(right.values, 0, right.values, 1, right.count);
+                left.count--;
+                right.keys[0] = left.keys[left.count];
+                right.values[0] = left.values[left.count];
+                right.count++;
+                left.keys[left.count] = null;
+                left.values[left.count] = null;
+            } else { // la primera de la derecha pasa al final de la izquierda
+                left.keys[left.count] = right.keys[0];
+                left.values[left.count] = right.values[0];
+                left.count++;
+                right.count--;
+                System.arraycopy(right.keys, 1, right.keys, 0, right.count);
+                System.arraycopy(right.values, 1, right.values, 0, right.count);
+                right.keys[right.count] = null;
+                right.values[right.count] = null;
+            }
+            byte[] first = right.keys[0];
+            byte[] sep = Arrays.copyOf(first, separatorLength(left.keys[left.count - 1], first));
+            replaceSeparator(parent, li, sep, path, height - 1);
+            return;
+        }
+        // Juntas tienen menos de 2 * minLeafKeys claves, que entran en una hoja: la derecha se vuelca en la izquierda y sale de la lista
+        System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+        System.arraycopy(right.values, 0, left.values, left.count, right.count);
+        left.count += right.count;
+        left.next = right.next;
+        removeEntry(li, key, path, height - 1);
+    }
+
+    // Quita de path[depth] el separador i y el hijo i + 1; si el nodo queda chico se rebalancea
+    private void removeEntry(int i, byte[] key, InternalNode[] path, int depth) {
+        InternalNode node = path[depth];
+        int count = node.count - 1;
+        byte[][] seps = new byte[count][];
+        Node[] children = new Node[count + 1];
+        for (int j = 0, s = 0; j < node.count; j++) {
+            if (j != i) seps[s++] = node.separator(j);
+        }
+        System.arraycopy(node.children, 0, children, 0, i + 1);
+        System.arraycopy(node.children, i + 2, children, i + 1, count - i);
+        build(seps, children, 0, count, node);
+        if (depth == 0) {
+            if (count == 0) { // la raíz quedó con un solo hijo: el árbol baja un nivel
+                root = children[0];
+                height--;
+            }
+            return;
+        }
+        if (count == 0 || node.bytesUsed() < internalBytes / 4) rebalanceInternal(key, path, depth);
+    }
+
+    // path[depth] quedó chico: se junta con su hermana y el separador que las divide. Si el resultado
+    // entra en el presupuesto queda un solo nodo; si no, los separadores se reparten por bytes
+    private void rebalanceInternal(byte[] key, InternalNode[] path, int depth) {
+        InternalNode parent = path[depth - 1];
+        int ci = parent.childIndex(key);
+        int li = ci > 0 ? ci - 1 : 0;
+        InternalNode left = (InternalNode) parent.children[li];
+        InternalNode right = (InternalNode) parent.children[li + 1];
+        int count = left.count + 1 + right.count;
+        byte[][] seps = new byte[count][];
+        Node[] children = new Node[count + 1];
+        for (int j = 0; j < left.count; j++) seps[j] = left.separator(j);
+        seps[left.count] = parent.separator(li);
+        for (int j = 0; j < right.count; j++) seps[left.count + 1 + j] = right.separator(j);
+        System.arraycopy(left.children, 0, children, 0, left.count + 1);
+        System.arraycopy(right.children, 0, children, left.count + 1, right.count + 1);
+
+        build(seps, children, 0, count, left);
+        if (left.bytesUsed() <= internalBytes || count < 3) {
+            removeEntry(li, key, path, depth - 1);
+            return;
+        }
+        // Corte donde se acumula la mitad de los bytes, dejando al menos un separador de cada lado
+        long total = 0;
+        for (byte[] s : seps) total += s.length + ENTRY_OVERHEAD;
+        int mid = 0;
+        for (long acc = 0; mid < count - 2 && acc + seps[mid].length + ENTRY_OVERHEAD <= total / 2; mid++) {
+            acc += seps[mid].length + ENTRY_OVERHEAD;
+        }
+        mid = Math.max(mid, 1);
+        build(seps, children, 0, mid, left);
+        build(seps, children, mid + 1, count, right);
+        replaceSeparator(parent, li, seps[mid], path, depth - 1);
+    }
+
+    // Cambia el separador i de path[depth]; uno más largo puede hacer que el nodo se divida
+    private void replaceSeparator(InternalNode node, int i, byte[] sep, InternalNode[] path, int depth) {
+        byte[][] seps = new byte[node.count][];
+        for (int j = 0; j < node.count; j++) seps[j] = j == i ? sep : node.separator(j);
+        Node[] children = Arrays.copyOf(node.children, node.count + 1);
+        build(seps, children, 0, node.count, node);
+        splitIfOver(node, seps, children, path, depth);
+    }
+
+    // Llena 'node' con los separadores seps[from..to) y los hijos children[from..to], calculando
+    // el prefijo común y empaquetando los sufijos
+    private static InternalNode build(byte[][] seps, Node[] children, int from, int to, InternalNode node) {
+        int count = to - from;
+        int p = 0;
+        if (count > 0) {
+            // El prefijo común de un conjunto ordenado es el del primero y el último
+            byte[] first = seps[from];
+            byte[] last = seps[to - 1];
+            int m = Arrays.mismatch(first, last);
+            p = m < 0 ? first.length : m;
+        }
+        int total = 0;
+        for (int i = from; i < to; i++) total += seps[i].length - p;
+        byte[] data = new byte[total];
+        int[] ends = new int[count];
+        int off = 0;
+        for (int i = from; i < to; i++) {
+            int len = seps[i].length - p;
+            System.arraycopy(seps[i], p, data, off, len);
+            off += len;
+            ends[i - from] = off;
+        }
+        node.prefix = count > 0 ? Arrays.copyOf(seps[from], p) : new byte[0];
+        node.data = data;
+        node.ends = ends;
+        node.children = Arrays.copyOfRange(children, from, to + 1);
+        node.count = count;
+        return node;
+    }
+}
@@ -0,0 +1,421 @@
+package tree;
+
+import list.ArrayList;
+import exceptions.ItemDuplicated;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// B+ Tree concurrente (mapa clave -> valor) para compartir un mismo índice entre varios terminales.
+// Usa "optimistic lock coupling": cada nodo tiene un versionLock de 64 bits.
+// - Las lecturas no bloquean: anotan la versión del nodo, leen, y validan que la versión no cambió;
+//   si cambió (alguien escribió en medio) se reinicia la operación desde la raíz.
+// - Las escrituras descienden igual de forma optimista y solo bloquean (CAS sobre la versión)
+//   la hoja que modifican o, en un split, el nodo que se divide y su padre.
+// - Los nodos internos llenos se dividen de forma anticipada durante el descenso, así un split
+//   nunca necesita propagarse más de un nivel y basta con tener tomados nodo y padre.
+// Las hojas conservan el enlace derecho 'next' (estilo B-link): como los nodos nunca se fusionan,
+// un recorrido por rango puede seguir la cadena validando hoja por hoja.
+// remove quita la clave de su hoja sin fusionar nodos (una hoja puede quedar vacía).
+// @param <K> tipo de clave; debe ser inmutable (p. ej. el código String), porque los lectores la comparan sin bloqueo
+// @param <V> tipo de valor (no se admiten valores null: get devuelve null cuando la clave no está)
+
+public class ConcurrentBPlusTree<K extends Comparable<K>, V> {
+    private static final int DEFAULT_ORDER = 64;
+    private static final long LOCKED = 0b10; // bit de bloqueo; unlock suma LOCKED, así la versión avanza de a 4
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(Node.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int order; // máximo de hijos por nodo interno (las hojas guardan hasta order - 1 pares)
+    private volatile Node root;
+
+    // Nodo base: los campos se escriben solo con el nodo bloqueado y se publican al desbloquear
+    static abstract class Node {
+        volatile long version; // contador de versión con el bit LOCKED
+        int count;             // claves válidas
+        final Object[] keys;
+
+        Node(int capacity) {
+            keys = new Object[capacity];
+        }
+
+        abstract boolean isLeaf();
+    }
+
+    static final class InternalNode extends Node {
+        final Node[] children;
+
+        InternalNode(int order) {
+            super(order - 1);
+            children = new Node[order];
+        }
+
+        @Override boolean isLeaf() { return false; }
+    }
+
+    static final class LeafNode extends Node {
+        final Object[] values;
+        LeafNode next; // enlace derecho hacia la siguiente hoja
+
+        LeafNode(int order) {
+            super(order - 1);
+            values = new Object[order - 1];
+        }
+
+        @Override boolean isLeaf() { return true; }
+    }
+
+    public ConcurrentBPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    public ConcurrentBPlusTree(int order) {
+        if (order < 4) throw new RuntimeException("Order must be >= 4");
+        this.order = order;
+        this.root = new LeafNode(order);
+    }
+
+    // ---------------------------------------------------------------------
+    // Protocolo de versiones
+    // ---------------------------------------------------------------------
+
+    // Versión para lectura optimista, o -1 si el nodo está bloqueado (el llamador reinicia)
+    private static long readLock(Node node) {
+        long v = node.version;
+        if ((v & LOCKED) != 0) {
+            Thread.onSpinWait();
+            return -1;
+        }
+        return v;
+    }
+
+    // Valida que nadie escribió el nodo desde que se anotó la versión 'v' (igual que StampedLock.validate)
+    private static boolean validate(Node node, long v) {
+        VarHandle.acquireFence();
+        return node.version == v;
+    }
+
+    // Pasa de lectura optimista a bloqueo de escritura si la versión sigue siendo 'v'
+    private static boolean upgrade(Node node, long v) {
+        return VERSION.compareAndSet(node, v, v + LOCKED);
+    }
+
+    // Libera el bloqueo: limpia el bit y a la vez incrementa la versión
+    private static void unlock(Node node) {
+        VERSION.getAndAdd(node, LOCKED);
+    }
+
+    // ---------------------------------------------------------------------
+    // Búsqueda dentro de un nodo (tolera lecturas a medio escribir: la validación posterior las descarta)
+    // ---------------------------------------------------------------------
+
+    // Primera posición cuya clave es >= key dentro del nodo
+    @SuppressWarnings("unchecked")
+    private int lowerBound(Node node, K key) {
+        Object[] keys = node.keys;
+        int lo = 0, hi = Math.min(node.count, keys.length);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Object k = keys[mid];
+            if (k != null && ((K) k).compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Índice del hijo por el que se desciende: cantidad de separadores <= key
+    @SuppressWarnings("unchecked")
+    private int childIndex(InternalNode node, K key) {
+        int pos = lowerBound(node, key);
+        if (pos < Math.min(node.count, node.keys.length)) {
+            Object k = node.keys[pos];
+            if (k != null && ((K) k).compareTo(key) == 0) pos++;
+        }
+        return pos;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean keyAt(Node node, int pos, K key) {
+        if (pos >= Math.min(node.count, node.keys.length)) return false;
+        Object k = node.keys[pos];
+        return k != null && ((K) k).compareTo(key) == 0;
+    }
+
+    // ---------------------------------------------------------------------
+    // Lecturas sin bloqueo
+    // ---------------------------------------------------------------------
+
+    // Devuelve el valor asociado a la clave, o null si no está
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        restart:
+        while (true) {
+            Node node = root;
+            long v = readLock(node);
+            if (v < 0 || node != root) continue;
+            Node parent = null;
+            long vParent = 0;
+            while (!node.isLeaf()) {
+                InternalNode in = (InternalNode) node;
+                if (parent != null && !validate(parent, vParent)) continue restart;
+                parent = in;
+                vParent = v;
+                Node child = in.children[Math.min(childIndex(in, key), in.count)];
+                if (!validate(in, v)) continue restart;
+                node = child;
+                v = readLock(node);
+                if (v < 0) continue restart;
+            }
+            LeafNode leaf = (LeafNode) node;
+            int pos = lowerBound(leaf, key);
+            Object value = keyAt(leaf, pos, key) ? leaf.values[pos] : null;
+            if (parent != null && !validate(parent, vParent)) continue;
+            if (!validate(leaf, v)) continue;
+            return (V) value;
+        }
+    }
+
+    public boolean contains(K key) {
+        return get(key) != null;
+    }
+
+    // Devuelve los valores con clave en [from, to] siguiendo la cadena de hojas.
+    // Cada hoja se copia y se valida antes de entregar sus valores; si una hoja cambió mientras se
+    // leía, se vuelve a descender desde la última clave entregada.
+    @SuppressWarnings("unchecked")
+    public ArrayList<V> rangeSearch(K from, K to) {
+        ArrayList<V> res = new ArrayList<>();
+        Object[] bufKeys = new Object[order - 1];
+        Object[] bufValues = new Object[order - 1];
+        K last = null; // última clave entregada (se reanuda después de ella)
+        restart:
+        while (true) {
+            K start = last == null ? from : last;
+            LeafNode leaf = findLeafOptimistic(start);
+            long v = readLock(leaf);
+            if (v < 0) continue;
+            while (true) {
+                int pos = lowerBound(leaf, start);
+                int n = Math.min(leaf.count, bufKeys.length);
+                int taken = 0;
+                for (int i = pos; i < n; i++) {
+                    bufKeys[taken] = leaf.keys[i];
+                    bufValues[taken++] = leaf.values[i];
+                }
+                LeafNode next = leaf.next;
+                if (!validate(leaf, v)) continue restart;
+                for (int i = 0; i < taken; i++) {
+                    K k = (K) bufKeys[i];
+                    if (last != null && k.compareTo(last) <= 0) continue;
+                    if (k.compareTo(to) > 0) return res;
+                    res.append((V) bufValues[i]);
+                    last = k;
+                }
+                if (next == null) return res;
+                leaf = next;
+                v = readLock(leaf);
+                if (v < 0) continue restart;
+            }
+        }
+    }
+
+    // Descenso optimista hasta la hoja que contendría la clave (validando cada nivel)
+    private LeafNode findLeafOptimistic(K key) {
+        restart:
+        while (true) {
+            Node node = root;
+            long v = readLock(node);
+            if (v < 0 || node != root) continue;
+            while (!node.isLeaf()) {
+                InternalNode in = (InternalNode) node;
+                Node child = in.children[Math.min(childIndex(in, key), in.count)];
+                if (!validate(in, v)) continue restart;
+                node = child;
+                v = readLock(node);
+                if (v < 0) continue restart;
+            }
+            return (LeafNode) node;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Escrituras
+    // ---------------------------------------------------------------------
+
+    // Inserta el par; lanza ItemDuplicated si la clave ya existe
+    public void insert(K key, V value) throws ItemDuplicated {
+        if (write(key, value, MODE_INSERT) != null) {
+            throw new ItemDuplicated("Clave duplicada: " + key, false);
+        }
+    }
+
+    // Asocia el valor a la clave y devuelve el anterior (o null)
+    public V put(K key, V value) {
+        return write(key, value, MODE_PUT);
+    }
+
+    // Inserta solo si no existe; devuelve el valor presente o null si se insertó
+    public V putIfAbsent(K key, V value) {
+        return write(key, value, MODE_INSERT);
+    }
+
+    // Quita la clave de su hoja y devuelve su valor, o null si no estaba
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        while (true) {
+            LeafNode leaf = lockLeafFor(key);
+            if (leaf == null) continue;
+            int pos = lowerBound(leaf, key);
+            if (!keyAt(leaf, pos, key)) {
+                unlock(leaf);
+                return null;
+            }
+            V old = (V) leaf.values[pos];
+            int moved = leaf.count - pos - 1;
+            System.arraycopy(leaf.keys, pos + 1, leaf.keys, pos, moved);
+            System.arraycopy(leaf.values, pos + 1, leaf.values, pos, moved);
+            leaf.count--;
+            leaf.keys[leaf.count] = null;
+            leaf.values[leaf.count] = null;
+            unlock(leaf);
+            return old;
+        }
+    }
+
+    private static final int MODE_INSERT = 0; // no reemplaza, devuelve el valor existente
+    private static final int MODE_PUT = 1;    // reemplaza
+
+    @SuppressWarnings("unchecked")
+    private V write(K key, V value, int mode) {
+        if (value == null) throw new NullPointerException("value");
+        while (true) {
+            LeafNode leaf = lockLeafFor(key);
+            if (leaf == null) continue;
+            int pos = lowerBound(leaf, key);
+            if (keyAt(leaf, pos, key)) {
+                V old = (V) leaf.values[pos];
+                if (mode == MODE_PUT) leaf.values[pos] = value;
+                unlock(leaf);
+                return old;
+            }
+            // lockLeafFor garantiza que la hoja tiene lugar para una clave más
+            System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.count - pos);
+            System.arraycopy(leaf.values, pos, leaf.values, pos + 1, leaf.count - pos);
+            leaf.keys[pos] = key;
+            leaf.values[pos] = value;
+            leaf.count++;
+            unlock(leaf);
+            return null;
+        }
+    }
+
+    // Desciende de forma optimista y devuelve la hoja de 'key' BLOQUEADA y con lugar libre.
+    // Por el camino divide internos llenos y, si la hoja está llena, la divide.
+    // Devuelve null si hay que reintentar (hubo un split o un conflicto de versiones).
+    private LeafNode lockLeafFor(K key) {
+        Node node = root;
+        long v = readLock(node);
+        if (v < 0 || node != root) return null;
+        InternalNode parent = null;
+        long vParent = 0;
+
+        while (true) {
+            // Hojas e internos llenos tienen order - 1 claves: no entra ni un par ni un separador más
+            if (node.count == order - 1) {
+                // Split anticipado: se bloquean padre (si hay) y nodo; si algo cambió, se reintenta
+                if (parent != null && !upgrade(parent, vParent)) return null;
+                if (!upgrade(node, v)) {
+                    if (parent != null) unlock(parent);
+                    return null;
+                }
+                if (parent == null && node != root) { // otro hilo cambió la raíz entre medio
+                    unlock(node);
+                    return null;
+                }
+                split(node, parent);
+                unlock(node);
+                if (parent != null) unlock(parent);
+                return null;
+            }
+            if (node.isLeaf()) {
+                if (!upgrade(node, v)) return null;
+                if (parent != null && !validate(parent, vParent)) {
+                    unlock(node);
+                    return null;
+                }
+                return (LeafNode) node;
+            }
+            InternalNode in = (InternalNode) node;
+            if (parent != null && !validate(parent, vParent)) return null;
+            parent = in;
+            vParent = v;
+            Node child = in.children[Math.min(childIndex(in, key), in.count)];
+            if (!validate(in, v)) return null;
+            node = child;
+            v = readLock(node);
+            if (v < 0) return null;
+        }
+    }
+
+    // Divide 'node' (bloqueado) y cuelga la mitad derecha del padre (bloqueado, con lugar) o de una nueva raíz
+    private void split(Node node, InternalNode parent) {
+        Object sep;
+        Node right;
+        if (node.isLeaf()) {
+            LeafNode leaf = (LeafNode) node;
+            LeafNode sibling = new LeafNode(order);
+            int mid = leaf.count / 2;
+            int moved = leaf.count - mid;
+            System.arraycopy(leaf.keys, mid, sibling.keys, 0, moved);
+            System.arraycopy(leaf.values, mid, sibling.values, 0, moved);
+            sibling.count = moved;
+            sibling.next = leaf.next;
+            for (int i = mid; i < leaf.count; i++) {
+                leaf.keys[i] = null;
+                leaf.values[i] = null;
+            }
+            leaf.count = mid;
+            leaf.next = sibling; // el hermano queda completo antes de ser visible por la cadena
+            sep = sibling.keys[0];
+            right = sibling;
+        } else {
+            InternalNode in = (InternalNode) node;
+            InternalNode sibling = new InternalNode(order);
+            int mid = in.count / 2;
+            sep = in.keys[mid];
+            int moved = in.count - mid - 1;
+            System.arraycopy(in.keys, mid + 1, sibling.keys, 0, moved);
+            System.arraycopy(in.children, mid + 1, sibling.children, 0, moved + 1);
+            sibling.count = moved;
+            for (int i = mid; i < in.count; i++) {
+                in.keys[i] = null;
+                in.children[i + 1] = null;
+            }
+            in.count = mid;
+            right = sibling;
+        }
+        if (parent == null) {
+            InternalNode nr = new InternalNode(order);
+            nr.keys[0] = sep;
+            nr.children[0] = node;
+            nr.children[1] = right;
+            nr.count = 1;
+            root = nr; // publicada antes de desbloquear la raíz vieja
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        int pos = childIndex(parent, (K) sep);
+        System.arraycopy(parent.keys, pos, parent.keys, pos + 1, parent.count - pos);
+        System.arraycopy(parent.children, pos + 1, parent.children, pos + 2, parent.count - pos);
+        parent.keys[pos] = sep;
+        parent.children[pos + 1] = right;
+        parent.count++;
+    }
+}
@@ -0,0 +1,196 @@
+package tree;
+
+import list.ArrayList;
+
+// Índice de solo lectura "congelado" a partir de un BPlusTree (p. ej. el catálogo que se publica cada hora).
+// Las claves y valores quedan en dos arreglos contiguos con disposición de Eytzinger (BFS de un árbol
+// binario completo, posición 1 = raíz, hijos de k en 2k y 2k + 1):
+// - la búsqueda baja por k = 2k + (clave(k) < buscada), sin punteros entre nodos ni ramas que dependan de
+//   la forma del árbol; los primeros niveles ocupan las primeras líneas de caché y quedan siempre calientes
+// - no hay nodos ni espacio libre por llenado parcial: 2 referencias por par
+// - get/contains no reservan memoria; el Cursor se puede reutilizar con reset(...) para recorrer rangos
+//   sin reservar nada
+// Los recorridos en orden siguen el sucesor en orden del árbol implícito (O(1) amortizado).
+// Con claves objeto (String) cada nivel de la búsqueda igual salta al objeto clave, y son ~log2(n) saltos
+// contra los pocos nodos anchos del BPlusTree: sin prefijos, get es MÁS LENTO que en el árbol vivo
+// (FrozenIndexBenchmark, 1M códigos: ~5000 ns contra ~2600 ns); solo gana en memoria (7.6 MB contra 13.0).
+// Para códigos String congelar con un KeyPrefix (freeze(CodeCodec.DEFAULT::prefix)): se guarda además un
+// long[] de prefijos que respetan el orden y la búsqueda compara primitivos, yendo a la clave solo cuando
+// los prefijos empatan (~1200 ns, pero 15.3 MB, algo más que el árbol).
+// El índice no cambia: para publicar una versión nueva se vuelve a congelar el árbol.
+// @param <K> tipo de clave
+// @param <V> tipo de valor
+
+public final class FrozenIndex<K extends Comparable<K>, V> {
+    // Prefijo numérico monótono de la clave: a.compareTo(b) < 0 implica of(a) <= of(b)
+    public interface KeyPrefix<K> {
+        long of(K key);
+    }
+
+    private final Object[] keys;   // disposición de Eytzinger, keys[0] sin usar
+    private final Object[] values; // values[k] corresponde a keys[k]
+    private final long[] prefixes; // prefixes[k] = prefix.of(keys[k]), o null sin KeyPrefix
+    private final KeyPrefix<K> prefix;
+    private final int n;
+
+    @SuppressWarnings("unchecked")
+    private FrozenIndex(Object[] sortedKeys, Object[] sortedValues, int n, KeyPrefix<K> prefix) {
+        this.n = n;
+        this.prefix = prefix;
+        this.keys = new Object[n + 1];
+        this.values = new Object[n + 1];
+        this.prefixes = prefix == null ? null : new long[n + 1];
+        // Se recorre el árbol implícito en orden y se van asignando las claves ordenadas
+        int k = leftmost(1);
+        for (int i = 0; i < n; i++) {
+            keys[k] = sortedKeys[i];
+            values[k] = sortedValues[i];
+            if (prefix != null) prefixes[k] = prefix.of((K) sortedKeys[i]);
+            k = successor(k);
+        }
+    }
+
+    // Congela el contenido actual del árbol (el árbol sigue siendo independiente)
+    public static <K extends Comparable<K>, V> FrozenIndex<K, V> of(BPlusTree<K, V> tree) {
+        return of(tree, null);
+    }
+
+    // Igual, guardando además el prefijo numérico de cada clave para buscar comparando longs
+    public static <K extends Comparable<K>, V> FrozenIndex<K, V> of(BPlusTree<K, V> tree, KeyPrefix<K> prefix) {
+        int n = 0;
+        BPlusTree<K, V>.Cursor c = tree.cursor(null, null);
+        while (c.next()) n++;
+        Object[] ks = new Object[n];
+        Object[] vs = new Object[n];
+        c = tree.cursor(null, null);
+        for (int i = 0; c.next(); i++) {
+            ks[i] = c.key();
+            vs[i] = c.value();
+        }
+        return new FrozenIndex<>(ks, vs, n, prefix);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int k) {
+        return (K) keys[k];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int k) {
+        return (V) values[k];
+    }
+
+    // Posición de la menor clave >= key (o > key si !inclusive), 0 si no hay
+    private int lowerBound(K key, boolean inclusive) {
+        int k = 1;
+        if (prefixes != null) {
+            long p = prefix.of(key);
+            int bias = inclusive ? 0 : 1; // con !inclusive las claves iguales también van a la derecha
+            while (k <= n) {
+                long q = prefixes[k];
+                boolean right = q < p || (q == p && keyAt(k).compareTo(key) < bias);
+                k = 2 * k + (right ? 1 : 0);
+            }
+        } else if (inclusive) {
+            while (k <= n) k = 2 * k + (keyAt(k).compareTo(key) < 0 ? 1 : 0);
+        } else {
+            while (k <= n) k = 2 * k + (keyAt(k).compareTo(key) <= 0 ? 1 : 0);
+        }
+        // Se deshacen los giros a la derecha del final (los 1 de menor peso) y uno más a la izquierda
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    private int leftmost(int k) {
+        if (k > n) return 0;
+        while (2 * k <= n) k = 2 * k;
+        return k;
+    }
+
+    // Siguiente posición en orden, 0 al terminar
+    private int successor(int k) {
+        if (2 * k + 1 <= n) return leftmost(2 * k + 1);
+        while ((k & 1) == 1) k >>>= 1; // se sube mientras se viene de un hijo derecho
+        return k >>> 1;
+    }
+
+    public V get(K key) {
+        int k = lowerBound(key, true);
+        return k != 0 && keyAt(k).compareTo(key) == 0 ? valueAt(k) : null;
+    }
+
+    // Por presencia de la clave, no del valor: como en BPlusTree, una clave puede tener valor null
+    public boolean contains(K key) {
+        int k = lowerBound(key, true);
+        return k != 0 && keyAt(k).compareTo(key) == 0;
+    }
+
+    // Menor clave >= key, o null si no hay
+    public K ceiling(K key) {
+        int k = lowerBound(key, true);
+        return k != 0 ? keyAt(k) : null;
+    }
+
+    // Valores con clave en [from, to] (null = sin límite), en orden de clave
+    public ArrayList<V> rangeSearch(K from, K to) {
+        ArrayList<V> res = new ArrayList<>();
+        Cursor c = cursor(from, true, to, true);
+        while (c.next()) {
+            res.append(c.value());
+        }
+        return res;
+    }
+
+    public Cursor cursor(K from, K to) {
+        return cursor(from, true, to, true);
+    }
+
+    public Cursor cursor(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        Cursor c = new Cursor();
+        c.reset(from, fromInclusive, to, toInclusive);
+        return c;
+    }
+
+    // Cursor en orden ascendente; el fin del rango se calcula una vez como posición, así que el
+    // recorrido no compara claves. Uso: while (c.next()) { c.key(); c.value(); }
+    public final class Cursor {
+        private int k;   // próxima posición a entregar (0 = terminó)
+        private int end; // primera posición fuera del rango (0 = hasta el final)
+        private int cur;
+
+        private Cursor() {
+        }
+
+        // Reposiciona el cursor sobre otro rango sin reservar memoria
+        public void reset(K from, boolean fromInclusive, K to, boolean toInclusive) {
+            k = from == null ? leftmost(1) : lowerBound(from, fromInclusive);
+            end = to == null ? 0 : lowerBound(to, !toInclusive);
+            if (k != 0 && end != 0 && keyAt(k).compareTo(keyAt(end)) > 0) k = 0; // rango vacío: el inicio queda pasado el fin
+            cur = 0;
+        }
+
+        // Avanza al siguiente par del rango; devuelve false cuando ya no quedan
+        public boolean next() {
+            if (k == 0 || k == end) {
+                k = 0;
+                return false;
+            }
+            cur = k;
+            k = successor(k);
+            return true;
+        }
+
+        // Clave del par actual (válida después de un next() que devolvió true)
+        public K key() {
+            return keyAt(cur);
+        }
+
+        // Valor del par actual
+        public V value() {
+            return valueAt(cur);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package tree;
+
+import list.ArrayList;
+import exceptions.ItemDuplicated;
+
+// B+ Tree especializado para claves long (p. ej. códigos de ítem empaquetados con modelo.CodeCodec).
+// Las claves de cada nodo viven en un long[] contiguo: comparar es una instrucción, sin compareTo
+// virtual ni saltar a un objeto clave por cada comparación. Dentro del nodo se busca con un barrido
+// lineal sin saltos condicionales (cuenta las claves menores con aritmética de signo): recorre 4-8
+// líneas de caché contiguas y no sufre predicciones de salto fallidas. Una búsqueda binaria sin
+// saltos mide lo mismo (ver LongBPlusTreeBenchmark); lo que domina son los fallos de caché por nivel.
+// Mismas reglas que BPlusTree: hasta order - 1 claves por nodo, separadores copiados hacia arriba,
+// hojas encadenadas, y préstamo / fusión en el borrado.
+// @param <V> tipo de valor asociado; get/remove devuelven null si la clave no está
+
+public class LongBPlusTree<V> {
+    private static final int DEFAULT_ORDER = 32; // ver LongBPlusTreeBenchmark (16-64 miden parecido)
+    private final int order;
+    private Node root;
+    private int height; // niveles internos sobre las hojas
+    private long size;
+
+    abstract class Node {
+        final long[] keys = new long[order]; // un lugar extra para el desborde previo al split
+        int count;
+        abstract boolean isLeaf();
+    }
+
+    // Arreglo de nodos (Java no permite crear arreglos del tipo genérico Node directamente)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node[] newNodes(int n) {
+        return (Node[]) new LongBPlusTree.Node[n];
+    }
+
+    class InternalNode extends Node {
+        final Node[] children = newNodes(order + 1);
+        @Override boolean isLeaf() { return false; }
+    }
+
+    class LeafNode extends Node {
+        final Object[] values = new Object[order];
+        LeafNode next;
+        @Override boolean isLeaf() { return true; }
+
+        @SuppressWarnings("unchecked")
+        V value(int i) {
+            return (V) values[i];
+        }
+    }
+
+    // Resultado de una escritura recursiva
+    private final class Edit {
+        long sep;     // separador que sube si el nodo se dividió
+        V old;        // valor previo de la clave
+        boolean found;
+    }
+
+    public LongBPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    public LongBPlusTree(int order) {
+        if (order < 4) throw new RuntimeException("Order must be >= 4");
+        this.order = order;
+        this.root = new LeafNode();
+    }
+
+    // ---------------------------------------------------------------------
+    // Búsqueda dentro del nodo
+    // ---------------------------------------------------------------------
+
+    // Cantidad de claves < key en keys[0..count). (a - b) con la corrección de desborde deja en el
+    // bit de signo si a < b, así que el ciclo no tiene saltos que dependan de los datos
+    static int countLess(long[] keys, int count, long key) {
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            long a = keys[i];
+            long d = a - key;
+            n += (int) ((d ^ ((a ^ key) & (d ^ a))) >>> 63);
+        }
+        return n;
+    }
+
+    // Cantidad de claves <= key: el hijo por el que se desciende
+    static int countLessOrEqual(long[] keys, int count, long key) {
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            long a = keys[i];
+            long d = key - a; // key >= a  <=>  !(key < a)
+            n += 1 - (int) ((d ^ ((key ^ a) & (d ^ key))) >>> 63);
+        }
+        return n;
+    }
+
+    private LeafNode findLeaf(long key) {
+        Node node = root;
+        while (!node.isLeaf()) {
+            InternalNode in = (InternalNode) node;
+            node = in.children[countLessOrEqual(in.keys, in.count, key)];
+        }
+        return (LeafNode) node;
+    }
+
+    // ---------------------------------------------------------------------
+    // Mapa
+    // ---------------------------------------------------------------------
+
+    public V get(long key) {
+        LeafNode leaf = findLeaf(key);
+        int pos = countLess(leaf.keys, leaf.count, key);
+        return pos < leaf.count && leaf.keys[pos] == key ? leaf.value(pos) : null;
+    }
+
+    public boolean contains(long key) {
+        return get(key) != null;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public void insert(long key, V value) throws ItemDuplicated {
+        Edit e = new Edit();
+        put(key, value, false, e);
+        if (e.found) throw new ItemDuplicated("Clave duplicada: " + key, false);
+    }
+
+    // Asocia el valor a la clave; devuelve el anterior o null
+    public V put(long key, V value) {
+        Edit e = new Edit();
+        put(key, value, true, e);
+        return e.old;
+    }
+
+    private void put(long key, V value, boolean replace, Edit e) {
+        Node right = insert(root, key, value, replace, e);
+        if (right != null) {
+            InternalNode nr = new InternalNode();
+            nr.keys[0] = e.sep;
+            nr.count = 1;
+            nr.children[0] = root;
+            nr.children[1] = right;
+            root = nr;
+            height++;
+        }
+        if (!e.found) size++;
+    }
+
+    // Quita la clave y devuelve su valor, o null si no estaba
+    public V remove(long key) {
+        Edit e = new Edit();
+        if (!remove(root, key, e)) return null;
+        if (!root.isLeaf() && root.count == 0) {
+            root = ((InternalNode) root).children[0];
+            height--;
+        }
+        size--;
+        return e.old;
+    }
+
+    // Valores con clave en [from, to], en orden de clave
+    public ArrayList<V> rangeSearch(long from, long to) {
+        ArrayList<V> res = new ArrayList<>();
+        if (from > to) return res;
+        LeafNode leaf = findLeaf(from);
+        int i = countLess(leaf.keys, leaf.count, from);
+        while (leaf != null) {
+            for (; i < leaf.count; i++) {
+                if (leaf.keys[i] > to) return res;
+                res.append(leaf.value(i));
+            }
+            leaf = leaf.next;
+            i = 0;
+        }
+        return res;
+    }
+
+    // ---------------------------------------------------------------------
+    // Inserción
+    // ---------------------------------------------------------------------
+
+    // Inserta en el subárbol; si el nodo se divide devuelve el hermano derecho (separador en e.sep)
+    private Node insert(Node node, long key, V value, boolean replace, Edit e) {
+        if (node.isLeaf()) {
+            LeafNode leaf = (LeafNode) node;
+            int pos = countLess(leaf.keys, leaf.count, key);
+            if (pos < leaf.count && leaf.keys[pos] == key) {
+                e.found = true;
+                e.old = leaf.value(pos);
+                if (replace) leaf.values[pos] = value;
+                return null;
+            }
+            System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.count - pos);
+            System.arraycopy(leaf.values, pos, leaf.values, pos + 1, leaf.count - pos);
+            leaf.keys[pos] = key;
+            leaf.values[pos] = value;
+            leaf.count++;
+            return leaf.count > order - 1 ? splitLeaf(leaf, e) : null;
+        }
+        InternalNode in = (InternalNode) node;
+        int ci = countLessOrEqual(in.keys, in.count, key);
+        Node right = insert(in.children[ci], key, value, replace, e);
+        if (right == null) return null;
+        System.arraycopy(in.keys, ci, in.keys, ci + 1, in.count - ci);
+        System.arraycopy(in.children, ci + 1, in.children, ci + 2, in.count - ci);
+        in.keys[ci] = e.sep;
+        in.children[ci + 1] = right;
+        in.count++;
+        return in.count > order - 1 ? splitInternal(in, e) : null;
+    }
+
+    private Node splitLeaf(LeafNode leaf, Edit e) {
+        int mid = order / 2;
+        LeafNode sibling = new LeafNode();
+        int moved = leaf.count - mid;
+        System.arraycopy(leaf.keys, mid, sibling.keys, 0, moved);
+        System.arraycopy(leaf.values, mid, sibling.values, 0, moved);
+        sibling.count = moved;
+        for (int i = mid; i < leaf.count; i++) leaf.values[i] = null;
+        leaf.count = mid;
+        sibling.next = leaf.next;
+        leaf.next = sibling;
+        e.sep = sibling.keys[0]; // se copia hacia arriba, la hoja la conserva
+        return sibling;
+    }
+
+    private Node splitInternal(InternalNode node, Edit e) {
+        int mid = order / 2;
+        e.sep = node.keys[mid];
+        InternalNode sibling = new InternalNode();
+        int movedKeys = node.count - mid - 1;
+        System.arraycopy(node.keys, mid + 1, sibling.keys, 0, movedKeys);
+        System.arraycopy(node.children, mid + 1, sibling.children, 0, movedKeys + 1);
+        sibling.count = movedKeys;
+        for (int i = mid + 1; i <= node.count; i++) node.children[i] = null;
+        node.count = mid;
+        return sibling;
+    }
+
+    // ---------------------------------------------------------------------
+    // Borrado con préstamo / fusión
+    // ---------------------------------------------------------------------
+
+    // Mínimo de claves de un nodo que no es raíz, igual que en BPlusTree: order / 2 en las hojas y
+    // ceil(order/2) - 1 en los internos (que al fusionarse suman el separador del padre)
+    private int minKeys(Node node) {
+        return node.isLeaf() ? order / 2 : (order + 1) / 2 - 1;
+    }
+
+    private boolean remove(Node node, long key, Edit e) {
+        if (node.isLeaf()) {
+            LeafNode leaf = (LeafNode) node;
+            int pos = countLess(leaf.keys, leaf.count, key);
+            if (pos == leaf.count || leaf.keys[pos] != key) return false;
+            e.old = leaf.value(pos);
+            System.arraycopy(leaf.keys, pos + 1, leaf.keys, pos, leaf.count - pos - 1);
+            System.arraycopy(leaf.values, pos + 1, leaf.values, pos, leaf.count - pos - 1);
+            leaf.count--;
+            leaf.values[leaf.count] = null;
+            return true;
+        }
+        InternalNode in = (InternalNode) node;
+        int ci = countLessOrEqual(in.keys, in.count, key);
+        if (!remove(in.children[ci], key, e)) return false;
+        if (in.children[ci].count < minKeys(in.children[ci])) rebalance(in, ci > 0 ? ci - 1 : ci);
+        return true;
+    }
+
+    // Los hijos li y li + 1 de 'parent' (uno en underflow) se fusionan si entran en un nodo,
+    // si no se reparten por mitades (equivale a pedir prestado)
+    private void rebalance(InternalNode parent, int li) {
+        Node left = parent.children[li];
+        Node right = parent.children[li + 1];
+        if (left.isLeaf()) {
+            LeafNode l = (LeafNode) left, r = (LeafNode) right;
+            int total = l.count + r.count;
+            if (total <= order - 1) {
+                System.arraycopy(r.keys, 0, l.keys, l.count, r.count);
+                System.arraycopy(r.values, 0, l.values, l.count, r.count);
+                l.count = total;
+                l.next = r.next;
+                removeChild(parent, li);
+                return;
+            }
+            int leftCount = total / 2;
+            if (l.count > leftCount) { // pasan claves de l a r
+                int k = l.count - leftCount;
+                System.arraycopy(r.keys, 0, r.keys, k, r.count);
+                System.arraycopy(r.values, 0, r.values, k, r.count);
+                System.arraycopy(l.keys, leftCount, r.keys, 0, k);
+                System.arraycopy(l.values, leftCount, r.values, 0, k);
+                for (int i = leftCount; i < l.count; i++) l.values[i] = null;
+                r.count += k;
+            } else { // pasan claves de r a l
+                int k = leftCount - l.count;
+                System.arraycopy(r.keys, 0, l.keys, l.count, k);
+                System.arraycopy(r.values, 0, l.values, l.count, k);
+                System.arraycopy(r.keys, k, r.keys, 0, r.count - k);
+                System.arraycopy(r.values, k, r.values, 0, r.count - k);
+                for (int i = r.count - k; i < r.count; i++) r.values[i] = null;
+                r.count -= k;
+            }
+            l.count = leftCount;
+            parent.keys[li] = r.keys[0];
+            return;
+        }
+        InternalNode l = (InternalNode) left, r = (InternalNode) right;
+        // Se junta todo en 'l' bajando el separador del padre
+        int lc = l.count;
+        l.keys[lc] = parent.keys[li];
+        int total = lc + 1 + r.count; // claves incluyendo el separador
+        if (total <= order - 1) {
+            System.arraycopy(r.keys, 0, l.keys, lc + 1, r.count);
+            System.arraycopy(r.children, 0, l.children, lc + 1, r.count + 1);
+            l.count = total;
+            removeChild(parent, li);
+            return;
+        }
+        // No entra: se reparte dejando 'leftCount' claves en l y subiendo la siguiente
+        int leftCount = total / 2;
+        if (leftCount > lc) {
+            int k = leftCount - lc; // claves que pasan de r (la última sube como separador)
+            System.arraycopy(r.keys, 0, l.keys, lc + 1, k - 1);
+            System.arraycopy(r.children, 0, l.children, lc + 1, k);
+            parent.keys[li] = r.keys[k - 1];
+            System.arraycopy(r.keys, k, r.keys, 0, r.count - k);
+            System.arraycopy(r.children, k, r.children, 0, r.count - k + 1);
+            for (int i = r.count - k + 1; i <= r.count; i++) r.children[i] = null;
+            r.count -= k;
+        } else {
+            int k = lc - leftCount; // claves que pasan de l a r (la última es el separador viejo)
+            System.arraycopy(r.keys, 0, r.keys, k, r.count);
+            System.arraycopy(r.children, 0, r.children, k, r.count + 1);
+            System.arraycopy(l.keys, leftCount + 1, r.keys, 0, k);
+            System.arraycopy(l.children, leftCount + 1, r.children, 0, k);
+            parent.keys[li] = l.keys[leftCount];
+            for (int i = leftCount + 1; i <= lc; i++) l.children[i] = null;
+            r.count += k;
+        }
+        l.count = leftCount;
+    }
+
+    // Quita el hijo li + 1 y la clave li (tras fusionar li + 1 dentro de li)
+    private void removeChild(InternalNode in, int li) {
+        System.arraycopy(in.keys, li + 1, in.keys, li, in.count - li - 1);
+        System.arraycopy(in.children, li + 2, in.children, li + 1, in.count - li - 1);
+        in.count--;
+        in.children[in.count + 1] = null;
+    }
+}
@@ -0,0 +1,384 @@
+package tree;
+
+import list.ArrayList;
+import exceptions.ItemDuplicated;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// B+ Tree paginado en disco para catálogos que no caben (o no queremos) en el heap.
+// Indexa códigos String (hasta KEY_MAX bytes en UTF-8) hacia un long no negativo, típicamente
+// la posición del registro del ítem en un archivo de datos.
+// El archivo se divide en páginas de PAGE_SIZE bytes:
+// - página 0: cabecera (raíz, cantidad de páginas, altura, cantidad de claves)
+// - hojas:    [tipo][-][count:2][next:4] + count * ([len:1][clave:KEY_MAX][valor:8])
+// - internos: [tipo][-][count:2][hijo0:4] + count * ([len:1][clave:KEY_MAX][hijo:4])
+// Todas las páginas pasan por un BufferPool acotado (CLOCK) de marcos fuera del heap; el árbol
+// sobrevive a reinicios (flush/close) y se reabre con el mismo constructor.
+// Las claves se comparan byte a byte sin signo, que para UTF-8 coincide con el orden de String.compareTo
+// en códigos alfanuméricos.
+
+public class PagedBPlusTree implements AutoCloseable {
+    public static final int PAGE_SIZE = 4096;
+    public static final int KEY_MAX = 31;
+    public static final long NOT_FOUND = -1L;
+
+    private static final int MAGIC = 0x42505431; // "BPT1"
+    private static final byte LEAF = 1;
+    private static final byte INTERNAL = 2;
+    private static final int HEADER = 8;                 // bytes de cabecera de cada página
+    private static final int KEY_SLOT = 1 + KEY_MAX;     // largo + bytes de la clave
+    private static final int LEAF_ENTRY = KEY_SLOT + 8;
+    private static final int INNER_ENTRY = KEY_SLOT + 4;
+    private static final int LEAF_CAP = (PAGE_SIZE - HEADER) / LEAF_ENTRY;
+    private static final int INNER_CAP = (PAGE_SIZE - HEADER) / INNER_ENTRY;
+
+    private final FileChannel channel;
+    private final BufferPool pool;
+    private int root;
+    private int pageCount;
+    private int height;
+    private long size;
+
+    // Abre (o crea si no existe) el árbol en 'file' con un buffer pool de 'poolPages' páginas
+    public PagedBPlusTree(Path file, int poolPages) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        pool = new BufferPool(channel, PAGE_SIZE, poolPages);
+        if (channel.size() == 0) {
+            // Árbol nuevo: cabecera + una hoja vacía como raíz
+            pageCount = 2;
+            root = 1;
+            height = 0;
+            size = 0;
+            int f = pool.fetch(root, true);
+            pool.buffer(f).put(0, LEAF);
+            pool.unpin(f, true);
+            writeHeader();
+        } else {
+            readHeader();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Operaciones
+    // ---------------------------------------------------------------------
+
+    // Inserta el par (código, valor). Lanza ItemDuplicated si el código ya existe.
+    public void insert(String key, long value) throws ItemDuplicated, IOException {
+        if (value < 0) throw new IllegalArgumentException("El valor debe ser >= 0: " + value);
+        byte[] kb = encode(key);
+        int[] path = new int[height];
+        int leafPage = descend(kb, path);
+
+        int f = pool.fetch(leafPage, false);
+        ByteBuffer buf = pool.buffer(f);
+        int count = count(buf);
+        int pos = searchLeaf(buf, count, kb);
+        if (pos >= 0) {
+            pool.unpin(f, false);
+            throw new ItemDuplicated("Clave duplicada: " + key, false);
+        }
+        pos = -pos - 1;
+        if (count < LEAF_CAP) {
+            shift(buf, HEADER + pos * LEAF_ENTRY, LEAF_ENTRY, (count - pos) * LEAF_ENTRY);
+            writeLeafEntry(buf, HEADER + pos * LEAF_ENTRY, kb, value);
+            buf.putShort(2, (short) (count + 1));
+            pool.unpin(f, true);
+        } else {
+            splitLeaf(leafPage, f, pos, kb, value, path);
+        }
+        size++;
+    }
+
+    // Devuelve el valor asociado al código, o NOT_FOUND
+    public long get(String key) throws IOException {
+        byte[] kb = encode(key);
+        int leafPage = descend(kb, null);
+        int f = pool.fetch(leafPage, false);
+        ByteBuffer buf = pool.buffer(f);
+        int pos = searchLeaf(buf, count(buf), kb);
+        long value = pos >= 0 ? buf.getLong(HEADER + pos * LEAF_ENTRY + KEY_SLOT) : NOT_FOUND;
+        pool.unpin(f, false);
+        return value;
+    }
+
+    public boolean contains(String key) throws IOException {
+        return get(key) != NOT_FOUND;
+    }
+
+    // Valores de todos los códigos en [from, to], en orden, siguiendo la cadena de hojas
+    public ArrayList<Long> rangeSearch(String from, String to) throws IOException {
+        ArrayList<Long> res = new ArrayList<>();
+        byte[] lo = encode(from);
+        byte[] hi = encode(to);
+        int page = descend(lo, null);
+        boolean first = true;
+        while (page != 0) {
+            int f = pool.fetch(page, false);
+            ByteBuffer buf = pool.buffer(f);
+            int count = count(buf);
+            int i = 0;
+            if (first) {
+                i = searchLeaf(buf, count, lo);
+                if (i < 0) i = -i - 1;
+                first = false;
+            }
+            for (; i < count; i++) {
+                int off = HEADER + i * LEAF_ENTRY;
+                if (compare(buf, off, hi) > 0) {
+                    pool.unpin(f, false);
+                    return res;
+                }
+                res.append(buf.getLong(off + KEY_SLOT));
+            }
+            int next = buf.getInt(4);
+            pool.unpin(f, false);
+            page = next;
+        }
+        return res;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    // Fracción de fetch resueltos sin leer del archivo
+    public double hitRatio() {
+        long total = pool.hits() + pool.misses();
+        return total == 0 ? 0.0 : (double) pool.hits() / total;
+    }
+
+    public long poolHits() {
+        return pool.hits();
+    }
+
+    public long poolMisses() {
+        return pool.misses();
+    }
+
+    // Escribe páginas sucias y cabecera
+    public void flush() throws IOException {
+        pool.flush();
+        writeHeader();
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // ---------------------------------------------------------------------
+    // Descenso y splits
+    // ---------------------------------------------------------------------
+
+    // Baja hasta la hoja de 'kb'; si 'path' no es null anota las páginas internas visitadas
+    private int descend(byte[] kb, int[] path) throws IOException {
+        int page = root;
+        for (int d = 0; d < height; d++) {
+            if (path != null) path[d] = page;
+            int f = pool.fetch(page, false);
+            ByteBuffer buf = pool.buffer(f);
+            int ci = childIndex(buf, count(buf), kb);
+            int child = ci == 0 ? buf.getInt(4) : buf.getInt(HEADER + (ci - 1) * INNER_ENTRY + KEY_SLOT);
+            pool.unpin(f, false);
+            page = child;
+        }
+        return page;
+    }
+
+    // Divide una hoja llena insertando (kb, value) en 'pos'; la mitad derecha va a una página nueva
+    private void splitLeaf(int leafPage, int f, int pos, byte[] kb, long value, int[] path) throws IOException {
+        ByteBuffer buf = pool.buffer(f);
+        // Arma las LEAF_CAP + 1 entradas ordenadas en un arreglo temporal
+        byte[] all = new byte[(LEAF_CAP + 1) * LEAF_ENTRY];
+        buf.get(HEADER, all, 0, pos * LEAF_ENTRY);
+        ByteBuffer tmp = ByteBuffer.wrap(all);
+        writeLeafEntry(tmp, pos * LEAF_ENTRY, kb, value);
+        buf.get(HEADER + pos * LEAF_ENTRY, all, (pos + 1) * LEAF_ENTRY, (LEAF_CAP - pos) * LEAF_ENTRY);
+
+        int leftCount = (LEAF_CAP + 1) / 2;
+        int rightCount = LEAF_CAP + 1 - leftCount;
+        int newPage = pageCount++;
+        int nf = pool.fetch(newPage, true);
+        ByteBuffer nbuf = pool.buffer(nf);
+        nbuf.put(0, LEAF);
+        nbuf.putShort(2, (short) rightCount);
+        nbuf.putInt(4, buf.getInt(4)); // el nuevo hereda el 'next'
+        nbuf.put(HEADER, all, leftCount * LEAF_ENTRY, rightCount * LEAF_ENTRY);
+
+        buf.put(HEADER, all, 0, leftCount * LEAF_ENTRY);
+        buf.putShort(2, (short) leftCount);
+        buf.putInt(4, newPage);
+
+        byte[] sep = readKey(nbuf, HEADER);
+        pool.unpin(nf, true);
+        pool.unpin(f, true);
+        insertIntoParent(path, height, leafPage, sep, newPage);
+    }
+
+    // Inserta el separador y la página derecha en el padre path[depth-1] (o crea nueva raíz)
+    private void insertIntoParent(int[] path, int depth, int left, byte[] sep, int right) throws IOException {
+        if (depth == 0) {
+            int newRoot = pageCount++;
+            int f = pool.fetch(newRoot, true);
+            ByteBuffer buf = pool.buffer(f);
+            buf.put(0, INTERNAL);
+            buf.putShort(2, (short) 1);
+            buf.putInt(4, left);
+            writeInnerEntry(buf, HEADER, sep, right);
+            pool.unpin(f, true);
+            root = newRoot;
+            height++;
+            return;
+        }
+        int parent = path[depth - 1];
+        int f = pool.fetch(parent, false);
+        ByteBuffer buf = pool.buffer(f);
+        int count = count(buf);
+        int pos = childIndex(buf, count, sep);
+        if (count < INNER_CAP) {
+            shift(buf, HEADER + pos * INNER_ENTRY, INNER_ENTRY, (count - pos) * INNER_ENTRY);
+            writeInnerEntry(buf, HEADER + pos * INNER_ENTRY, sep, right);
+            buf.putShort(2, (short) (count + 1));
+            pool.unpin(f, true);
+            return;
+        }
+        // Split del interno: INNER_CAP + 1 entradas, la del medio sube al padre
+        byte[] all = new byte[(INNER_CAP + 1) * INNER_ENTRY];
+        buf.get(HEADER, all, 0, pos * INNER_ENTRY);
+        writeInnerEntry(ByteBuffer.wrap(all), pos * INNER_ENTRY, sep, right);
+        buf.get(HEADER + pos * INNER_ENTRY, all, (pos + 1) * INNER_ENTRY, (INNER_CAP - pos) * INNER_ENTRY);
+
+        int mid = (INNER_CAP + 1) / 2;
+        ByteBuffer tmp = ByteBuffer.wrap(all);
+        byte[] up = readKey(tmp, mid * INNER_ENTRY);
+        int upChild = tmp.getInt(mid * INNER_ENTRY + KEY_SLOT);
+        int rightCount = INNER_CAP - mid;
+
+        int newPage = pageCount++;
+        int nf = pool.fetch(newPage, true);
+        ByteBuffer nbuf = pool.buffer(nf);
+        nbuf.put(0, INTERNAL);
+        nbuf.putShort(2, (short) rightCount);
+        nbuf.putInt(4, upChild); // el hijo derecho de la clave promovida es el hijo0 del nuevo nodo
+        nbuf.put(HEADER, all, (mid + 1) * INNER_ENTRY, rightCount * INNER_ENTRY);
+
+        buf.put(HEADER, all, 0, mid * INNER_ENTRY);
+        buf.putShort(2, (short) mid);
+        pool.unpin(nf, true);
+        pool.unpin(f, true);
+        insertIntoParent(path, depth - 1, parent, up, newPage);
+    }
+
+    // ---------------------------------------------------------------------
+    // Acceso a páginas
+    // ---------------------------------------------------------------------
+
+    private static int count(ByteBuffer buf) {
+        return buf.getShort(2) & 0xFFFF;
+    }
+
+    // Búsqueda binaria en una hoja: índice si está, -(punto de inserción) - 1 si no
+    private static int searchLeaf(ByteBuffer buf, int count, byte[] kb) {
+        int lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(buf, HEADER + mid * LEAF_ENTRY, kb);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    // Hijo por el que se desciende en un interno: cantidad de separadores <= kb
+    private static int childIndex(ByteBuffer buf, int count, byte[] kb) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(buf, HEADER + mid * INNER_ENTRY, kb) <= 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Compara la clave guardada en 'off' con kb (orden lexicográfico de bytes sin signo)
+    private static int compare(ByteBuffer buf, int off, byte[] kb) {
+        int len = buf.get(off) & 0xFF;
+        int n = Math.min(len, kb.length);
+        for (int i = 0; i < n; i++) {
+            int a = buf.get(off + 1 + i) & 0xFF;
+            int b = kb[i] & 0xFF;
+            if (a != b) return a - b;
+        }
+        return len - kb.length;
+    }
+
+    private static byte[] readKey(ByteBuffer buf, int off) {
+        byte[] k = new byte[buf.get(off) & 0xFF];
+        buf.get(off + 1, k);
+        return k;
+    }
+
+    private static void writeLeafEntry(ByteBuffer buf, int off, byte[] kb, long value) {
+        buf.put(off, (byte) kb.length);
+        buf.put(off + 1, kb);
+        buf.putLong(off + KEY_SLOT, value);
+    }
+
+    private static void writeInnerEntry(ByteBuffer buf, int off, byte[] kb, int child) {
+        buf.put(off, (byte) kb.length);
+        buf.put(off + 1, kb);
+        buf.putInt(off + KEY_SLOT, child);
+    }
+
+    // Corre 'len' bytes desde 'off' hacia la derecha 'by' posiciones
+    private static void shift(ByteBuffer buf, int off, int by, int len) {
+        if (len <= 0) return;
+        byte[] tmp = new byte[len];
+        buf.get(off, tmp);
+        buf.put(off + by, tmp);
+    }
+
+    private static byte[] encode(String key) {
+        byte[] kb = key.getBytes(StandardCharsets.UTF_8);
+        if (kb.length > KEY_MAX) {
+            throw new IllegalArgumentException("Código demasiado largo (máx " + KEY_MAX + " bytes): " + key);
+        }
+        return kb;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(32);
+        h.putInt(MAGIC).putInt(PAGE_SIZE).putInt(KEY_MAX).putInt(root).putInt(pageCount).putInt(height).putLong(size);
+        h.flip();
+        while (h.hasRemaining()) {
+            channel.write(h, h.position());
+        }
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(32);
+        while (h.hasRemaining()) {
+            if (channel.read(h, h.position()) < 0) break;
+        }
+        h.flip();
+        if (h.remaining() < 32 || h.getInt() != MAGIC || h.getInt() != PAGE_SIZE || h.getInt() != KEY_MAX) {
+            throw new IOException("El archivo no es un PagedBPlusTree compatible");
+        }
+        root = h.getInt();
+        pageCount = h.getInt();
+        height = h.getInt();
+        size = h.getLong();
+    }
+}
@@ -0,0 +1,472 @@
+package tree;
+
+import list.ArrayList;
+import exceptions.ItemDuplicated;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+// B+ Tree persistente (copy-on-write) para que los reportes largos lean sin bloquear a quien inserta.
+// Los nodos son inmutables: cada escritura copia solo el camino raíz-hoja que toca (O(altura) nodos)
+// y publica la nueva versión con un compareAndSet sobre la raíz; si otro escritor ganó, reintenta.
+// Un lector toma un Snapshot (una versión fija) y puede recorrerlo todo lo que quiera: nunca ve
+// estados intermedios ni cambios posteriores. Las versiones viejas no se liberan a mano: en cuanto
+// ningún Snapshot las referencia, sus nodos no compartidos quedan para el recolector de basura.
+// Como una hoja copiada no puede actualizar el 'next' de su vecina, las hojas no están encadenadas:
+// los recorridos usan una pila con el camino actual.
+// @param <K> tipo de clave; debe ser inmutable (p. ej. el código String)
+// @param <V> tipo de valor; get devuelve null si la clave no está
+
+public class PersistentBPlusTree<K extends Comparable<K>, V> {
+    private static final int DEFAULT_ORDER = 64;
+    private final int maxKeys; // máximo de claves por nodo (order - 1, como en BPlusTree)
+    private final int minLeafKeys;     // mínimo de claves en hojas no raíz (order / 2, como en BPlusTree)
+    private final int minInternalKeys; // mínimo en internos no raíz (ceil(order/2) - 1)
+    private final AtomicReference<Snapshot> current;
+
+    // Nodo inmutable: los arreglos tienen exactamente el tamaño usado y nunca se modifican tras publicarse
+    static abstract class Node {
+        final Object[] keys;
+
+        Node(Object[] keys) {
+            this.keys = keys;
+        }
+
+        abstract boolean isLeaf();
+    }
+
+    static final class InternalNode extends Node {
+        final Node[] children; // keys.length + 1 hijos
+
+        InternalNode(Object[] keys, Node[] children) {
+            super(keys);
+            this.children = children;
+        }
+
+        @Override boolean isLeaf() { return false; }
+    }
+
+    static final class LeafNode extends Node {
+        final Object[] values;
+
+        LeafNode(Object[] keys, Object[] values) {
+            super(keys);
+            this.values = values;
+        }
+
+        @Override boolean isLeaf() { return true; }
+    }
+
+    // Resultado de una escritura en un subárbol (un objeto por intento)
+    private static final class Edit {
+        Node right;     // nodo derecho si el hijo se dividió
+        Object sep;     // separador que sube junto con 'right'
+        Object old;     // valor que tenía la clave, si estaba
+        boolean found;  // la clave ya existía
+    }
+
+    public PersistentBPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    public PersistentBPlusTree(int order) {
+        if (order < 3) throw new RuntimeException("Order must be >= 3");
+        this.maxKeys = order - 1;
+        this.minLeafKeys = order / 2;
+        this.minInternalKeys = (order + 1) / 2 - 1;
+        this.current = new AtomicReference<>(new Snapshot(new LeafNode(new Object[0], new Object[0]), 0, 0, 0));
+    }
+
+    // ---------------------------------------------------------------------
+    // Versiones
+    // ---------------------------------------------------------------------
+
+    // Versión inmutable del árbol. Todas sus lecturas ven exactamente el mismo contenido.
+    public final class Snapshot {
+        private final Node root;
+        private final int height;   // niveles internos sobre las hojas
+        private final long size;
+        private final long version; // número de escrituras publicadas hasta esta versión
+
+        private Snapshot(Node root, int height, long size, long version) {
+            this.root = root;
+            this.height = height;
+            this.size = size;
+            this.version = version;
+        }
+
+        @SuppressWarnings("unchecked")
+        public V get(K key) {
+            Node node = root;
+            while (!node.isLeaf()) {
+                InternalNode in = (InternalNode) node;
+                node = in.children[childIndex(in.keys, key)];
+            }
+            int pos = search(node.keys, key);
+            return pos >= 0 ? (V) ((LeafNode) node).values[pos] : null;
+        }
+
+        public boolean contains(K key) {
+            return get(key) != null;
+        }
+
+        public long size() {
+            return size;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        // Valores de las claves en [from, to], en orden
+        public ArrayList<V> rangeSearch(K from, K to) {
+            ArrayList<V> res = new ArrayList<>();
+            Cursor c = cursor(from, true, to, true, -1);
+            while (c.next()) {
+                res.append(c.value());
+            }
+            return res;
+        }
+
+        public Cursor cursor(K from, K to) {
+            return cursor(from, true, to, true, -1);
+        }
+
+        // Mismo contrato que BPlusTree.cursor: extremos null = sin límite, limit < 0 = sin límite
+        public Cursor cursor(K from, boolean fromInclusive, K to, boolean toInclusive, long limit) {
+            return new Cursor(this, from, fromInclusive, to, toInclusive, limit);
+        }
+    }
+
+    // Versión actual; el lector la puede conservar y recorrer mientras otros siguen escribiendo
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    public V get(K key) {
+        return current.get().get(key);
+    }
+
+    public boolean contains(K key) {
+        return current.get().contains(key);
+    }
+
+    public long size() {
+        return current.get().size;
+    }
+
+    public ArrayList<V> rangeSearch(K from, K to) {
+        return current.get().rangeSearch(from, to);
+    }
+
+    // ---------------------------------------------------------------------
+    // Escrituras (copia del camino + CAS de la raíz)
+    // ---------------------------------------------------------------------
+
+    // Inserta el par; si la clave ya existe lanza ItemDuplicated
+    public void insert(K key, V value) throws ItemDuplicated {
+        while (true) {
+            Snapshot s = current.get();
+            Edit e = new Edit();
+            Node r = insert(s.root, key, value, false, e);
+            if (r == null) throw new ItemDuplicated("Clave duplicada: " + key, false);
+            if (current.compareAndSet(s, grown(s, r, e))) return;
+        }
+    }
+
+    // Asocia el valor a la clave; devuelve el valor anterior o null
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        while (true) {
+            Snapshot s = current.get();
+            Edit e = new Edit();
+            Node r = insert(s.root, key, value, true, e);
+            if (current.compareAndSet(s, grown(s, r, e))) {
+                return (V) e.old;
+            }
+        }
+    }
+
+    // Inserta solo si la clave no existe; devuelve el valor presente o null si se insertó
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(K key, V value) {
+        while (true) {
+            Snapshot s = current.get();
+            Edit e = new Edit();
+            Node r = insert(s.root, key, value, false, e);
+            if (r == null) return (V) e.old; // ya estaba: no se publica nada
+            if (current.compareAndSet(s, grown(s, r, e))) {
+                return null;
+            }
+        }
+    }
+
+    // Quita la clave; devuelve su valor o null si no estaba
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        while (true) {
+            Snapshot s = current.get();
+            Edit e = new Edit();
+            Node r = remove(s.root, key, e);
+            if (r == null) return null;
+            int height = s.height;
+            if (!r.isLeaf() && r.keys.length == 0) { // la raíz quedó con un solo hijo: baja un nivel
+                r = ((InternalNode) r).children[0];
+                height--;
+            }
+            if (current.compareAndSet(s, new Snapshot(r, height, s.size - 1, s.version + 1))) {
+                return (V) e.old;
+            }
+        }
+    }
+
+    // Nueva versión tras una inserción; si la raíz se dividió el árbol crece un nivel
+    private Snapshot grown(Snapshot s, Node r, Edit e) {
+        int height = s.height;
+        if (e.right != null) {
+            r = new InternalNode(new Object[]{e.sep}, new Node[]{r, e.right});
+            height++;
+        }
+        return new Snapshot(r, height, e.found ? s.size : s.size + 1, s.version + 1);
+    }
+
+    // Inserta en el subárbol y devuelve la copia nueva del nodo, o null si no hubo cambios.
+    // Si el nodo se divide, la mitad derecha y su separador quedan en 'e'.
+    private Node insert(Node node, K key, V value, boolean replace, Edit e) {
+        if (node.isLeaf()) {
+            LeafNode leaf = (LeafNode) node;
+            int pos = search(leaf.keys, key);
+            if (pos >= 0) {
+                e.found = true;
+                e.old = leaf.values[pos];
+                if (!replace) return null;
+                Object[] values = leaf.values.clone();
+                values[pos] = value;
+                return new LeafNode(leaf.keys, values); // las claves no cambian: se comparten
+            }
+            pos = -pos - 1;
+            Object[] keys = insertSlot(leaf.keys, pos, key);
+            Object[] values = insertSlot(leaf.values, pos, value);
+            if (keys.length <= maxKeys) return new LeafNode(keys, values);
+            int mid = keys.length / 2;
+            e.sep = keys[mid];
+            e.right = new LeafNode(Arrays.copyOfRange(keys, mid, keys.length), Arrays.copyOfRange(values, mid, values.length));
+            return new LeafNode(Arrays.copyOf(keys, mid), Arrays.copyOf(values, mid));
+        }
+        InternalNode in = (InternalNode) node;
+        int ci = childIndex(in.keys, key);
+        Node child = insert(in.children[ci], key, value, replace, e);
+        if (child == null) return null;
+        Node[] children = in.children.clone();
+        children[ci] = child;
+        if (e.right == null) return new InternalNode(in.keys, children);
+
+        Object[] keys = insertSlot(in.keys, ci, e.sep);
+        children = insertSlot(children, ci + 1, e.right);
+        e.right = null;
+        e.sep = null;
+        if (keys.length <= maxKeys) return new InternalNode(keys, children);
+        int mid = keys.length / 2; // keys[mid] sube al padre
+        e.sep = keys[mid];
+        e.right = new InternalNode(Arrays.copyOfRange(keys, mid + 1, keys.length),
+                Arrays.copyOfRange(children, mid + 1, children.length));
+        return new InternalNode(Arrays.copyOf(keys, mid), Arrays.copyOf(children, mid + 1));
+    }
+
+    // Quita la clave del subárbol y devuelve la copia nueva del nodo, o null si la clave no estaba
+    private Node remove(Node node, K key, Edit e) {
+        if (node.isLeaf()) {
+            LeafNode leaf = (LeafNode) node;
+            int pos = search(leaf.keys, key);
+            if (pos < 0) return null;
+            e.found = true;
+            e.old = leaf.values[pos];
+            return new LeafNode(removeSlot(leaf.keys, pos), removeSlot(leaf.values, pos));
+        }
+        InternalNode in = (InternalNode) node;
+        int ci = childIndex(in.keys, key);
+        Node child = remove(in.children[ci], key, e);
+        if (child == null) return null;
+        Node[] children = in.children.clone();
+        children[ci] = child;
+        if (child.keys.length >= (child.isLeaf() ? minLeafKeys : minInternalKeys)) return new InternalNode(in.keys, children);
+        return rebalance(in.keys, children, ci > 0 ? ci - 1 : ci);
+    }
+
+    // El hijo en 'li' o 'li + 1' quedó por debajo del mínimo: se une con su hermano y, si la unión
+    // no entra en un nodo, se vuelve a partir por la mitad (equivale a pedir prestado)
+    private Node rebalance(Object[] keys, Node[] children, int li) {
+        Node left = children[li];
+        Node right = children[li + 1];
+        Node mergedLeft;
+        Node mergedRight = null;
+        Object sep = null;
+        if (left.isLeaf()) {
+            Object[] k = concat(left.keys, right.keys);
+            Object[] v = concat(((LeafNode) left).values, ((LeafNode) right).values);
+            if (k.length <= maxKeys) {
+                mergedLeft = new LeafNode(k, v);
+            } else {
+                int mid = k.length / 2;
+                sep = k[mid];
+                mergedLeft = new LeafNode(Arrays.copyOf(k, mid), Arrays.copyOf(v, mid));
+                mergedRight = new LeafNode(Arrays.copyOfRange(k, mid, k.length), Arrays.copyOfRange(v, mid, v.length));
+            }
+        } else {
+            // Entre dos internos baja el separador del padre
+            Object[] k = concat(insertSlot(left.keys, left.keys.length, keys[li]), right.keys);
+            Node[] c = concat(((InternalNode) left).children, ((InternalNode) right).children);
+            if (k.length <= maxKeys) {
+                mergedLeft = new InternalNode(k, c);
+            } else {
+                int mid = k.length / 2;
+                sep = k[mid];
+                mergedLeft = new InternalNode(Arrays.copyOf(k, mid), Arrays.copyOf(c, mid + 1));
+                mergedRight = new InternalNode(Arrays.copyOfRange(k, mid + 1, k.length), Arrays.copyOfRange(c, mid + 1, c.length));
+            }
+        }
+        children[li] = mergedLeft;
+        if (mergedRight != null) {
+            Object[] k = keys.clone();
+            k[li] = sep;
+            children[li + 1] = mergedRight;
+            return new InternalNode(k, children);
+        }
+        return new InternalNode(removeSlot(keys, li), removeSlot(children, li + 1));
+    }
+
+    // ---------------------------------------------------------------------
+    // Auxiliares
+    // ---------------------------------------------------------------------
+
+    // Búsqueda binaria: índice si está, -(punto de inserción) - 1 si no
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<K>> int search(Object[] keys, K key) {
+        int lo = 0, hi = keys.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = ((K) keys[mid]).compareTo(key);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    // Hijo por el que se desciende: cantidad de separadores <= key
+    private static <K extends Comparable<K>> int childIndex(Object[] keys, K key) {
+        int i = search(keys, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private static <T> T[] insertSlot(T[] a, int pos, T x) {
+        T[] r = Arrays.copyOf(a, a.length + 1);
+        System.arraycopy(a, pos, r, pos + 1, a.length - pos);
+        r[pos] = x;
+        return r;
+    }
+
+    private static <T> T[] removeSlot(T[] a, int pos) {
+        T[] r = Arrays.copyOf(a, a.length - 1);
+        System.arraycopy(a, pos + 1, r, pos, a.length - pos - 1);
+        return r;
+    }
+
+    private static <T> T[] concat(T[] a, T[] b) {
+        T[] r = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+
+    // ---------------------------------------------------------------------
+    // Cursor
+    // ---------------------------------------------------------------------
+
+    // Cursor perezoso sobre un Snapshot. Guarda el camino raíz-hoja actual; al agotar una hoja
+    // sube hasta el primer interno con hijos pendientes y baja por el extremo izquierdo.
+    public final class Cursor {
+        private final Node[] nodes; // nodes[d]: nodo del camino en la profundidad d (nodes[height] es la hoja)
+        private final int[] idx;    // hijo actual en cada interno / próxima posición en la hoja
+        private final int leafDepth;
+        private final K to;
+        private final boolean toInclusive;
+        private long remaining;
+        private boolean done;
+        private K key;
+        private V value;
+
+        private Cursor(Snapshot s, K from, boolean fromInclusive, K to, boolean toInclusive, long limit) {
+            this.leafDepth = s.height;
+            this.nodes = new Node[leafDepth + 1];
+            this.idx = new int[leafDepth + 1];
+            this.to = to;
+            this.toInclusive = toInclusive;
+            this.remaining = limit;
+            Node node = s.root;
+            for (int d = 0; d < leafDepth; d++) {
+                InternalNode in = (InternalNode) node;
+                int ci = from == null ? 0 : childIndex(in.keys, from);
+                nodes[d] = in;
+                idx[d] = ci;
+                node = in.children[ci];
+            }
+            nodes[leafDepth] = node;
+            if (from != null) {
+                int pos = search(node.keys, from);
+                idx[leafDepth] = pos >= 0 ? (fromInclusive ? pos : pos + 1) : -pos - 1;
+            }
+        }
+
+        // Avanza al siguiente par del rango; devuelve false cuando ya no quedan
+        @SuppressWarnings("unchecked")
+        public boolean next() {
+            if (remaining == 0) done = true;
+            if (done) return false;
+            while (idx[leafDepth] >= nodes[leafDepth].keys.length) {
+                if (!nextLeaf()) {
+                    done = true;
+                    return false;
+                }
+            }
+            LeafNode leaf = (LeafNode) nodes[leafDepth];
+            int i = idx[leafDepth];
+            K k = (K) leaf.keys[i];
+            if (to != null) {
+                int cmp = k.compareTo(to);
+                if (cmp > 0 || (cmp == 0 && !toInclusive)) {
+                    done = true;
+                    return false;
+                }
+            }
+            key = k;
+            value = (V) leaf.values[i];
+            idx[leafDepth] = i + 1;
+            if (remaining > 0) remaining--;
+            return true;
+        }
+
+        private boolean nextLeaf() {
+            int d = leafDepth - 1;
+            while (d >= 0 && idx[d] >= ((InternalNode) nodes[d]).children.length - 1) d--;
+            if (d < 0) return false;
+            idx[d]++;
+            Node node = ((InternalNode) nodes[d]).children[idx[d]];
+            for (d++; d < leafDepth; d++) {
+                nodes[d] = node;
+                idx[d] = 0;
+                node = ((InternalNode) node).children[0];
+            }
+            nodes[leafDepth] = node;
+            idx[leafDepth] = 0;
+            return true;
+        }
+
+        public K key() {
+            return key;
+        }
+
+        public V value() {
+            return value;
+        }
+    }
+}
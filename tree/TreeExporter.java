@@ -0,0 +1,238 @@
+package tree;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Exporta la forma de un BPlusTree a DOT (Graphviz) o JSON escribiendo directo sobre un Writer, sin armar
+// el grafo en memoria. TreeView (GraphStream) crea un nodo gráfico por nodo del árbol y abre una ventana,
+// así que no sirve para árboles grandes ni en servidores sin pantalla; esto sí.
+// Para que la salida quede acotada en árboles grandes:
+// - maxDepth: niveles que se bajan desde la raíz (0 = solo la raíz); cada subárbol más profundo se
+//   resume en un nodo con su cantidad de hijos y su rango de claves
+// - maxChildren: hijos que se muestran por nodo interno, repartidos parejo (siempre el primero y el último);
+//   cada tramo de hermanos omitidos se resume en un solo nodo con la cantidad y el rango de claves, y si
+//   son hojas también el total de claves del tramo
+// - maxLabelKeys: claves que se muestran por nodo; las del medio quedan como "…"
+// Con los límites la salida crece como maxChildren^maxDepth, no con el tamaño del árbol. La memoria extra
+// es O(altura) (la recursión) y el tiempo es proporcional a lo que se escribe (los rangos de los tramos
+// omitidos salen de bajar por los bordes, O(altura); el total de claves de un tramo de hojas recorre solo
+// esas hojas hermanas).
+// El Writer no se cierra ni se vacía; conviene pasarle un BufferedWriter.
+// No admite modificaciones del árbol mientras se exporta.
+// @param <K> tipo de clave
+// @param <V> tipo de valor
+
+public class TreeExporter<K extends Comparable<K>, V> {
+    private final BPlusTree<K, V> tree;
+    private int maxDepth = Integer.MAX_VALUE;
+    private int maxChildren = Integer.MAX_VALUE;
+    private int maxLabelKeys = Integer.MAX_VALUE;
+    private Writer out;
+    private int ids; // próximo id de nodo en la salida
+
+    public TreeExporter(BPlusTree<K, V> tree) {
+        this.tree = tree;
+    }
+
+    // Niveles a bajar desde la raíz (0 = solo la raíz)
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 0) throw new IllegalArgumentException("maxDepth must be >= 0");
+        this.maxDepth = maxDepth;
+    }
+
+    // Hijos mostrados por nodo interno (>= 2: el primero y el último siempre se muestran)
+    public void setMaxChildren(int maxChildren) {
+        if (maxChildren < 2) throw new IllegalArgumentException("maxChildren must be >= 2");
+        this.maxChildren = maxChildren;
+    }
+
+    // Claves mostradas por nodo (>= 2: la primera y la última siempre se muestran)
+    public void setMaxLabelKeys(int maxLabelKeys) {
+        if (maxLabelKeys < 2) throw new IllegalArgumentException("maxLabelKeys must be >= 2");
+        this.maxLabelKeys = maxLabelKeys;
+    }
+
+    // ===================== DOT =====================
+
+    // digraph con un nodo por nodo del árbol mostrado y nodos punteados para lo resumido
+    public void writeDot(Writer out) throws IOException {
+        this.out = out;
+        this.ids = 0;
+        BPlusTree<K, V>.Node root = tree.getRoot();
+        out.write("digraph BPlusTree {\n");
+        out.write("  node [shape=box, fontname=\"monospace\", fontsize=10];\n");
+        out.write("  label=\"B+ Tree orden " + orderOf(root) + ", altura " + heightOf(root) + "\";\n");
+        dotNode(root, 0);
+        out.write("}\n");
+        this.out = null;
+    }
+
+    private int dotNode(BPlusTree<K, V>.Node node, int depth) throws IOException {
+        int id = ids++;
+        out.write("  n" + id + " [label=\"" + escape(label(node)) + "\"" + (node.isLeaf() ? ", style=rounded" : "") + "];\n");
+        if (node.isLeaf()) return id;
+        BPlusTree<K, V>.InternalNode in = (BPlusTree<K, V>.InternalNode) node;
+        if (depth >= maxDepth) {
+            int s = dotSummary(in, 0, in.count);
+            out.write("  n" + id + " -> n" + s + " [style=dashed];\n");
+            return id;
+        }
+        int shown = Math.min(in.count + 1, maxChildren);
+        int prev = -1; // último hijo mostrado
+        for (int j = 0; j < shown; j++) {
+            int i = pick(j, shown, in.count + 1);
+            if (i > prev + 1) {
+                int s = dotSummary(in, prev + 1, i - 1);
+                out.write("  n" + id + " -> n" + s + " [style=dashed];\n");
+            }
+            int c = dotNode(in.children[i], depth + 1);
+            out.write("  n" + id + " -> n" + c + ";\n");
+            prev = i;
+        }
+        return id;
+    }
+
+    // Nodo que resume los hijos [from, to] de in
+    private int dotSummary(BPlusTree<K, V>.InternalNode in, int from, int to) throws IOException {
+        int id = ids++;
+        StringBuilder sb = new StringBuilder("… ");
+        int n = to - from + 1;
+        sb.append(n).append(in.children[from].isLeaf() ? (n == 1 ? " hoja" : " hojas") : (n == 1 ? " subárbol" : " subárboles"));
+        long keys = leafKeys(in, from, to);
+        if (keys >= 0) sb.append(", ").append(keys).append(" claves");
+        K lo = firstKey(in.children[from]), hi = lastKey(in.children[to]);
+        if (lo != null) sb.append('\n').append(lo).append(" .. ").append(hi);
+        out.write("  n" + id + " [label=\"" + escape(sb.toString()) + "\", style=dashed];\n");
+        return id;
+    }
+
+    // ===================== JSON =====================
+
+    // {"order":..,"height":..,"root":{"leaf":..,"count":..,"keys":[..],"children":[..]}}; con
+    // maxLabelKeys "keys" trae las primeras claves y la última ("count" dice cuántas hay). Los tramos
+    // resumidos son objetos {"omitted":n,"leaves":bool,"totalKeys":n (solo hojas),"from":..,"to":..}.
+    // Las claves se escriben como strings (String.valueOf).
+    public void writeJson(Writer out) throws IOException {
+        this.out = out;
+        BPlusTree<K, V>.Node root = tree.getRoot();
+        out.write("{\"order\":" + orderOf(root) + ",\"height\":" + heightOf(root) + ",\"root\":");
+        jsonNode(root, 0);
+        out.write("}\n");
+        this.out = null;
+    }
+
+    private void jsonNode(BPlusTree<K, V>.Node node, int depth) throws IOException {
+        out.write("{\"leaf\":" + node.isLeaf() + ",\"count\":" + node.count + ",\"keys\":[");
+        int shown = Math.min(node.count, maxLabelKeys);
+        for (int j = 0; j < shown; j++) {
+            if (j > 0) out.write(',');
+            jsonString(String.valueOf(node.keys[j < shown - 1 ? j : node.count - 1]));
+        }
+        out.write(']');
+        if (!node.isLeaf()) {
+            BPlusTree<K, V>.InternalNode in = (BPlusTree<K, V>.InternalNode) node;
+            out.write(",\"children\":[");
+            if (depth >= maxDepth) {
+                jsonSummary(in, 0, in.count);
+            } else {
+                int shownChildren = Math.min(in.count + 1, maxChildren);
+                int prev = -1;
+                for (int j = 0; j < shownChildren; j++) {
+                    int i = pick(j, shownChildren, in.count + 1);
+                    if (j > 0) out.write(',');
+                    if (i > prev + 1) {
+                        jsonSummary(in, prev + 1, i - 1);
+                        out.write(',');
+                    }
+                    jsonNode(in.children[i], depth + 1);
+                    prev = i;
+                }
+            }
+            out.write(']');
+        }
+        out.write('}');
+    }
+
+    private void jsonSummary(BPlusTree<K, V>.InternalNode in, int from, int to) throws IOException {
+        boolean leaves = in.children[from].isLeaf();
+        out.write("{\"omitted\":" + (to - from + 1) + ",\"leaves\":" + leaves);
+        if (leaves) out.write(",\"totalKeys\":" + leafKeys(in, from, to));
+        K lo = firstKey(in.children[from]), hi = lastKey(in.children[to]);
+        if (lo != null) {
+            out.write(",\"from\":");
+            jsonString(String.valueOf(lo));
+            out.write(",\"to\":");
+            jsonString(String.valueOf(hi));
+        }
+        out.write('}');
+    }
+
+    private void jsonString(String s) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+
+    // ===================== Auxiliares =====================
+
+    // j-ésimo de 'shown' índices repartidos parejo en [0, total): 0 y total - 1 siempre, crecientes sin repetir
+    private static int pick(int j, int shown, int total) {
+        if (shown == total) return j;
+        return shown == 1 ? 0 : (int) ((long) j * (total - 1) / (shown - 1));
+    }
+
+    // "[k1, k2, …, kn]" con a lo sumo maxLabelKeys claves
+    private String label(BPlusTree<K, V>.Node node) {
+        if (node.count <= maxLabelKeys) return node.keysToString();
+        StringBuilder sb = new StringBuilder("[");
+        int head = maxLabelKeys - 1; // las primeras head claves y la última
+        for (int i = 0; i < head; i++) sb.append(node.keys[i]).append(", ");
+        sb.append("… (").append(node.count - maxLabelKeys).append("), ");
+        return sb.append(node.keys[node.count - 1]).append("]").toString();
+    }
+
+    // Total de claves de los hijos [from, to] si son hojas, -1 si son internos
+    private long leafKeys(BPlusTree<K, V>.InternalNode in, int from, int to) {
+        if (!in.children[from].isLeaf()) return -1;
+        long keys = 0;
+        for (int i = from; i <= to; i++) keys += in.children[i].count;
+        return keys;
+    }
+
+    private K firstKey(BPlusTree<K, V>.Node node) {
+        while (!node.isLeaf()) node = ((BPlusTree<K, V>.InternalNode) node).children[0];
+        return node.count == 0 ? null : node.key(0);
+    }
+
+    private K lastKey(BPlusTree<K, V>.Node node) {
+        while (!node.isLeaf()) {
+            BPlusTree<K, V>.InternalNode in = (BPlusTree<K, V>.InternalNode) node;
+            node = in.children[in.count];
+        }
+        return node.count == 0 ? null : node.key(node.count - 1);
+    }
+
+    private int orderOf(BPlusTree<K, V>.Node root) {
+        return root.keys.length;
+    }
+
+    private int heightOf(BPlusTree<K, V>.Node node) {
+        int h = 0;
+        for (; !node.isLeaf(); h++) node = ((BPlusTree<K, V>.InternalNode) node).children[0];
+        return h;
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -73,7 +73,7 @@ public class ConsoleMain {
                 case "3":
                     System.out.print("Código a buscar: ");
                     code = scanner.nextLine();
-                    item = system.getItem(code);
+                    item = system.findItem(code);
                     System.out.println(item!=null?"Ítem: "+item:"No existe");
                     break;
                 case "4":